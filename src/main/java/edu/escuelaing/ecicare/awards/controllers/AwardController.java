@@ -13,6 +13,7 @@ import edu.escuelaing.ecicare.awards.models.dto.AwardResponse;
 import edu.escuelaing.ecicare.awards.models.entity.Award;
 import edu.escuelaing.ecicare.awards.models.mapper.AwardMapper;
 import edu.escuelaing.ecicare.awards.services.AwardService;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -82,6 +83,23 @@ public class AwardController {
         return ResponseEntity.ok(searchResults);
     }
 
+    /**
+     * Searches awards by name with cursor pagination in id order, for infinite
+     * scroll clients. Pages cost the same at any depth and are not counted.
+     *
+     * @param q     the search query (partial or full award name).
+     * @param after the {@code nextCursor} of the previous page; omit for the first page.
+     * @param limit the page size (default 20, max 100).
+     * @return a {@link ResponseEntity} containing a {@link CursorPage} of {@link Award}.
+     */
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPage<Award>> scrollAwards(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(awardService.searchAwardsByNameAfter(q, after, limit));
+    }
+
     /**
      * Retrieves an award by its unique identifier.
      *
@@ -1,5 +1,8 @@
 package edu.escuelaing.ecicare.awards.repositories;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -19,4 +22,16 @@ public interface AwardRepository extends JpaRepository<Award, Long> {
      * @return page of awards matching the search criteria
      */
     Page<Award> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    /**
+     * Keyset page of the awards whose name contains the given text, in
+     * primary-key order. No COUNT query is issued.
+     *
+     * @param name    the text to search for in award names
+     * @param awardId the last id of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of awards to return
+     * @return the matching awards after {@code awardId}, sorted by id
+     */
+    List<Award> findByNameContainingIgnoreCaseAndAwardIdGreaterThanOrderByAwardIdAsc(String name, Long awardId,
+            Limit limit);
 }
\ No newline at end of file
@@ -3,11 +3,16 @@ package edu.escuelaing.ecicare.awards.repositories;
 import edu.escuelaing.ecicare.awards.models.entity.Redeemable;
 import edu.escuelaing.ecicare.awards.models.entity.RedeemableId;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -39,4 +44,24 @@ public interface RedeemableRepository extends JpaRepository<Redeemable, Redeemab
     List<Redeemable> findByChallenge_Name(String challengeName);
 
     void deleteAllByChallenge(Challenge challenge);
+
+    /**
+     * Deletes the redeemables of the given challenges in one statement.
+     *
+     * @param challengeNames the names of the challenges
+     * @return the number of deleted redeemables
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM redeemables WHERE challenge_name IN (:challengeNames)", nativeQuery = true)
+    int deleteByChallengeNames(@Param("challengeNames") Collection<String> challengeNames);
+
+    /**
+     * Names of the challenges that offer an award.
+     *
+     * @param awardId the ID of the award
+     * @return the names of the challenges with a redeemable of the award
+     */
+    @Query("SELECT r.id.challengeName FROM Redeemable r WHERE r.id.awardId = :awardId")
+    List<String> findChallengeNamesByAwardId(@Param("awardId") Long awardId);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package edu.escuelaing.ecicare.awards.services;
 
 import java.lang.reflect.Field;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +14,9 @@ import edu.escuelaing.ecicare.awards.models.dto.AwardDto;
 import edu.escuelaing.ecicare.awards.models.entity.Award;
 import edu.escuelaing.ecicare.services.MapperService;
 import edu.escuelaing.ecicare.awards.repositories.AwardRepository;
+import edu.escuelaing.ecicare.awards.repositories.RedeemableRepository;
+import edu.escuelaing.ecicare.challenges.services.ChallengeCache;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -27,6 +31,8 @@ public class AwardService {
 
     private final AwardRepository awardRepository;
     private final MapperService mapperService;
+    private final RedeemableRepository redeemableRepository;
+    private final ChallengeCache challengeCache;
 
     /**
      * Retrieves the total number of awards in the repository.
@@ -115,7 +121,10 @@ public class AwardService {
                         }
                     }
                 });
-        return awardRepository.save(existingAward);
+        Award saved = awardRepository.save(existingAward);
+        // Los retos en caché muestran los datos del premio
+        challengeCache.invalidateAll(redeemableRepository.findChallengeNamesByAwardId(awardId));
+        return saved;
     }
 
     /**
@@ -128,7 +137,9 @@ public class AwardService {
         Award award = awardRepository.findById(awardId)
                 .orElseThrow(() -> new AwardNotFoundException(awardId));
 
+        List<String> challengeNames = redeemableRepository.findChallengeNamesByAwardId(awardId);
         awardRepository.delete(award);
+        challengeCache.invalidateAll(challengeNames);
     }
 
     /**
@@ -157,4 +168,37 @@ public class AwardService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
         return awardRepository.findByNameContainingIgnoreCase(searchQuery.trim(), pageable);
     }
+
+    /**
+     * Searches awards by name with keyset (cursor) pagination in id order.
+     *
+     * Each page is fetched with {@code award_id > cursor LIMIT limit + 1}, so it
+     * costs the same at any depth and no COUNT query is issued.
+     *
+     * @param searchQuery the text to search for in award names
+     * @param after       the cursor returned with the previous page, or
+     *                    {@code null} for the first page
+     * @param limit       the number of results per page
+     * @return a {@link CursorPage} of awards matching the search criteria
+     */
+    public CursorPage<Award> searchAwardsByNameAfter(String searchQuery, String after, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        if (searchQuery == null || searchQuery.trim().isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+        String query = searchQuery.trim();
+        if (query.length() > 50) {
+            query = query.substring(0, 50);
+        }
+        String lastId = CursorPage.decode(after);
+        long afterId;
+        try {
+            afterId = lastId == null ? 0L : Long.parseLong(lastId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+        List<Award> rows = awardRepository.findByNameContainingIgnoreCaseAndAwardIdGreaterThanOrderByAwardIdAsc(
+                query, afterId, Limit.of(CursorPage.fetchSize(size)));
+        return CursorPage.of(rows, size, Award::getAwardId, award -> award);
+    }
 }
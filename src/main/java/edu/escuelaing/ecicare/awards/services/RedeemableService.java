@@ -10,6 +10,7 @@ import edu.escuelaing.ecicare.awards.models.entity.Redeemable;
 import edu.escuelaing.ecicare.awards.models.entity.RedeemableId;
 import edu.escuelaing.ecicare.awards.repositories.RedeemableRepository;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.services.ChallengeCache;
 import edu.escuelaing.ecicare.challenges.services.ChallengeService;
 import lombok.RequiredArgsConstructor;
 
@@ -27,6 +28,7 @@ public class RedeemableService {
     private final RedeemableRepository redeemableRepository;
     private final AwardService awardService;
     private final ChallengeService challengeService;
+    private final ChallengeCache challengeCache;
 
     /**
      * Retrieves all redeemable entities from the repository.
@@ -87,7 +89,9 @@ public class RedeemableService {
                 .limitDays(redeemableDto.getLimitDays())
                 .build();
 
-        return redeemableRepository.save(redeemableEntity);
+        Redeemable saved = redeemableRepository.save(redeemableEntity);
+        challengeCache.invalidate(challenge.getName());
+        return saved;
     }
 
     /**
@@ -104,7 +108,9 @@ public class RedeemableService {
         if (redeemableDto.getLimitDays() != null) {
             existingRedeemable.setLimitDays(redeemableDto.getLimitDays());
         }
-        return redeemableRepository.save(existingRedeemable);
+        Redeemable saved = redeemableRepository.save(existingRedeemable);
+        challengeCache.invalidate(challengeName);
+        return saved;
     }
 
     /**
@@ -117,5 +123,6 @@ public class RedeemableService {
     public void deleteRedeemable(String challengeName, Long awardId) {
         Redeemable redeemable = this.getRedeemableById(challengeName, awardId);
         redeemableRepository.delete(redeemable);
+        challengeCache.invalidate(challengeName);
     }
 }
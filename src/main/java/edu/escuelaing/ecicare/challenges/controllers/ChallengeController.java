@@ -1,13 +1,25 @@
 package edu.escuelaing.ecicare.challenges.controllers;
 
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeDeadline;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary;
+import edu.escuelaing.ecicare.challenges.models.dto.EnrollmentReport;
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardEntry;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleWithChallengesDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.PurgeStatus;
 import edu.escuelaing.ecicare.challenges.models.dto.UserEmailNameDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.UserVerificationResult;
+import edu.escuelaing.ecicare.challenges.models.dto.UserVerificationStatus;
+import edu.escuelaing.ecicare.challenges.models.dto.VerificationAck;
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.services.ChallengePurger;
 import edu.escuelaing.ecicare.challenges.services.ChallengeService;
+import edu.escuelaing.ecicare.challenges.services.VerificationBuffer;
 import edu.escuelaing.ecicare.awards.models.dto.AwardDto;
+import edu.escuelaing.ecicare.utils.models.dto.CacheMetrics;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,14 +31,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link Challenge} entities.
@@ -47,6 +69,12 @@ public class ChallengeController {
     @Autowired
     private ChallengeService challengeService;
 
+    @Autowired
+    private VerificationBuffer verificationBuffer;
+
+    @Autowired
+    private ChallengePurger challengePurger;
+
     /**
      * Creates a new challenge.
      *
@@ -66,13 +94,21 @@ public class ChallengeController {
      *
      * @param page the page number (0-based, optional)
      * @param size the page size (optional)
+     * @param view {@code SUMMARY}, in any case, to return a page of
+     *             {@link ChallengeSummary} cards instead of full challenges
+     *             (optional)
      * @return ResponseEntity containing either a paginated Page of challenges or a
      *         List of all challenges
      */
     @GetMapping("/")
     public ResponseEntity<?> getAllChallenges(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
+        if ("SUMMARY".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(challengeService.getChallengeSummariesPaginated(
+                    page != null ? page : 0, size != null ? size : 10));
+        }
         if (page != null && size != null) {
             Page<ChallengeResponse> challengePage = challengeService.getAllChallengesPaginated(page, size);
             return ResponseEntity.ok(challengePage);
@@ -81,6 +117,31 @@ public class ChallengeController {
         return ResponseEntity.ok(allChallenges);
     }
 
+    /**
+     * Retrieves challenges with cursor pagination in name order, for infinite
+     * scroll clients. Pages cost the same at any depth and are not counted.
+     *
+     * @param after the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size (default 20, max 100)
+     * @return a {@link CursorPage} of challenges
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ChallengeResponse>> scrollChallenges(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(challengeService.getChallengesAfter(after, limit));
+    }
+
+    /**
+     * Hit, miss and eviction statistics of the challenge read-through caches.
+     *
+     * @return one entry per cache
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheMetrics>> getCacheStats() {
+        return ResponseEntity.ok(challengeService.getCacheStats());
+    }
+
     /**
      * Search challenges by name and group them by modules - Perfect for organized
      * display.
@@ -106,16 +167,47 @@ public class ChallengeController {
         return ResponseEntity.ok(groupedResults);
     }
 
+    /**
+     * Bounded version of {@link #searchChallenges(String)}: pages over the
+     * modules with matching challenges and returns, for each one, how many
+     * challenges match and only the first {@code perModule} of them.
+     *
+     * GET /challenges/search/modules?q=term&perModule=5&page=0&size=10
+     *
+     * @param q         the search query
+     * @param perModule maximum number of challenges returned per module
+     * @param page      page of modules
+     * @param size      modules per page
+     * @return an empty page if there is no search query, otherwise a page of
+     *         {@link ModuleWithChallengesDTO}
+     */
+    @GetMapping("/search/modules")
+    public ResponseEntity<Page<ModuleWithChallengesDTO>> searchChallengesByModule(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "" + ChallengeService.DEFAULT_CHALLENGES_PER_MODULE) int perModule,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (q == null || q.trim().isEmpty()) {
+            return ResponseEntity.ok(Page.empty(PageRequest.of(page, size)));
+        }
+
+        return ResponseEntity.ok(
+                challengeService.searchChallengesGroupedByModule(q, perModule, PageRequest.of(page, size)));
+    }
+
     /**
      * Retrieves all confirmed challenges in which a user with the given email was
      * registered.
      *
      * @param userEmail email of user
+     * @param history   whether challenges already moved to the archive are included
      * @return a list of challenges where the user is confirmed
      */
     @GetMapping("/confirmed/{userEmail}")
-    public List<ChallengeResponse> getChallengesConfirmedByUserEmail(@PathVariable String userEmail) {
-        return challengeService.getChallengesCompletedByUserEmail(userEmail);
+    public List<ChallengeResponse> getChallengesConfirmedByUserEmail(@PathVariable String userEmail,
+            @RequestParam(defaultValue = "false") boolean history) {
+        return challengeService.getChallengesCompletedByUserEmail(userEmail, history);
     }
 
     /**
@@ -156,6 +248,86 @@ public class ChallengeController {
         return challengeService.getChallengeByDuration(duration);
     }
 
+    /**
+     * Pages the open challenges whose deadline falls within the next days,
+     * closest deadline first.
+     *
+     * GET /challenges/deadlines/expiring?days=7&page=0&size=10
+     *
+     * @param days the size of the window, in days
+     * @param page the page number
+     * @param size the page size
+     * @return a page of {@link ChallengeSummary}
+     */
+    @GetMapping("/deadlines/expiring")
+    public Page<ChallengeSummary> getChallengesExpiringSoon(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return challengeService.getChallengesExpiringWithin(days, page, size);
+    }
+
+    /**
+     * Pages the challenges still accepting participants, closest deadline first.
+     *
+     * GET /challenges/deadlines/active?page=0&size=10
+     *
+     * @param page the page number
+     * @param size the page size
+     * @return a page of {@link ChallengeSummary}
+     */
+    @GetMapping("/deadlines/active")
+    public Page<ChallengeSummary> getActiveChallenges(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return challengeService.getActiveChallenges(page, size);
+    }
+
+    /**
+     * Next deadlines of the open challenges in which a user is registered.
+     *
+     * GET /challenges/users/{userEmail}/deadlines?limit=5
+     *
+     * @param userEmail the email of the user
+     * @param limit     the maximum number of deadlines
+     * @return the deadlines, closest first
+     */
+    @GetMapping("/users/{userEmail}/deadlines")
+    public List<ChallengeDeadline> getUpcomingDeadlines(@PathVariable String userEmail,
+            @RequestParam(required = false) Integer limit) {
+        return challengeService.getUpcomingDeadlinesByUserEmail(userEmail, limit);
+    }
+
+    /**
+     * Users with most completed challenges, overall or in a module.
+     *
+     * GET /challenges/leaderboard?module=Nutrición&limit=10
+     *
+     * @param module the module, omitted for the overall ranking
+     * @param limit  the maximum number of users
+     * @return the leaderboard, best first
+     */
+    @GetMapping("/leaderboard")
+    public List<LeaderboardEntry> getLeaderboard(@RequestParam(required = false) String module,
+            @RequestParam(required = false) Integer limit) {
+        return challengeService.getLeaderboard(module, limit);
+    }
+
+    /**
+     * Position of a user in the overall or module leaderboard.
+     *
+     * GET /challenges/leaderboard/users/{userEmail}?module=Nutrición
+     *
+     * @param userEmail the email of the user
+     * @param module    the module, omitted for the overall ranking
+     * @return the rank of the user
+     */
+    @GetMapping("/leaderboard/users/{userEmail}")
+    public LeaderboardEntry getLeaderboardRank(@PathVariable String userEmail,
+            @RequestParam(required = false) String module) {
+        return challengeService.getLeaderboardRank(module, userEmail);
+    }
+
     /**
      * Retrieves all challenges in which a user with the given email is registered.
      *
@@ -196,11 +368,13 @@ public class ChallengeController {
      * Retrieves all challenges in which a user with the given email is confirmed.
      *
      * @param userEmail email of user
+     * @param history   whether challenges already moved to the archive are included
      * @return a list of challenges where the user is confirmed
      */
     @GetMapping("/users/{userEmail}/completed")
-    public List<ChallengeResponse> getUserCompletedChallenges(@PathVariable String userEmail) {
-        return challengeService.getChallengesCompletedByUserEmail(userEmail);
+    public List<ChallengeResponse> getUserCompletedChallenges(@PathVariable String userEmail,
+            @RequestParam(defaultValue = "false") boolean history) {
+        return challengeService.getChallengesCompletedByUserEmail(userEmail, history);
     }
 
     /**
@@ -221,9 +395,11 @@ public class ChallengeController {
     public ResponseEntity<Page<ChallengeResponse>> getUserCompletedChallenges(
             @PathVariable("email") String userEmail,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean history) {
 
-        Page<ChallengeResponse> result = challengeService.getChallengesCompletedByUserEmailPaged(userEmail, page, size);
+        Page<ChallengeResponse> result = challengeService.getChallengesCompletedByUserEmailPaged(
+                userEmail, page, size, history);
         return ResponseEntity.ok(result);
     }
 
@@ -243,10 +419,23 @@ public class ChallengeController {
      * Deletes a challenge by its name.
      *
      * @param name the name of the challenge to delete
+     * @param soft whether to only mark it deleted and purge its rows in the
+     *             background
      */
     @DeleteMapping("/{name}")
-    public void deleteChallengeByName(@PathVariable String name) {
-        challengeService.deleteChallenge(name);
+    public void deleteChallengeByName(@PathVariable String name,
+            @RequestParam(defaultValue = "false") boolean soft) {
+        challengeService.deleteChallenge(name, soft);
+    }
+
+    /**
+     * Progress of the background purge of soft deleted challenges and modules.
+     *
+     * @return the pending work and the totals purged since startup
+     */
+    @GetMapping("/purge/status")
+    public ResponseEntity<PurgeStatus> getPurgeStatus() {
+        return ResponseEntity.ok(challengePurger.status());
     }
 
     /**
@@ -273,6 +462,72 @@ public class ChallengeController {
         return challengeService.confirmUserByEmail(userEmail, name);
     }
 
+    /**
+     * Records a verification scan and answers immediately with the projected
+     * count. With write-behind enabled the increment is flushed in the background.
+     *
+     * @param userEmail the email of the scanned user
+     * @param name      the name of the challenge
+     * @return the acknowledgement of the scan
+     */
+    @PostMapping("/users/{userEmail}/challenges/{name}/verifications")
+    public ResponseEntity<VerificationAck> verifyUserByEmail(@PathVariable String userEmail,
+            @PathVariable String name) {
+        VerificationAck ack = verificationBuffer.verify(userEmail, name);
+        return ack.buffered() ? ResponseEntity.accepted().body(ack) : ResponseEntity.ok(ack);
+    }
+
+    /**
+     * Confirms many participants of a challenge in one request, for in-person
+     * check-in sessions.
+     *
+     * @param name   the name of the challenge
+     * @param emails the emails of the users to verify
+     * @return the result of the verification for each received email
+     */
+    @PutMapping("/{name}/confirm")
+    public ResponseEntity<List<UserVerificationResult>> confirmUsersByEmail(@PathVariable String name,
+            @RequestBody List<String> emails) {
+        return ResponseEntity.ok(challengeService.confirmUsersByEmail(name, emails));
+    }
+
+    /**
+     * Enrolls many users in a challenge from a JSON list of emails.
+     *
+     * @param name   the name of the challenge
+     * @param emails the emails of the users to enroll
+     * @return a summary of enrolled, already registered, duplicated and unknown
+     *         emails
+     */
+    @PostMapping(value = "/{name}/users", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EnrollmentReport> enrollUsersByEmail(@PathVariable String name,
+            @RequestBody List<String> emails) {
+        return ResponseEntity.ok(challengeService.enrollUsersByEmail(name, emails.stream()));
+    }
+
+    /**
+     * Enrolls many users in a challenge from a CSV upload. The body is read as a
+     * stream, one or more comma separated emails per line; blank values are
+     * skipped and any other value that is not a user's email, a header
+     * included, is reported as unknown.
+     *
+     * @param name the name of the challenge
+     * @param csv  the CSV body
+     * @return a summary of enrolled, already registered, duplicated and unknown
+     *         emails
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/{name}/users", consumes = "text/csv")
+    public ResponseEntity<EnrollmentReport> enrollUsersFromCsv(@PathVariable String name, InputStream csv)
+            throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            Stream<String> emails = reader.lines()
+                    .flatMap(line -> Arrays.stream(line.split(",")))
+                    .map(String::trim);
+            return ResponseEntity.ok(challengeService.enrollUsersByEmail(name, emails));
+        }
+    }
+
     /**
      * Retrieves confirmed users for a specific challenge
      *
@@ -312,6 +567,18 @@ public class ChallengeController {
         return challengeService.getRegisteredUsersByChallenge(challengeName, page, size);
     }
 
+    /**
+     * Streams the enrollments, verifications and confirmations of a challenge
+     * as server-sent events, as they are committed.
+     *
+     * @param challengeName challenge name
+     * @return the event stream
+     */
+    @GetMapping(value = "/{challengeName}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChallengeEvents(@PathVariable String challengeName) {
+        return challengeService.subscribeToEvents(challengeName);
+    }
+
     /**
      * Searches registered users for a specific challenge by name or email with
      * pagination
@@ -331,10 +598,14 @@ public class ChallengeController {
     }
 
     @GetMapping("/searchContainingPaged")
-    public Page<ChallengeResponse> searchChallengesWithPaged(
+    public Page<?> searchChallengesWithPaged(
             @RequestParam(required = false, defaultValue = "") String name,
             @RequestParam(required = false) String module,
+            @RequestParam(required = false) String view,
             @PageableDefault(size = 10, sort = "name") Pageable pageable) {
+        if ("SUMMARY".equalsIgnoreCase(view)) {
+            return challengeService.searchChallengeSummaries(name, module, pageable);
+        }
         return challengeService.searchChallengesByName(name, module, pageable);
     }
 
@@ -356,7 +627,8 @@ public class ChallengeController {
      * @return verification status including current and required verifications
      */
     @GetMapping("/{name}/users/{email}/verification-status")
-    public ResponseEntity<?> getUserVerificationStatus(@PathVariable String name, @PathVariable String email){
+    public ResponseEntity<UserVerificationStatus> getUserVerificationStatus(@PathVariable String name,
+            @PathVariable String email) {
         return ResponseEntity.ok(challengeService.getUserVerificationStatus(email, name));
     }
 }
@@ -1,8 +1,10 @@
 package edu.escuelaing.ecicare.challenges.controllers;
 
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleStats;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleChallengesUsersDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleAdministratorDTO;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleGenResponse;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -67,14 +70,30 @@ public class ModuleController {
         return ResponseEntity.ok(Collections.singletonMap("total", total));
     }
 
+    /**
+     * Dashboard statistics of every module: challenges, enrollments,
+     * completions and completion rate.
+     *
+     * @return the statistics of every module, sorted by name
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<ModuleStats>> getModuleStats() {
+        return ResponseEntity.ok(moduleService.getModuleStats());
+    }
+
     /**
      * Retrieves all modules with optional pagination.
      * 
      * If page and size parameters are provided, returns paginated results.
      * If no pagination parameters are provided, returns all modules.
+     * Both the mobile and the web views get the same representation.
      *
-     * @param page the page number (0-based, optional)
-     * @param size the page size (optional)
+     * @param page                the page number (0-based, optional)
+     * @param size                the page size (optional)
+     * @param view                the client view, kept for compatibility
+     * @param challengesPerModule the maximum number of challenges listed per
+     *                            module (optional, all of them by default); the
+     *                            total is always reported
      * @return ResponseEntity containing either a paginated Page of modules or a
      *         List of all modules
      */
@@ -82,18 +101,31 @@ public class ModuleController {
     public ResponseEntity<?> getAllModules(
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size,
-            @RequestParam(required = false) String view) {
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) Integer challengesPerModule) {
         if (page != null && size != null) {
-            Page<ModuleResponse> modulePage = moduleService.getAllModulesPaginated(page, size);
+            Page<ModuleResponse> modulePage = moduleService.getAllModulesPaginated(page, size, challengesPerModule);
             return ResponseEntity.ok(modulePage);
         }
-        if (view != null && view.equals("MOBILE")) {
-            return ResponseEntity.ok(moduleService.getModules());
-        }
-        List<ModuleResponse> allModules = moduleService.getAllModules();
+        List<ModuleResponse> allModules = moduleService.getAllModules(challengesPerModule);
         return ResponseEntity.ok(allModules);
     }
 
+    /**
+     * Retrieves modules with cursor pagination in name order, for infinite
+     * scroll clients. Pages cost the same at any depth and are not counted.
+     *
+     * @param after the {@code nextCursor} of the previous page; omit for the first page
+     * @param limit the page size (default 20, max 100)
+     * @return a {@link CursorPage} of modules
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ModuleResponse>> scrollModules(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(moduleService.getModulesAfter(after, limit));
+    }
+
     @GetMapping("/gen-modules")
     public ResponseEntity<?> getAllGenModules(
             @RequestParam(defaultValue = "0") Integer page,
@@ -114,26 +146,46 @@ public class ModuleController {
         return moduleService.getChallengesByModule(name);
     }
 
+    /**
+     * Retrieves a page of the challenges of a module.
+     *
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @param view {@code SUMMARY}, in any case, to return
+     *             {@link ChallengeSummary} cards instead of full challenges
+     *             (optional)
+     * @param name the unique name of the module
+     * @return a page of challenges or challenge summaries
+     */
     @GetMapping("/{name}/challenges")
-    public Page<ChallengeResponse> getModuleChallengesPaged(
+    public Page<?> getModuleChallengesPaged(
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String view,
             @PathVariable String name) {
+        if ("SUMMARY".equalsIgnoreCase(view)) {
+            return moduleService.getChallengeSummariesByModulePaged(name, page, size);
+        }
         return moduleService.getChallengesByModulePaged(name, page, size);
     }
 
     /**
      * Retrieves all modules with their associated challenges and registered users.
      * Only returns modules where the requesting user is the administrator.
+     * Each challenge includes the first page of its registered users and their
+     * total; the rest are read from
+     * {@code /challenges/{challengeName}/registered-users/paged}.
      *
-     * @param email the email of the user requesting the modules
+     * @param email             the email of the user requesting the modules
+     * @param usersPerChallenge registered users included per challenge
      * @return a list of ModuleChallengesUsersDTO containing modules, their
      *         challenges, and registered users
      */
     @GetMapping("/with-challenges-and-users")
     public ResponseEntity<List<ModuleChallengesUsersDTO>> getAllModulesWithChallengesAndUsers(
-            @RequestParam String email) {
-        return ResponseEntity.ok(moduleService.getAllModulesWithChallengesAndUsers(email));
+            @RequestParam String email,
+            @RequestParam(required = false) Integer usersPerChallenge) {
+        return ResponseEntity.ok(moduleService.getAllModulesWithChallengesAndUsers(email, usersPerChallenge));
     }
 
     /**
@@ -181,15 +233,16 @@ public class ModuleController {
     }
 
     /**
-     * Deletes a module if it has no associated challenges.
+     * Deletes a module and its challenges.
      *
-     * @param name the unique name of the module to be deleted
-     * @return {@code true} if the module was successfully deleted,
-     *         {@code false} if it still contains challenges
+     * @param name the name of the module to delete
+     * @param soft whether to only mark them deleted and purge their rows in the
+     *             background
      */
     @DeleteMapping("/{name}")
-    public void deleteModule(@PathVariable String name) {
-        moduleService.deleteModule(name);
+    public void deleteModule(@PathVariable String name,
+            @RequestParam(defaultValue = "false") boolean soft) {
+        moduleService.deleteModule(name, soft);
     }
 
     @GetMapping("/{name}")
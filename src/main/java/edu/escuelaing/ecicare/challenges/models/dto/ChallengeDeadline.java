@@ -0,0 +1,14 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deadline of a challenge, read by a projection query for deadline listings
+ * and for the scheduler that closes expired challenges.
+ *
+ * @param name       the name of the challenge
+ * @param moduleName the name of the module of the challenge
+ * @param duration   the deadline of the challenge
+ */
+public record ChallengeDeadline(String name, String moduleName, LocalDateTime duration) {
+}
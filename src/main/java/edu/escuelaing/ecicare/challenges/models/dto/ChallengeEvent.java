@@ -0,0 +1,31 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Participation change of a challenge pushed to the administrators watching
+ * it.
+ *
+ * @param type                 what happened
+ * @param challengeName        the name of the challenge
+ * @param userEmail            the email of the user, {@code null} for bulk
+ *                             enrollments
+ * @param currentVerifications verification count after a scan, if any
+ * @param users                number of users the event refers to
+ * @param occurredAt           when the change was made
+ */
+public record ChallengeEvent(
+        Type type,
+        String challengeName,
+        String userEmail,
+        Integer currentVerifications,
+        int users,
+        LocalDateTime occurredAt) {
+
+    public enum Type {
+        ENROLLED, // one user registered in the challenge
+        BULK_ENROLLED, // several users registered at once, only the count is sent
+        VERIFIED, // verification counted, user still registered
+        CONFIRMED // user reached the required verifications
+    }
+}
@@ -0,0 +1,25 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import edu.escuelaing.ecicare.utils.models.entity.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A participant of a challenge with the profile fields shown to module
+ * administrators.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChallengeParticipantDTO {
+    private String challengeName;
+    private Long idEci;
+    private String name;
+    private String email;
+    private Role role;
+    private LocalDateTime registrationDate;
+    private Boolean hasMedicalApprove;
+}
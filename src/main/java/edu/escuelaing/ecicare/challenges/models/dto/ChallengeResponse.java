@@ -14,5 +14,6 @@ public record ChallengeResponse(String name,
                                 List<String> goals,
                                 String moduleName,
                                 Integer requiredVerifications,
-                                List<AwardDto> redeemables) {
+                                List<AwardDto> redeemables,
+                                ParticipationCounts participation) {
 }
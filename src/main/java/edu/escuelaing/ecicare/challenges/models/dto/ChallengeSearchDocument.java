@@ -0,0 +1,12 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * Searchable text of a challenge, read by a single projection query to build
+ * the in-memory search index without loading the entities.
+ *
+ * @param name        the name of the challenge
+ * @param description the description of the challenge
+ * @param moduleName  the name of the module of the challenge
+ */
+public record ChallengeSearchDocument(String name, String description, String moduleName) {
+}
@@ -0,0 +1,31 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card view of a challenge for catalog listings: only the scalar columns and
+ * participant counts, built by a single JPQL constructor expression without
+ * loading tips, goals or redeemable awards.
+ */
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChallengeSummary {
+    private String name;
+    private String imageUrl;
+    private String moduleName;
+    private LocalDateTime duration;
+    private Integer requiredVerifications;
+    private Integer registeredCount;
+    private Integer confirmedCount;
+}
@@ -0,0 +1,23 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk enrollment into a challenge.
+ *
+ * @param enrolled          users newly registered in the challenge
+ * @param alreadyRegistered users that were already registered or had completed
+ *                          the challenge, left untouched
+ * @param duplicateCount    emails repeated in the input, processed only once
+ * @param duplicates        the first of the repeated emails
+ * @param unknownCount      emails that do not belong to any user
+ * @param unknownEmails     the first of the unknown emails
+ */
+public record EnrollmentReport(
+        int enrolled,
+        int alreadyRegistered,
+        int duplicateCount,
+        List<String> duplicates,
+        int unknownCount,
+        List<String> unknownEmails) {
+}
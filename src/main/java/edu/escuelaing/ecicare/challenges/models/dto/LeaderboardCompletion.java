@@ -0,0 +1,15 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * One challenge completed by a user, live or archived, read in a single
+ * statement to build the leaderboards.
+ *
+ * @param userId        the id of the user (UserEcicare.idEci)
+ * @param email         the email of the user
+ * @param name          the name of the user
+ * @param challengeName the name of the completed challenge
+ * @param moduleName    the name of the module of the challenge
+ */
+public record LeaderboardCompletion(Long userId, String email, String name, String challengeName,
+        String moduleName) {
+}
@@ -0,0 +1,14 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * Position of a user in a leaderboard. Users with the same number of completed
+ * challenges share the rank; users without completed challenges are all ranked
+ * after the last user that has some.
+ *
+ * @param rank      the position of the user, starting at 1
+ * @param email     the email of the user
+ * @param name      the name of the user, {@code null} if unknown
+ * @param completed the number of completed challenges
+ */
+public record LeaderboardEntry(int rank, String email, String name, int completed) {
+}
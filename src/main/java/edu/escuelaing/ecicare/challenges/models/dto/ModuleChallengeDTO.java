@@ -0,0 +1,20 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Scalar columns of a challenge together with the name of its module, read
+ * with a JPQL constructor expression for the administrator view.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ModuleChallengeDTO {
+    private String moduleName;
+    private String name;
+    private String description;
+    private String imageUrl;
+    private Integer registeredCount;
+}
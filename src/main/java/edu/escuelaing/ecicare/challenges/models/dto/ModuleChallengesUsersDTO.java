@@ -26,6 +26,7 @@ public class ModuleChallengesUsersDTO {
         private String name;
         private String description;
         private String imageUrl;
-        private List<UserEcicareDto> registeredUsers;
+        private List<UserEcicareDto> registeredUsers; // first page, by email
+        private Integer registeredCount; // total of registered users, to page the rest
     }
 }
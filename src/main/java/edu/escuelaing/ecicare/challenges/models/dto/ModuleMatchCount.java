@@ -0,0 +1,13 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * A module and how many of its challenges match a search, computed with a
+ * {@code GROUP BY} in the database.
+ *
+ * @param moduleName        the name of the module
+ * @param moduleDescription the description of the module
+ * @param moduleImageUrl    the image URL of the module
+ * @param matches           the number of matching challenges in the module
+ */
+public record ModuleMatchCount(String moduleName, String moduleDescription, String moduleImageUrl, long matches) {
+}
@@ -2,9 +2,23 @@ package edu.escuelaing.ecicare.challenges.models.dto;
 
 import java.util.List;
 
+/**
+ * A module with its challenges.
+ *
+ * @param name            the name of the module
+ * @param description     the description of the module
+ * @param imageUrl        the image URL of the module
+ * @param challenges      the challenges of the module, possibly only the first
+ *                        ones by name
+ * @param participation   participation counters of the module
+ * @param totalChallenges number of challenges of the module, even when not all
+ *                        of them are listed
+ */
 public record ModuleResponse(
         String name,
         String description,
         String imageUrl,
-        List<ChallengeResponse> challenges
+        List<ChallengeResponse> challenges,
+        ParticipationCounts participation,
+        int totalChallenges
 ) {}
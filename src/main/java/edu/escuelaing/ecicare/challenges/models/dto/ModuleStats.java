@@ -0,0 +1,28 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * Dashboard statistics of a module, computed with one {@code GROUP BY} over the
+ * modules and their challenges. Participation comes from the materialized
+ * counters of the module, archived participation included.
+ *
+ * @param moduleName     the name of the module
+ * @param challenges     the number of challenges of the module
+ * @param registered     users registered in its challenges, not yet completed
+ * @param confirmed      completions of its challenges
+ * @param inProgress     registered users with at least one verification
+ * @param completionRate share of enrollments that were completed, between 0
+ *                       and 1
+ */
+public record ModuleStats(
+        String moduleName,
+        long challenges,
+        int registered,
+        int confirmed,
+        int inProgress,
+        double completionRate) {
+
+    public ModuleStats(String moduleName, long challenges, int registered, int confirmed, int inProgress) {
+        this(moduleName, challenges, registered, confirmed, inProgress,
+                registered + confirmed > 0 ? (double) confirmed / (registered + confirmed) : 0);
+    }
+}
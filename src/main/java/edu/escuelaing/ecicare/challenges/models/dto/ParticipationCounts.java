@@ -0,0 +1,13 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * Participation counters of a challenge or of all the challenges of a module,
+ * read from columns kept up to date on every enrollment, verification and
+ * promotion. Archived participation is included.
+ *
+ * @param registered users registered that have not completed the challenge
+ * @param confirmed  users that completed the challenge
+ * @param inProgress registered users with at least one verification
+ */
+public record ParticipationCounts(int registered, int confirmed, int inProgress) {
+}
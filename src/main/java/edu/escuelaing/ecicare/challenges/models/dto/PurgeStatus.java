@@ -0,0 +1,24 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background purge of soft deleted challenges and modules.
+ *
+ * @param pendingChallenges soft deleted challenges whose rows are not purged yet
+ * @param pendingModules    soft deleted modules not purged yet
+ * @param currentChallenge  the challenge being purged, {@code null} when idle
+ * @param purgedChallenges  challenges purged since startup
+ * @param purgedModules     modules purged since startup
+ * @param purgedRows        dependent rows deleted since startup
+ * @param lastRunAt         when the last purge run finished, {@code null} if none has
+ */
+public record PurgeStatus(
+        long pendingChallenges,
+        long pendingModules,
+        String currentChallenge,
+        long purgedChallenges,
+        long purgedModules,
+        long purgedRows,
+        LocalDateTime lastRunAt) {
+}
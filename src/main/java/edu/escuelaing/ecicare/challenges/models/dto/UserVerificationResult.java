@@ -0,0 +1,24 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * Outcome of verifying a single email inside a bulk check-in request.
+ *
+ * @param email                 the email as sent by the client
+ * @param status                what happened to that email
+ * @param currentVerifications  verification count after the operation, if any
+ * @param requiredVerifications verifications required by the challenge
+ */
+public record UserVerificationResult(
+        String email,
+        Status status,
+        Integer currentVerifications,
+        Integer requiredVerifications) {
+
+    public enum Status {
+        VERIFIED, // verification counted, user still registered
+        CONFIRMED, // verification counted and user promoted to confirmed
+        NOT_REGISTERED, // user exists but is not registered in the challenge
+        USER_NOT_FOUND, // no user with that email
+        DUPLICATE // email repeated in the same request, counted only once
+    }
+}
@@ -0,0 +1,16 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * Verification progress of a user in a challenge.
+ *
+ * @param currentVerifications  verifications recorded so far
+ * @param requiredVerifications verifications required by the challenge
+ * @param isRegistered          whether the user is registered in the challenge
+ * @param isConfirmed           whether the user has completed the challenge
+ */
+public record UserVerificationStatus(
+        int currentVerifications,
+        int requiredVerifications,
+        boolean isRegistered,
+        boolean isConfirmed) {
+}
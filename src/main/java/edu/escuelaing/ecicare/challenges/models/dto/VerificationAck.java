@@ -0,0 +1,21 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+/**
+ * Immediate answer to a verification scan.
+ *
+ * @param challengeName          the name of the challenge
+ * @param userEmail              the email of the verified user
+ * @param projectedVerifications verification count once pending writes are flushed
+ * @param requiredVerifications  verifications required by the challenge
+ * @param confirmed              whether the projected count reaches the required one
+ * @param buffered               {@code true} if the write is pending in memory,
+ *                               {@code false} if it was applied synchronously
+ */
+public record VerificationAck(
+        String challengeName,
+        String userEmail,
+        int projectedVerifications,
+        int requiredVerifications,
+        boolean confirmed,
+        boolean buffered) {
+}
@@ -0,0 +1,16 @@
+package edu.escuelaing.ecicare.challenges.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Current verification count of a user in a challenge, keyed by email.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VerificationCountDTO {
+    private String email;
+    private Integer verificationCount;
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
@@ -34,7 +35,8 @@ import java.util.Set;
 @Setter
 @Entity
 @Builder
-@Table(name = "challenge")
+@Table(name = "challenge", indexes = @Index(name = "idx_challenge_closed_duration", columnList = "closed, duration"))
+@SQLRestriction("deleted_at IS NULL")
 public class Challenge {
 
         // Unique name of the challenge.
@@ -50,11 +52,13 @@ public class Challenge {
         private String phrase; // Motivational phrase or slogan associated with the challenge.
 
         @ManyToMany
-        @JoinTable(name = "user_challenges_registered", joinColumns = @JoinColumn(name = "challenge_name"), inverseJoinColumns = @JoinColumn(name = "user_id_eci"))
+        @JoinTable(name = "user_challenges_registered", joinColumns = @JoinColumn(name = "challenge_name"), inverseJoinColumns = @JoinColumn(name = "user_id_eci"),
+                        indexes = @Index(name = "idx_registered_challenge_user", columnList = "challenge_name, user_id_eci"))
         private List<UserEcicare> registered; // List of users registered for the challenge.
 
         @ManyToMany
-        @JoinTable(name = "user_challenges_confirmed", joinColumns = @JoinColumn(name = "challenge_name"), inverseJoinColumns = @JoinColumn(name = "user_id_eci"))
+        @JoinTable(name = "user_challenges_confirmed", joinColumns = @JoinColumn(name = "challenge_name"), inverseJoinColumns = @JoinColumn(name = "user_id_eci"),
+                        indexes = @Index(name = "idx_confirmed_challenge_user", columnList = "challenge_name, user_id_eci"))
         private List<UserEcicare> confirmed; // List of users confirmed for the challenge done.
 
         @ElementCollection
@@ -90,4 +94,27 @@ public class Challenge {
         @Column(name = "required_verifications", nullable = false)
         @Builder.Default
         private int requiredVerifications = 1; // Number of verifications required to confirm a user
+
+        @Column(name = "closed", nullable = false)
+        @Builder.Default
+        private boolean closed = false; // Set once the deadline passes; enrollment and verification are frozen
+
+        // Participation counters, archived participation included. They are only
+        // changed with relative updates in the database, never by saving the entity.
+        @Column(name = "registered_count", nullable = false, updatable = false)
+        @Builder.Default
+        private int registeredCount = 0; // Users registered that have not completed the challenge
+
+        @Column(name = "confirmed_count", nullable = false, updatable = false)
+        @Builder.Default
+        private int confirmedCount = 0; // Users that completed the challenge
+
+        @Column(name = "in_progress_count", nullable = false, updatable = false)
+        @Builder.Default
+        private int inProgressCount = 0; // Registered users with at least one verification
+
+        // Set by a soft delete, which hides the challenge from every entity query;
+        // the row and its dependent rows are then removed by ChallengePurger.
+        @Column(name = "deleted_at", insertable = false, updatable = false)
+        private LocalDateTime deletedAt;
 }
@@ -4,7 +4,9 @@ package edu.escuelaing.ecicare.challenges.models.entity;
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -25,6 +27,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Entity
 @Builder
 @Table(name = "module")
+@SQLRestriction("deleted_at IS NULL")
 public class Module {
 
     @Id
@@ -45,6 +48,25 @@ public class Module {
     @JoinColumn(name = "administrator_id", nullable = true)
     private UserEcicare administrator; //Administrator responsible for this module
 
+    // Sum of the participation counters of the challenges of the module, changed
+    // together with them by relative updates in the database.
+    @Column(name = "registered_count", nullable = false, updatable = false)
+    @Builder.Default
+    private int registeredCount = 0; //Users registered in challenges of the module, not yet completed
+
+    @Column(name = "confirmed_count", nullable = false, updatable = false)
+    @Builder.Default
+    private int confirmedCount = 0; //Completions of challenges of the module
+
+    @Column(name = "in_progress_count", nullable = false, updatable = false)
+    @Builder.Default
+    private int inProgressCount = 0; //Registered users with at least one verification
+
+    // Set by a soft delete together with its challenges; the row is removed by
+    // ChallengePurger once they are gone.
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
     /**
      * Convenience constructor that creates a module with only a name.
      * Useful when only the identifier is needed.
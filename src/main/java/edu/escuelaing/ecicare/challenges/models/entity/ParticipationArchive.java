@@ -0,0 +1,43 @@
+package edu.escuelaing.ecicare.challenges.models.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@code user_challenges_registered} or {@code user_challenges_confirmed}
+ * moved out of the hot join tables once its challenge finished.
+ *
+ * Archived rows are only read when a user explicitly asks for history, so the
+ * join tables used by every membership query only hold live challenges.
+ *
+ * @author ByteProgramming
+ */
+@Entity
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "challenge_participation_archive",
+        indexes = @Index(name = "idx_participation_archive_user", columnList = "user_id_eci, status"))
+public class ParticipationArchive {
+
+    @EmbeddedId
+    private ParticipationArchiveId id;
+
+    // The archived rows go away with their challenge.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("challengeName")
+    @JoinColumn(name = "challenge_name", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Challenge challenge;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,31 @@
+package edu.escuelaing.ecicare.challenges.models.entity;
+
+import edu.escuelaing.ecicare.challenges.models.entity.enums.ParticipationStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Setter
+@Getter
+@Builder
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ParticipationArchiveId implements Serializable {
+
+    // The name of the finished challenge.
+    @Column(name = "challenge_name")
+    private String challengeName;
+
+    // The id of the user (UserEcicare.idEci).
+    @Column(name = "user_id_eci")
+    private Long userId;
+
+    // Whether the user was registered or confirmed when the challenge was archived.
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16)
+    private ParticipationStatus status;
+
+}
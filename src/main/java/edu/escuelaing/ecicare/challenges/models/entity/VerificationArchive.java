@@ -0,0 +1,42 @@
+package edu.escuelaing.ecicare.challenges.models.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Verification counter of {@code challenge_verifications} moved out of the hot
+ * table once its challenge finished.
+ *
+ * @author ByteProgramming
+ */
+@Entity
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "challenge_verifications_archive")
+public class VerificationArchive {
+
+    @EmbeddedId
+    private VerificationArchiveId id;
+
+    // The archived rows go away with their challenge.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("challengeName")
+    @JoinColumn(name = "challenge_name", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Challenge challenge;
+
+    @Column(name = "verification_count")
+    private Integer verificationCount;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,25 @@
+package edu.escuelaing.ecicare.challenges.models.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Setter
+@Getter
+@Builder
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class VerificationArchiveId implements Serializable {
+
+    // The name of the finished challenge.
+    @Column(name = "challenge_name")
+    private String challengeName;
+
+    // The email of the user, key of the verifications map of the challenge.
+    @Column(name = "user_email")
+    private String userEmail;
+
+}
@@ -0,0 +1,9 @@
+package edu.escuelaing.ecicare.challenges.models.entity.enums;
+
+/**
+ * State of a user in a challenge when its participation was archived.
+ */
+public enum ParticipationStatus {
+    REGISTERED,
+    CONFIRMED
+}
@@ -1,8 +1,19 @@
 package edu.escuelaing.ecicare.challenges.repositories;
 
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeDeadline;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeParticipantDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSearchDocument;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary;
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardCompletion;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleChallengeDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleMatchCount;
 import edu.escuelaing.ecicare.challenges.models.dto.UserEmailNameDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.UserVerificationStatus;
+import edu.escuelaing.ecicare.challenges.models.dto.VerificationCountDTO;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +23,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -46,8 +58,131 @@ public interface ChallengeRepository extends JpaRepository<Challenge, String> {
          */
         List<Challenge> findByDuration(LocalDateTime duration);
 
+        /**
+         * Pages the summaries of open challenges whose deadline falls in
+         * {@code (from, to]}, closest deadline first. Served by the
+         * {@code (closed, duration)} index as a range scan.
+         *
+         * @param from     exclusive lower bound, usually now
+         * @param to       inclusive upper bound
+         * @param pageable pagination information; the order is fixed by the query
+         * @return a page of {@link ChallengeSummary}
+         */
+        @Query(value = """
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary(
+                    c.name, c.imageUrl, m.name, c.duration, c.requiredVerifications,
+                    c.registeredCount, c.confirmedCount)
+                FROM Challenge c JOIN c.module m
+                WHERE c.closed = false AND c.duration > :from AND c.duration <= :to
+                ORDER BY c.duration, c.name
+                """, countQuery = """
+                SELECT COUNT(c) FROM Challenge c
+                WHERE c.closed = false AND c.duration > :from AND c.duration <= :to
+                """)
+        Page<ChallengeSummary> findOpenSummariesByDeadlineBetween(@Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to, Pageable pageable);
+
+        /**
+         * Pages the summaries of the challenges still open at {@code now}, closest
+         * deadline first.
+         *
+         * @param now      the current time
+         * @param pageable pagination information; the order is fixed by the query
+         * @return a page of {@link ChallengeSummary}
+         */
+        @Query(value = """
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary(
+                    c.name, c.imageUrl, m.name, c.duration, c.requiredVerifications,
+                    c.registeredCount, c.confirmedCount)
+                FROM Challenge c JOIN c.module m
+                WHERE c.closed = false AND c.duration > :now
+                ORDER BY c.duration, c.name
+                """, countQuery = """
+                SELECT COUNT(c) FROM Challenge c
+                WHERE c.closed = false AND c.duration > :now
+                """)
+        Page<ChallengeSummary> findActiveSummaries(@Param("now") LocalDateTime now, Pageable pageable);
+
+        /**
+         * Next deadlines of the open challenges in which a user is registered,
+         * reading only the name, module and deadline of each.
+         *
+         * @param userEmail the email of the user
+         * @param now       the current time
+         * @param limit     the maximum number of deadlines
+         * @return the deadlines, closest first
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeDeadline(c.name, m.name, c.duration)
+                FROM Challenge c JOIN c.module m JOIN c.registered u
+                WHERE u.email = :userEmail AND c.closed = false AND c.duration > :now
+                ORDER BY c.duration, c.name
+                """)
+        List<ChallengeDeadline> findUpcomingDeadlinesByUserEmail(@Param("userEmail") String userEmail,
+                        @Param("now") LocalDateTime now, Limit limit);
+
+        /**
+         * Deadlines of every challenge not closed yet, used to fill the closing
+         * scheduler at startup.
+         *
+         * @return the deadlines, closest first
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeDeadline(c.name, m.name, c.duration)
+                FROM Challenge c JOIN c.module m
+                WHERE c.closed = false
+                ORDER BY c.duration
+                """)
+        List<ChallengeDeadline> findOpenDeadlines();
+
+        /**
+         * Reads only the deadline of a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @return the deadline, or {@code null} if the challenge does not exist
+         */
+        @Query("SELECT c.duration FROM Challenge c WHERE c.name = :challengeName")
+        LocalDateTime findDeadline(@Param("challengeName") String challengeName);
+
+        /**
+         * Closes, in one statement, every open challenge whose deadline is not
+         * after {@code now}.
+         *
+         * @param now the current time
+         * @return the number of challenges closed
+         */
+        @Modifying
+        @Transactional
+        @Query("UPDATE Challenge c SET c.closed = true WHERE c.closed = false AND c.duration <= :now")
+        int closeExpired(@Param("now") LocalDateTime now);
+
         Page<Challenge> findByModule_Name(String id, Pageable pageable);
 
+        /**
+         * Challenges of several modules at once, used to map module listings
+         * with one query instead of one per module.
+         *
+         * @param moduleNames the names of the modules
+         * @return the challenges, in name order
+         */
+        List<Challenge> findByModule_NameInOrderByNameAsc(Collection<String> moduleNames);
+
+        /**
+         * Number of challenges of each of the given modules, computed with a
+         * {@code GROUP BY}. Modules without challenges are not returned.
+         *
+         * @param moduleNames the names of the modules
+         * @return one row per module, with its challenge count as {@code matches}
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ModuleMatchCount(
+                    m.name, m.description, m.imageUrl, COUNT(c))
+                FROM Challenge c JOIN c.module m
+                WHERE m.name IN :moduleNames
+                GROUP BY m.name, m.description, m.imageUrl
+                """)
+        List<ModuleMatchCount> countChallengesByModuleNameIn(@Param("moduleNames") Collection<String> moduleNames);
+
         /**
          * Finds all challenges where a specific user is registered.
          *
@@ -76,23 +211,38 @@ public interface ChallengeRepository extends JpaRepository<Challenge, String> {
         boolean isUserRegistered(@Param("user") UserEcicare user, @Param("challenge") Challenge challenge);
 
         /**
-         * Finds ALL challenges by name using case-insensitive partial matching without
-         * pagination.
-         * Perfect for search functionality where all matching results are needed
-         * and will be grouped by modules.
-         * 
-         * @param name the search term to match (case-insensitive, partial matching)
-         * @return a list of ALL challenges matching the search criteria, sorted by name
+         * Page of the users registered in a challenge with their verification
+         * progress, optionally filtered by name or email. Current verifications are
+         * read with a left join on {@code challenge_verifications}, so the page is
+         * built and counted entirely in the database.
+         *
+         * @param challengeName the name of the challenge
+         * @param search        term to match in user names or emails; empty to list all
+         * @param pageable      page, size and sort (by user properties)
+         * @return a page of {@link edu.escuelaing.ecicare.challenges.models.dto.UserEmailNameDTO}
          */
-        @Query("""
+        @Query(value = """
                         SELECT new edu.escuelaing.ecicare.challenges.models.dto.UserEmailNameDTO(
-                            u.email, u.name
+                            u.email, u.name, COALESCE(VALUE(v), 0), c.requiredVerifications
                         )
                         FROM UserEcicare u
                         JOIN u.challengesRegistered c
+                        LEFT JOIN c.verifications v ON KEY(v) = u.email
                         WHERE c.name = :challengeName
                           AND (
-                               LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%'))
+                               :search = ''
+                            OR LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%'))
+                            OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))
+                          )
+                        """,
+                        countQuery = """
+                        SELECT COUNT(u)
+                        FROM UserEcicare u
+                        JOIN u.challengesRegistered c
+                        WHERE c.name = :challengeName
+                          AND (
+                               :search = ''
+                            OR LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%'))
                             OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))
                           )
                         """)
@@ -103,6 +253,16 @@ public interface ChallengeRepository extends JpaRepository<Challenge, String> {
 
         Page<Challenge> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
+        /**
+         * Keyset page of challenges in primary-key order: the first {@code limit}
+         * challenges whose name sorts after {@code name}. No COUNT query is issued.
+         *
+         * @param name  the last name of the previous page, {@code ""} for the first page
+         * @param limit maximum number of challenges to return
+         * @return the challenges after {@code name}, sorted by name
+         */
+        List<Challenge> findByNameGreaterThanOrderByNameAsc(String name, Limit limit);
+
         /**
          * Finds challenges by name (partial, case-insensitive) and belonging to a
          * specific module.
@@ -135,6 +295,108 @@ public interface ChallengeRepository extends JpaRepository<Challenge, String> {
                 @Param("search") String search,
                 Pageable pageable);
 
+
+        /**
+         * Page of the challenges in which a user is registered. The page is cut in
+         * the database and counted with a subquery over the join table, so only the
+         * challenges of the requested page are loaded.
+         *
+         * @param userId   id of the user (UserEcicare.idEci)
+         * @param pageable page, size and sort of the result
+         * @return the requested page of registered challenges
+         */
+        @Query(value = """
+                SELECT c FROM Challenge c
+                JOIN c.registered u
+                WHERE u.idEci = :userId
+                """,
+                countQuery = """
+                SELECT CAST(SIZE(u.challengesRegistered) AS Long) FROM UserEcicare u
+                WHERE u.idEci = :userId
+                """)
+        Page<Challenge> findRegisteredChallengesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+        /**
+         * Page of the challenges a user has completed (confirmed). The page is cut in
+         * the database and counted with a subquery over the join table, so only the
+         * challenges of the requested page are loaded.
+         *
+         * @param userId   id of the user (UserEcicare.idEci)
+         * @param pageable page, size and sort of the result
+         * @return the requested page of confirmed challenges
+         */
+        @Query(value = """
+                SELECT c FROM Challenge c
+                JOIN c.confirmed u
+                WHERE u.idEci = :userId
+                """,
+                countQuery = """
+                SELECT CAST(SIZE(u.challengesConfirmed) AS Long) FROM UserEcicare u
+                WHERE u.idEci = :userId
+                """)
+        Page<Challenge> findConfirmedChallengesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+        /**
+         * Page of the challenges a user has completed, including the ones whose
+         * participation was already moved to the archive.
+         *
+         * @param userId   id of the user (UserEcicare.idEci)
+         * @param pageable page, size and sort of the result
+         * @return the requested page of confirmed and archived-confirmed challenges
+         */
+        @Query("""
+                SELECT c FROM Challenge c
+                WHERE EXISTS (SELECT u FROM c.confirmed u WHERE u.idEci = :userId)
+                OR c.name IN (SELECT a.id.challengeName FROM ParticipationArchive a
+                        WHERE a.id.userId = :userId
+                        AND a.id.status = edu.escuelaing.ecicare.challenges.models.entity.enums.ParticipationStatus.CONFIRMED)
+                """)
+        Page<Challenge> findConfirmedChallengesWithHistoryByUserId(@Param("userId") Long userId, Pageable pageable);
+
+        /**
+         * Challenges a user completed whose participation was moved to the archive.
+         *
+         * @param userId id of the user (UserEcicare.idEci)
+         * @return the archived completed challenges
+         */
+        @Query("""
+                SELECT c FROM Challenge c
+                WHERE c.name IN (SELECT a.id.challengeName FROM ParticipationArchive a
+                        WHERE a.id.userId = :userId
+                        AND a.id.status = edu.escuelaing.ecicare.challenges.models.entity.enums.ParticipationStatus.CONFIRMED)
+                """)
+        List<Challenge> findArchivedConfirmedChallengesByUserId(@Param("userId") Long userId);
+
+        /**
+         * Every completed challenge of every user, live and archived, used to
+         * build the leaderboards. Both tables are read in one statement, so the
+         * result is a single snapshot even while the archiver moves rows between
+         * them.
+         *
+         * @return one row per completion
+         */
+        @Query(value = """
+                SELECT p.user_id_eci AS userId, u.email AS email, u.name AS name,
+                    p.challenge_name AS challengeName, c.module_name AS moduleName
+                FROM (SELECT challenge_name, user_id_eci FROM user_challenges_confirmed
+                      UNION ALL
+                      SELECT challenge_name, user_id_eci FROM challenge_participation_archive
+                      WHERE status = 'CONFIRMED') p
+                JOIN challenge c ON c.name = p.challenge_name
+                JOIN users_ecicare u ON u.id_eci = p.user_id_eci
+                WHERE c.deleted_at IS NULL
+                """, nativeQuery = true)
+        List<LeaderboardCompletion> findAllCompletions();
+
+        /**
+         * Name of the module of a challenge.
+         *
+         * @param name the name of the challenge
+         * @return the module name, {@code null} if the challenge does not exist
+         */
+        @Query("SELECT c.module.name FROM Challenge c WHERE c.name = :name")
+        String findModuleNameByChallengeName(@Param("name") String name);
+
         @Query("""
                 SELECT c.module.administrator FROM Challenge c
                 WHERE c.name = :name
@@ -146,6 +408,370 @@ public interface ChallengeRepository extends JpaRepository<Challenge, String> {
         boolean isUserRegisteredInChallenge(@Param("challengeName") String challengeName,
                                             @Param("userId") Long userId);
 
+        /**
+         * Inserta una única fila en {@code user_challenges_registered} sin cargar
+         * la colección {@code registered} del reto, de modo que el costo no depende
+         * del número de usuarios ya inscritos. No inserta nada si el usuario ya está
+         * inscrito o ya completó el reto.
+         *
+         * @param challengeName nombre del reto
+         * @param userId id del usuario (UserEcicare.idEci)
+         * @return número de filas insertadas, 0 si ya participaba
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO user_challenges_registered (challenge_name, user_id_eci) " +
+                "SELECT :challengeName, u.id_eci FROM users_ecicare u " +
+                "WHERE u.id_eci = :userId AND NOT EXISTS (" +
+                "SELECT 1 FROM user_challenges_registered r " +
+                "WHERE r.challenge_name = :challengeName AND r.user_id_eci = u.id_eci) AND NOT EXISTS (" +
+                "SELECT 1 FROM user_challenges_confirmed c " +
+                "WHERE c.challenge_name = :challengeName AND c.user_id_eci = u.id_eci)", nativeQuery = true)
+        int registerUserInChallenge(@Param("challengeName") String challengeName,
+                                    @Param("userId") Long userId);
+
+        /**
+         * Inscribe varios usuarios en un reto con un único INSERT ... SELECT,
+         * omitiendo los que ya tienen fila en {@code user_challenges_registered}
+         * o en {@code user_challenges_confirmed}.
+         *
+         * @param challengeName nombre del reto
+         * @param userIds ids de los usuarios (UserEcicare.idEci)
+         * @return número de filas insertadas
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO user_challenges_registered (challenge_name, user_id_eci) " +
+                "SELECT :challengeName, u.id_eci FROM users_ecicare u " +
+                "WHERE u.id_eci IN (:userIds) AND NOT EXISTS (" +
+                "SELECT 1 FROM user_challenges_registered r " +
+                "WHERE r.challenge_name = :challengeName AND r.user_id_eci = u.id_eci) AND NOT EXISTS (" +
+                "SELECT 1 FROM user_challenges_confirmed c " +
+                "WHERE c.challenge_name = :challengeName AND c.user_id_eci = u.id_eci)", nativeQuery = true)
+        int registerUsersInChallenge(@Param("challengeName") String challengeName,
+                                     @Param("userIds") Collection<Long> userIds);
+
+        /**
+         * Atomically increments the verification counter of a user in a challenge,
+         * creating the row on the first verification.
+         *
+         * The statement only writes when the user is registered in the challenge,
+         * so the membership check and the increment happen in a single round trip
+         * and concurrent scans for the same pair serialize on the counter row.
+         *
+         * @param challengeName the name of the challenge
+         * @param userId        the id of the user (UserEcicare.idEci)
+         * @param userEmail     the email of the user, key of the verifications map
+         * @return the number of affected rows, {@code 0} if the user is not registered
+         */
+        @Modifying
+        @Transactional
+        @Query(value = """
+                INSERT INTO challenge_verifications (challenge_name, user_email, verification_count)
+                SELECT :challengeName, :userEmail, 1 FROM DUAL
+                WHERE EXISTS (
+                    SELECT 1 FROM user_challenges_registered r
+                    WHERE r.challenge_name = :challengeName AND r.user_id_eci = :userId
+                )
+                ON DUPLICATE KEY UPDATE verification_count = verification_count + 1
+                """, nativeQuery = true)
+        int incrementVerification(@Param("challengeName") String challengeName,
+                                  @Param("userId") Long userId,
+                                  @Param("userEmail") String userEmail);
+
+        /**
+         * Reads only the number of verifications required by a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @return the required verifications, or {@code null} if the challenge does not exist
+         */
+        @Query("SELECT c.requiredVerifications FROM Challenge c WHERE c.name = :challengeName")
+        Integer findRequiredVerifications(@Param("challengeName") String challengeName);
+
+        /**
+         * Reads in one query the verification progress of a user in a challenge:
+         * current and required verifications and whether the user is registered or
+         * confirmed. Membership is resolved with indexed subqueries, so the cost does
+         * not depend on the number of participants.
+         *
+         * @param challengeName the name of the challenge
+         * @param userEmail     the email of the user
+         * @return the status, or {@code null} if the challenge or the user does not exist
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.UserVerificationStatus(
+                    COALESCE((SELECT VALUE(v) FROM Challenge cv JOIN cv.verifications v
+                              WHERE cv = c AND KEY(v) = :userEmail), 0),
+                    c.requiredVerifications,
+                    CASE WHEN u MEMBER OF c.registered THEN true ELSE false END,
+                    CASE WHEN u MEMBER OF c.confirmed THEN true ELSE false END)
+                FROM Challenge c, UserEcicare u
+                WHERE c.name = :challengeName AND u.email = :userEmail
+                """)
+        UserVerificationStatus findUserVerificationStatus(@Param("challengeName") String challengeName,
+                                                          @Param("userEmail") String userEmail);
+
+        /**
+         * Reads the current verification count of a user in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param userEmail     the email of the user
+         * @return the verification count, or {@code null} if there is none
+         */
+        @Query(value = "SELECT verification_count FROM challenge_verifications " +
+                "WHERE challenge_name = :challengeName AND user_email = :userEmail", nativeQuery = true)
+        Integer findVerificationCount(@Param("challengeName") String challengeName,
+                                      @Param("userEmail") String userEmail);
+
+        /**
+         * Removes a user from the registered participants of a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param userId        the id of the user (UserEcicare.idEci)
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM user_challenges_registered " +
+                "WHERE challenge_name = :challengeName AND user_id_eci = :userId", nativeQuery = true)
+        int unregisterUserFromChallenge(@Param("challengeName") String challengeName,
+                                        @Param("userId") Long userId);
+
+        /**
+         * Adds a user to the confirmed participants of a challenge with a single
+         * row insert, unless they are confirmed already.
+         *
+         * @param challengeName the name of the challenge
+         * @param userId        the id of the user (UserEcicare.idEci)
+         * @return the number of inserted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO user_challenges_confirmed (challenge_name, user_id_eci) " +
+                "SELECT :challengeName, u.id_eci FROM users_ecicare u " +
+                "WHERE u.id_eci = :userId AND NOT EXISTS (" +
+                "SELECT 1 FROM user_challenges_confirmed c " +
+                "WHERE c.challenge_name = :challengeName AND c.user_id_eci = u.id_eci)", nativeQuery = true)
+        int confirmUserInChallenge(@Param("challengeName") String challengeName,
+                                   @Param("userId") Long userId);
+
+        /**
+         * Deletes the verification counter of a user in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param userEmail     the email of the user
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge_verifications " +
+                "WHERE challenge_name = :challengeName AND user_email = :userEmail", nativeQuery = true)
+        int deleteVerification(@Param("challengeName") String challengeName,
+                               @Param("userEmail") String userEmail);
+
+        /**
+         * Returns which of the given users are registered in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the ids of the users to check
+         * @return the ids of the users that are registered
+         */
+        @Query("""
+                SELECT u.idEci FROM Challenge c
+                JOIN c.registered u
+                WHERE c.name = :challengeName AND u.idEci IN :userIds
+                """)
+        List<Long> findRegisteredUserIds(@Param("challengeName") String challengeName,
+                                         @Param("userIds") Collection<Long> userIds);
+
+        /**
+         * Adds {@code delta} verifications, in a single statement, to the counter of
+         * every given user that is registered in the challenge. Used to flush
+         * increments that were coalesced in memory.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the ids of the users to verify
+         * @param delta         the number of verifications to add to each user
+         * @return the number of affected rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = """
+                INSERT INTO challenge_verifications (challenge_name, user_email, verification_count)
+                SELECT :challengeName, u.email, :delta FROM users_ecicare u
+                WHERE u.id_eci IN (:userIds)
+                  AND EXISTS (
+                    SELECT 1 FROM user_challenges_registered r
+                    WHERE r.challenge_name = :challengeName AND r.user_id_eci = u.id_eci
+                  )
+                ON DUPLICATE KEY UPDATE verification_count = verification_count + :delta
+                """, nativeQuery = true)
+        int addVerifications(@Param("challengeName") String challengeName,
+                             @Param("userIds") Collection<Long> userIds,
+                             @Param("delta") int delta);
+
+        /**
+         * Increments, in a single statement, the verification counter of every
+         * given user that is registered in the challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the ids of the users to verify
+         * @return the number of affected rows
+         */
+        default int incrementVerifications(String challengeName, Collection<Long> userIds) {
+                return addVerifications(challengeName, userIds, 1);
+        }
+
+        /**
+         * Reads the verification counters of several users in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param emails        the emails of the users
+         * @return the email and current count of every user that has a counter
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.VerificationCountDTO(KEY(v), VALUE(v))
+                FROM Challenge c
+                JOIN c.verifications v
+                WHERE c.name = :challengeName AND KEY(v) IN :emails
+                """)
+        List<VerificationCountDTO> findVerificationCounts(@Param("challengeName") String challengeName,
+                                                          @Param("emails") Collection<String> emails);
+
+        /**
+         * Removes several users from the registered participants of a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the ids of the users
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM user_challenges_registered " +
+                "WHERE challenge_name = :challengeName AND user_id_eci IN (:userIds)", nativeQuery = true)
+        int unregisterUsersFromChallenge(@Param("challengeName") String challengeName,
+                                         @Param("userIds") Collection<Long> userIds);
+
+        /**
+         * Adds several users to the confirmed participants of a challenge with a
+         * single multi-row insert, skipping those who are confirmed already.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the ids of the users
+         * @return the number of inserted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO user_challenges_confirmed (challenge_name, user_id_eci) " +
+                "SELECT :challengeName, u.id_eci FROM users_ecicare u " +
+                "WHERE u.id_eci IN (:userIds) AND NOT EXISTS (" +
+                "SELECT 1 FROM user_challenges_confirmed c " +
+                "WHERE c.challenge_name = :challengeName AND c.user_id_eci = u.id_eci)", nativeQuery = true)
+        int confirmUsersInChallenge(@Param("challengeName") String challengeName,
+                                    @Param("userIds") Collection<Long> userIds);
+
+        /**
+         * Deletes the verification counters of several users in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param emails        the emails of the users
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge_verifications " +
+                "WHERE challenge_name = :challengeName AND user_email IN (:emails)", nativeQuery = true)
+        int deleteVerifications(@Param("challengeName") String challengeName,
+                                @Param("emails") Collection<String> emails);
+
+        /**
+         * Removes several users from the confirmed participants of a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the ids of the users
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM user_challenges_confirmed " +
+                "WHERE challenge_name = :challengeName AND user_id_eci IN (:userIds)", nativeQuery = true)
+        int unconfirmUsersFromChallenge(@Param("challengeName") String challengeName,
+                                        @Param("userIds") Collection<Long> userIds);
+
+        /**
+         * Closed challenges whose deadline is older than the cutoff and that still
+         * have participation rows in the hot tables, oldest first.
+         *
+         * @param cutoff only challenges that finished before this moment
+         * @param limit  maximum number of names
+         * @return the names of the challenges to archive
+         */
+        @Query("""
+                SELECT c.name FROM Challenge c
+                WHERE c.closed = true AND c.duration < :cutoff
+                AND (c.registered IS NOT EMPTY OR c.confirmed IS NOT EMPTY OR c.verifications IS NOT EMPTY)
+                ORDER BY c.duration
+                """)
+        List<String> findArchivableChallengeNames(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+        /**
+         * Adds deltas to the participation counters of a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param registered    delta of registered users
+         * @param confirmed     delta of confirmed users
+         * @param inProgress    delta of users with verifications in progress
+         * @return the number of updated challenges
+         */
+        @Modifying
+        @Transactional
+        @Query(value = """
+                UPDATE challenge SET registered_count = registered_count + :registered,
+                    confirmed_count = confirmed_count + :confirmed,
+                    in_progress_count = in_progress_count + :inProgress
+                WHERE name = :challengeName
+                """, nativeQuery = true)
+        int addParticipationCounts(@Param("challengeName") String challengeName,
+                                   @Param("registered") int registered,
+                                   @Param("confirmed") int confirmed,
+                                   @Param("inProgress") int inProgress);
+
+        /**
+         * Recomputes the participation counters of some challenges from the join
+         * tables and the archive. Archived verification counters belong to
+         * finished challenges and no longer count as in progress.
+         *
+         * @param names the names of the challenges
+         * @return the number of updated challenges
+         */
+        @Modifying
+        @Transactional
+        @Query(value = """
+                UPDATE challenge c SET
+                    registered_count = (SELECT COUNT(*) FROM user_challenges_registered r
+                            WHERE r.challenge_name = c.name)
+                        + (SELECT COUNT(*) FROM challenge_participation_archive a
+                            WHERE a.challenge_name = c.name AND a.status = 'REGISTERED'),
+                    confirmed_count = (SELECT COUNT(*) FROM user_challenges_confirmed u
+                            WHERE u.challenge_name = c.name)
+                        + (SELECT COUNT(*) FROM challenge_participation_archive a
+                            WHERE a.challenge_name = c.name AND a.status = 'CONFIRMED'),
+                    in_progress_count = (SELECT COUNT(*) FROM challenge_verifications v
+                            WHERE v.challenge_name = c.name)
+                WHERE c.name IN (:names)
+                """, nativeQuery = true)
+        int reconcileParticipationCounts(@Param("names") Collection<String> names);
+
+        /**
+         * Keyset page of challenge names in primary-key order.
+         *
+         * @param name  the last name of the previous page, {@code ""} for the first page
+         * @param limit maximum number of names
+         * @return the names after {@code name}, sorted
+         */
+        @Query("SELECT c.name FROM Challenge c WHERE c.name > :name ORDER BY c.name")
+        List<String> findNamesAfter(@Param("name") String name, Limit limit);
+
         /**
          * Verifica si un usuario ha completado (confirmado) un challenge.
          *
@@ -158,4 +784,355 @@ public interface ChallengeRepository extends JpaRepository<Challenge, String> {
                 "WHERE c.name = :challengeName AND u.idEci = :userId")
         boolean isUserConfirmedInChallenge(@Param("challengeName") String challengeName,
                                            @Param("userId") Long userId);
+
+        /**
+         * Ids of the users registered in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @return the ids of the registered users
+         */
+        @Query("SELECT u.idEci FROM Challenge c JOIN c.registered u WHERE c.name = :challengeName")
+        List<Long> findRegisteredUserIdsByChallenge(@Param("challengeName") String challengeName);
+
+        /**
+         * Ids of the users confirmed in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @return the ids of the confirmed users
+         */
+        @Query("SELECT u.idEci FROM Challenge c JOIN c.confirmed u WHERE c.name = :challengeName")
+        List<Long> findConfirmedUserIdsByChallenge(@Param("challengeName") String challengeName);
+
+        /**
+         * Initializes the tips of the given challenges with a single fetch join.
+         * Challenges already in the persistence context are reused, so their
+         * collection is filled in place.
+         *
+         * @param names the names of the challenges
+         * @return the challenges with their tips loaded
+         */
+        @Query("SELECT DISTINCT c FROM Challenge c LEFT JOIN FETCH c.tips WHERE c.name IN :names")
+        List<Challenge> fetchTipsByNameIn(@Param("names") Collection<String> names);
+
+        /**
+         * Initializes the goals of the given challenges with a single fetch join.
+         *
+         * @param names the names of the challenges
+         * @return the challenges with their goals loaded
+         */
+        @Query("SELECT DISTINCT c FROM Challenge c LEFT JOIN FETCH c.goals WHERE c.name IN :names")
+        List<Challenge> fetchGoalsByNameIn(@Param("names") Collection<String> names);
+
+        /**
+         * Initializes the redeemables of the given challenges, together with
+         * their awards, with a single fetch join.
+         *
+         * @param names the names of the challenges
+         * @return the challenges with their redeemables and awards loaded
+         */
+        @Query("""
+                SELECT DISTINCT c FROM Challenge c
+                LEFT JOIN FETCH c.redeemables r
+                LEFT JOIN FETCH r.award
+                WHERE c.name IN :names
+                """)
+        List<Challenge> fetchRedeemablesByNameIn(@Param("names") Collection<String> names);
+
+        /**
+         * Pages challenge summaries whose name contains {@code name}, optionally
+         * restricted to one module. Only scalar columns and participant counts are
+         * read, in one statement per page plus its count.
+         *
+         * @param name       the search term, {@code ""} to match every challenge
+         * @param moduleName the module to restrict to, or {@code null} for all
+         * @param pageable   pagination information
+         * @return a page of {@link ChallengeSummary}
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary(
+                    c.name, c.imageUrl, m.name, c.duration, c.requiredVerifications,
+                    c.registeredCount, c.confirmedCount)
+                FROM Challenge c JOIN c.module m
+                WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))
+                  AND (:moduleName IS NULL OR m.name = :moduleName)
+                """)
+        Page<ChallengeSummary> findSummaries(@Param("name") String name,
+                        @Param("moduleName") String moduleName,
+                        Pageable pageable);
+
+        /**
+         * Summaries of the given challenges, in no particular order. Used to
+         * project the page of names returned by the search index.
+         *
+         * @param names the names of the challenges
+         * @return one {@link ChallengeSummary} per existing challenge
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary(
+                    c.name, c.imageUrl, m.name, c.duration, c.requiredVerifications,
+                    c.registeredCount, c.confirmedCount)
+                FROM Challenge c JOIN c.module m
+                WHERE c.name IN :names
+                """)
+        List<ChallengeSummary> findSummariesByNameIn(@Param("names") Collection<String> names);
+
+        /**
+         * Searchable text of every challenge, used to build the in-memory search
+         * index at startup.
+         *
+         * @return one document per challenge
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeSearchDocument(
+                    c.name, c.description, m.name)
+                FROM Challenge c JOIN c.module m
+                """)
+        List<ChallengeSearchDocument> findAllSearchDocuments();
+
+        /**
+         * Pages the modules having challenges whose name contains {@code name},
+         * ordered by module name, with the number of matches in each. Only one row
+         * per module is read, however many challenges match.
+         *
+         * @param name     the search term
+         * @param pageable pagination over modules
+         * @return a page of {@link ModuleMatchCount}
+         */
+        @Query(value = """
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ModuleMatchCount(
+                    m.name, m.description, m.imageUrl, COUNT(c))
+                FROM Challenge c JOIN c.module m
+                WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))
+                GROUP BY m.name, m.description, m.imageUrl
+                ORDER BY m.name
+                """, countQuery = """
+                SELECT COUNT(DISTINCT m.name)
+                FROM Challenge c JOIN c.module m
+                WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))
+                """)
+        Page<ModuleMatchCount> countMatchesByModule(@Param("name") String name, Pageable pageable);
+
+        /**
+         * Names of the first {@code perModule} challenges, by name, whose name
+         * contains {@code name} in each of the given modules. The limit is applied
+         * per module in the database with {@code ROW_NUMBER()}.
+         *
+         * @param name        the search term
+         * @param moduleNames the modules to read
+         * @param perModule   the maximum number of challenges per module
+         * @return the names, grouped by module and ordered by name within it
+         */
+        @Query(value = """
+                SELECT ranked.name FROM (
+                    SELECT c.name, c.module_name,
+                           ROW_NUMBER() OVER (PARTITION BY c.module_name ORDER BY c.name) AS position
+                    FROM challenge c
+                    WHERE c.module_name IN (:moduleNames)
+                      AND c.deleted_at IS NULL
+                      AND LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))
+                ) ranked
+                WHERE ranked.position <= :perModule
+                ORDER BY ranked.module_name, ranked.position
+                """, nativeQuery = true)
+        List<String> findTopNamesPerModule(@Param("name") String name,
+                        @Param("moduleNames") Collection<String> moduleNames,
+                        @Param("perModule") int perModule);
+
+        /**
+         * Scalar columns of the challenges of the given modules, by name.
+         *
+         * @param moduleNames the modules to read
+         * @return the challenges with the name of their module
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ModuleChallengeDTO(
+                        c.module.name, c.name, c.description, c.imageUrl, c.registeredCount)
+                FROM Challenge c
+                WHERE c.module.name IN :moduleNames
+                ORDER BY c.name
+                """)
+        List<ModuleChallengeDTO> findModuleChallenges(@Param("moduleNames") Collection<String> moduleNames);
+
+        /**
+         * First {@code perChallenge} registered users, by email, of each of the
+         * given challenges. The limit is applied per challenge in the database
+         * with {@code ROW_NUMBER()}, so the result is bounded by
+         * {@code challengeNames.size() * perChallenge} rows.
+         *
+         * @param challengeNames the challenges to read
+         * @param perChallenge   the maximum number of users per challenge
+         * @return the participants, grouped by challenge and ordered by email
+         */
+        @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ChallengeParticipantDTO(
+                        p.challengeName, p.idEci, p.name, p.email, p.role, p.registrationDate, p.hasMedicalApprove)
+                FROM (
+                    SELECT c.name AS challengeName, u.idEci AS idEci, u.name AS name, u.email AS email,
+                           u.role AS role, u.registrationDate AS registrationDate,
+                           u.hasMedicalApprove AS hasMedicalApprove,
+                           ROW_NUMBER() OVER (PARTITION BY c.name ORDER BY u.email) AS position
+                    FROM Challenge c JOIN c.registered u
+                    WHERE c.name IN :challengeNames
+                ) p
+                WHERE p.position <= :perChallenge
+                ORDER BY p.challengeName, p.email
+                """)
+        List<ChallengeParticipantDTO> findFirstRegisteredPerChallenge(
+                        @Param("challengeNames") Collection<String> challengeNames,
+                        @Param("perChallenge") int perChallenge);
+
+        /**
+         * Names of the challenges of a module, soft deleted ones included.
+         *
+         * @param moduleName the name of the module
+         * @return the names of its challenges, sorted
+         */
+        @Query(value = "SELECT name FROM challenge WHERE module_name = :moduleName ORDER BY name", nativeQuery = true)
+        List<String> findNamesByModuleName(@Param("moduleName") String moduleName);
+
+        /**
+         * Soft deletes a challenge: from now on no entity query returns it.
+         *
+         * @param name      the name of the challenge
+         * @param deletedAt when it was deleted
+         * @return the number of marked challenges
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "UPDATE challenge SET deleted_at = :deletedAt WHERE name = :name AND deleted_at IS NULL",
+                nativeQuery = true)
+        int markDeleted(@Param("name") String name, @Param("deletedAt") LocalDateTime deletedAt);
+
+        /**
+         * Soft deletes every challenge of a module.
+         *
+         * @param moduleName the name of the module
+         * @param deletedAt  when they were deleted
+         * @return the number of marked challenges
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "UPDATE challenge SET deleted_at = :deletedAt " +
+                "WHERE module_name = :moduleName AND deleted_at IS NULL", nativeQuery = true)
+        int markDeletedByModuleName(@Param("moduleName") String moduleName,
+                        @Param("deletedAt") LocalDateTime deletedAt);
+
+        /**
+         * Soft deleted challenges waiting to be purged, oldest deletion first.
+         *
+         * @param limit the maximum number of names
+         * @return the names of the deleted challenges
+         */
+        @Query(value = "SELECT name FROM challenge WHERE deleted_at IS NOT NULL ORDER BY deleted_at, name LIMIT :limit",
+                nativeQuery = true)
+        List<String> findDeletedNames(@Param("limit") int limit);
+
+        /**
+         * Number of soft deleted challenges waiting to be purged.
+         *
+         * @return the number of deleted challenges
+         */
+        @Query(value = "SELECT COUNT(*) FROM challenge WHERE deleted_at IS NOT NULL", nativeQuery = true)
+        long countDeleted();
+
+        /**
+         * Whether a soft deleted challenge with the given name is still waiting
+         * to be purged, which keeps the name taken.
+         *
+         * @param name the name of the challenge
+         * @return 1 if it is waiting, 0 otherwise
+         */
+        @Query(value = "SELECT COUNT(*) FROM challenge WHERE name = :name AND deleted_at IS NOT NULL",
+                nativeQuery = true)
+        long countDeletedByName(@Param("name") String name);
+
+        /**
+         * Deletes up to {@code limit} ratings of a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param limit         the maximum number of ratings
+         * @return the number of deleted ratings
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM rating WHERE challenge_name = :challengeName LIMIT :limit", nativeQuery = true)
+        int deleteRatingsChunk(@Param("challengeName") String challengeName, @Param("limit") int limit);
+
+        /**
+         * Deletes the registered participants of the given challenges in one statement.
+         *
+         * @param names the names of the challenges
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM user_challenges_registered WHERE challenge_name IN (:names)", nativeQuery = true)
+        int deleteRegisteredOfChallenges(@Param("names") Collection<String> names);
+
+        /**
+         * Deletes the confirmed participants of the given challenges in one statement.
+         *
+         * @param names the names of the challenges
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM user_challenges_confirmed WHERE challenge_name IN (:names)", nativeQuery = true)
+        int deleteConfirmedOfChallenges(@Param("names") Collection<String> names);
+
+        /**
+         * Deletes the verification counts of the given challenges in one statement.
+         *
+         * @param names the names of the challenges
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge_verifications WHERE challenge_name IN (:names)", nativeQuery = true)
+        int deleteVerificationsOfChallenges(@Param("names") Collection<String> names);
+
+        /**
+         * Deletes the tips of the given challenges in one statement.
+         *
+         * @param names the names of the challenges
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge_tips WHERE challenge_name IN (:names)", nativeQuery = true)
+        int deleteTipsOfChallenges(@Param("names") Collection<String> names);
+
+        /**
+         * Deletes the goals of the given challenges in one statement.
+         *
+         * @param names the names of the challenges
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge_goals WHERE challenge_name IN (:names)", nativeQuery = true)
+        int deleteGoalsOfChallenges(@Param("names") Collection<String> names);
+
+        /**
+         * Deletes the ratings of the given challenges in one statement.
+         *
+         * @param names the names of the challenges
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM rating WHERE challenge_name IN (:names)", nativeQuery = true)
+        int deleteRatingsOfChallenges(@Param("names") Collection<String> names);
+
+        /**
+         * Deletes the given challenges in one statement, without loading them.
+         * Their dependent rows must be deleted first.
+         *
+         * @param names the names of the challenges
+         * @return the number of deleted challenges
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge WHERE name IN (:names)", nativeQuery = true)
+        int deleteChallengesByNameIn(@Param("names") Collection<String> names);
 }
@@ -1,14 +1,21 @@
 package edu.escuelaing.ecicare.challenges.repositories;
 
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleGenResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleStats;
 import edu.escuelaing.ecicare.challenges.models.entity.Module;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Repository interface for managing {@link Module} entities.
  * This repository can be extended with custom query methods
@@ -19,6 +26,24 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ModuleRepository extends JpaRepository<Module, String> {
     Page<Module> findByAdministrator_Email(String email, Pageable pageable);
+
+    /**
+     * Modules administered by a user, filtered in the query.
+     *
+     * @param administratorId the id of the administrator
+     * @return the modules of the administrator, sorted by name
+     */
+    List<Module> findByAdministrator_IdEciOrderByNameAsc(Long administratorId);
+
+    /**
+     * Keyset page of modules in primary-key order: the first {@code limit}
+     * modules whose name sorts after {@code name}. No COUNT query is issued.
+     *
+     * @param name  the last name of the previous page, {@code ""} for the first page
+     * @param limit maximum number of modules to return
+     * @return the modules after {@code name}, sorted by name
+     */
+    List<Module> findByNameGreaterThanOrderByNameAsc(String name, Limit limit);
 
     @Query("""
                 SELECT new edu.escuelaing.ecicare.challenges.models.dto.ModuleGenResponse(
@@ -45,4 +70,145 @@ public interface ModuleRepository extends JpaRepository<Module, String> {
             @Param("adminEmail") String adminEmail,
             @Param("name") String name,
             Pageable pageable);
+
+    /**
+     * Statistics of every module in one {@code GROUP BY}: the challenges are
+     * counted in the join and the participation is read from the module
+     * counters, so the cost grows with the challenges, not the participants.
+     *
+     * @return the statistics of every module, sorted by name
+     */
+    @Query("""
+                SELECT new edu.escuelaing.ecicare.challenges.models.dto.ModuleStats(
+                    m.name,
+                    COUNT(c),
+                    m.registeredCount,
+                    m.confirmedCount,
+                    m.inProgressCount
+                )
+                FROM Module m
+                LEFT JOIN m.challenges c
+                GROUP BY m.name, m.registeredCount, m.confirmedCount, m.inProgressCount
+                ORDER BY m.name
+            """)
+    List<ModuleStats> findModuleStats();
+
+    /**
+     * Adds deltas to the participation counters of the module of a challenge.
+     *
+     * @param challengeName the name of the challenge
+     * @param registered    delta of registered users
+     * @param confirmed     delta of confirmed users
+     * @param inProgress    delta of users with verifications in progress
+     * @return the number of updated modules
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE module SET registered_count = registered_count + :registered,
+                confirmed_count = confirmed_count + :confirmed,
+                in_progress_count = in_progress_count + :inProgress
+            WHERE name = (SELECT c.module_name FROM challenge c WHERE c.name = :challengeName)
+            """, nativeQuery = true)
+    int addParticipationCountsOfChallenge(@Param("challengeName") String challengeName,
+            @Param("registered") int registered,
+            @Param("confirmed") int confirmed,
+            @Param("inProgress") int inProgress);
+
+    /**
+     * Adds deltas to the participation counters of a module.
+     *
+     * @param moduleName the name of the module
+     * @param registered delta of registered users
+     * @param confirmed  delta of confirmed users
+     * @param inProgress delta of users with verifications in progress
+     * @return the number of updated modules
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE module SET registered_count = registered_count + :registered,
+                confirmed_count = confirmed_count + :confirmed,
+                in_progress_count = in_progress_count + :inProgress
+            WHERE name = :moduleName
+            """, nativeQuery = true)
+    int addParticipationCounts(@Param("moduleName") String moduleName,
+            @Param("registered") int registered,
+            @Param("confirmed") int confirmed,
+            @Param("inProgress") int inProgress);
+
+    /**
+     * Deletes a module in one statement, without loading it or cascading to its
+     * challenges, which must be deleted first.
+     *
+     * @param name the name of the module
+     * @return the number of deleted modules
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM module WHERE name = :name", nativeQuery = true)
+    int deleteModuleByName(@Param("name") String name);
+
+    /**
+     * Soft deletes a module: from now on no entity query returns it.
+     *
+     * @param name      the name of the module
+     * @param deletedAt when it was deleted
+     * @return the number of marked modules
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE module SET deleted_at = :deletedAt WHERE name = :name AND deleted_at IS NULL",
+            nativeQuery = true)
+    int markDeleted(@Param("name") String name, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Soft deleted modules whose challenges have all been purged.
+     *
+     * @return the names of the modules ready to be deleted
+     */
+    @Query(value = """
+            SELECT m.name FROM module m
+            WHERE m.deleted_at IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM challenge c WHERE c.module_name = m.name)
+            ORDER BY m.name
+            """, nativeQuery = true)
+    List<String> findPurgeableNames();
+
+    /**
+     * Number of soft deleted modules waiting to be purged.
+     *
+     * @return the number of deleted modules
+     */
+    @Query(value = "SELECT COUNT(*) FROM module WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countDeleted();
+
+    /**
+     * Whether a soft deleted module with the given name is still waiting to
+     * be purged, which keeps the name taken.
+     *
+     * @param name the name of the module
+     * @return 1 if it is waiting, 0 otherwise
+     */
+    @Query(value = "SELECT COUNT(*) FROM module WHERE name = :name AND deleted_at IS NOT NULL", nativeQuery = true)
+    long countDeletedByName(@Param("name") String name);
+
+    /**
+     * Recomputes the participation counters of every module as the sum of the
+     * counters of its challenges.
+     *
+     * @return the number of updated modules
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE module m SET
+                registered_count = (SELECT COALESCE(SUM(c.registered_count), 0) FROM challenge c
+                    WHERE c.module_name = m.name AND c.deleted_at IS NULL),
+                confirmed_count = (SELECT COALESCE(SUM(c.confirmed_count), 0) FROM challenge c
+                    WHERE c.module_name = m.name AND c.deleted_at IS NULL),
+                in_progress_count = (SELECT COALESCE(SUM(c.in_progress_count), 0) FROM challenge c
+                    WHERE c.module_name = m.name AND c.deleted_at IS NULL)
+            """, nativeQuery = true)
+    int reconcileParticipationCounts();
 }
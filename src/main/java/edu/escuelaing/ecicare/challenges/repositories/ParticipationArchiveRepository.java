@@ -0,0 +1,149 @@
+package edu.escuelaing.ecicare.challenges.repositories;
+
+import edu.escuelaing.ecicare.challenges.models.entity.ParticipationArchive;
+import edu.escuelaing.ecicare.challenges.models.entity.ParticipationArchiveId;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the archive of finished challenge participation:
+ * {@code challenge_participation_archive} and
+ * {@code challenge_verifications_archive}.
+ *
+ * Rows are moved with set-based {@code INSERT ... SELECT} statements over a
+ * bounded chunk of keys read first, so each chunk can be copied and deleted
+ * from the hot tables in its own short transaction.
+ *
+ * @author ByteProgramming
+ */
+@Repository
+public interface ParticipationArchiveRepository extends JpaRepository<ParticipationArchive, ParticipationArchiveId> {
+
+        /**
+         * Next chunk of registered users of a challenge, in id order.
+         *
+         * @param challengeName the name of the challenge
+         * @param limit         the maximum number of ids
+         * @return the ids of registered users
+         */
+        @Query(value = "SELECT user_id_eci FROM user_challenges_registered WHERE challenge_name = :challengeName " +
+                "ORDER BY user_id_eci LIMIT :limit", nativeQuery = true)
+        List<Long> findRegisteredUserIds(@Param("challengeName") String challengeName, @Param("limit") int limit);
+
+        /**
+         * Next chunk of confirmed users of a challenge, in id order.
+         *
+         * @param challengeName the name of the challenge
+         * @param limit         the maximum number of ids
+         * @return the ids of confirmed users
+         */
+        @Query(value = "SELECT user_id_eci FROM user_challenges_confirmed WHERE challenge_name = :challengeName " +
+                "ORDER BY user_id_eci LIMIT :limit", nativeQuery = true)
+        List<Long> findConfirmedUserIds(@Param("challengeName") String challengeName, @Param("limit") int limit);
+
+        /**
+         * Next chunk of emails with a verification counter in a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param limit         the maximum number of emails
+         * @return the emails, in order
+         */
+        @Query(value = "SELECT user_email FROM challenge_verifications WHERE challenge_name = :challengeName " +
+                "ORDER BY user_email LIMIT :limit", nativeQuery = true)
+        List<String> findVerificationEmails(@Param("challengeName") String challengeName, @Param("limit") int limit);
+
+        /**
+         * Copies registrations of a challenge into the archive.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the users to copy
+         * @param archivedAt    the time of the archiving run
+         * @return the number of copied rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = """
+                INSERT INTO challenge_participation_archive (challenge_name, user_id_eci, status, archived_at)
+                SELECT r.challenge_name, r.user_id_eci, 'REGISTERED', :archivedAt
+                FROM user_challenges_registered r
+                WHERE r.challenge_name = :challengeName AND r.user_id_eci IN (:userIds)
+                """, nativeQuery = true)
+        int archiveRegistered(@Param("challengeName") String challengeName,
+                        @Param("userIds") Collection<Long> userIds,
+                        @Param("archivedAt") LocalDateTime archivedAt);
+
+        /**
+         * Copies confirmations of a challenge into the archive.
+         *
+         * @param challengeName the name of the challenge
+         * @param userIds       the users to copy
+         * @param archivedAt    the time of the archiving run
+         * @return the number of copied rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = """
+                INSERT INTO challenge_participation_archive (challenge_name, user_id_eci, status, archived_at)
+                SELECT c.challenge_name, c.user_id_eci, 'CONFIRMED', :archivedAt
+                FROM user_challenges_confirmed c
+                WHERE c.challenge_name = :challengeName AND c.user_id_eci IN (:userIds)
+                """, nativeQuery = true)
+        int archiveConfirmed(@Param("challengeName") String challengeName,
+                        @Param("userIds") Collection<Long> userIds,
+                        @Param("archivedAt") LocalDateTime archivedAt);
+
+        /**
+         * Copies verification counters of a challenge into the archive.
+         *
+         * @param challengeName the name of the challenge
+         * @param emails        the emails whose counters are copied
+         * @param archivedAt    the time of the archiving run
+         * @return the number of copied rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = """
+                INSERT INTO challenge_verifications_archive (challenge_name, user_email, verification_count, archived_at)
+                SELECT v.challenge_name, v.user_email, v.verification_count, :archivedAt
+                FROM challenge_verifications v
+                WHERE v.challenge_name = :challengeName AND v.user_email IN (:emails)
+                """, nativeQuery = true)
+        int archiveVerifications(@Param("challengeName") String challengeName,
+                        @Param("emails") Collection<String> emails,
+                        @Param("archivedAt") LocalDateTime archivedAt);
+
+        /**
+         * Deletes up to {@code limit} archived participation rows of a challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param limit         the maximum number of rows
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge_participation_archive WHERE challenge_name = :challengeName " +
+                "LIMIT :limit", nativeQuery = true)
+        int deleteParticipationChunk(@Param("challengeName") String challengeName, @Param("limit") int limit);
+
+        /**
+         * Deletes up to {@code limit} archived verification counters of a
+         * challenge.
+         *
+         * @param challengeName the name of the challenge
+         * @param limit         the maximum number of rows
+         * @return the number of deleted rows
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM challenge_verifications_archive WHERE challenge_name = :challengeName " +
+                "LIMIT :limit", nativeQuery = true)
+        int deleteVerificationChunk(@Param("challengeName") String challengeName, @Param("limit") int limit);
+}
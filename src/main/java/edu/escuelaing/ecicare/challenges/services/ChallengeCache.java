@@ -0,0 +1,165 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import edu.escuelaing.ecicare.awards.models.dto.AwardDto;
+import edu.escuelaing.ecicare.challenges.models.dto.AdminDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.utils.TransactionCallbacks;
+import edu.escuelaing.ecicare.utils.models.dto.CacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the per-challenge data read on every challenge screen:
+ * the assembled {@link ChallengeResponse}, its awards and its administrator, all
+ * keyed by challenge name.
+ *
+ * The caches are bounded Caffeine caches, whose W-TinyLFU admission keeps the
+ * frequently read challenges when the bound is reached. Entries are removed by
+ * the services that modify the cached data through {@link #invalidate(String)}.
+ * The expiration only bounds the staleness of writes made by other nodes.
+ *
+ * @author ByteProgramming
+ */
+@Component
+public class ChallengeCache {
+
+    private final Cache<String, ChallengeResponse> responses;
+    private final Cache<String, List<AwardDto>> awards;
+    private final Cache<String, AdminDTO> administrators;
+
+    public ChallengeCache(@Value("${ecicare.challenges.cache.maximum-size:1000}") long maximumSize,
+            @Value("${ecicare.challenges.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.responses = build(maximumSize, ttlSeconds);
+        this.awards = build(maximumSize, ttlSeconds);
+        this.administrators = build(maximumSize, ttlSeconds);
+    }
+
+    private static <V> Cache<String, V> build(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the response of a challenge, loading it on a miss. A {@code null}
+     * result (unknown challenge) is not cached.
+     *
+     * @param name   the name of the challenge
+     * @param loader reads the response from the database
+     * @return the response, or {@code null} if the challenge does not exist
+     */
+    public ChallengeResponse response(String name, Function<String, ChallengeResponse> loader) {
+        return responses.get(name, key -> detach(loader.apply(key)));
+    }
+
+    /**
+     * Returns the awards of a challenge, loading them on a miss.
+     *
+     * @param name   the name of the challenge
+     * @param loader reads the awards from the database
+     * @return the awards of the challenge
+     */
+    public List<AwardDto> awards(String name, Function<String, List<AwardDto>> loader) {
+        return awards.get(name, key -> List.copyOf(loader.apply(key)));
+    }
+
+    /**
+     * Returns the administrator of a challenge, loading it on a miss. A
+     * {@code null} result is not cached.
+     *
+     * @param name   the name of the challenge
+     * @param loader reads the administrator from the database
+     * @return the administrator, or {@code null} if there is none
+     */
+    public AdminDTO administrator(String name, Function<String, AdminDTO> loader) {
+        return administrators.get(name, loader);
+    }
+
+    /**
+     * Drops every cached value of a challenge, right away and again once the
+     * current transaction commits.
+     *
+     * The first removal keeps the writing thread from reading its own old value.
+     * The second removes values that concurrent readers loaded from the
+     * pre-commit state. A removal waits for an in-flight load of the same key, so
+     * no stale value survives the commit.
+     *
+     * @param name the name of the challenge
+     */
+    public void invalidate(String name) {
+        invalidateNow(name);
+        TransactionCallbacks.afterCommit(() -> invalidateNow(name));
+    }
+
+    /**
+     * Drops every cached value of the given challenges.
+     *
+     * @param names the names of the challenges
+     * @see #invalidate(String)
+     */
+    public void invalidateAll(Collection<String> names) {
+        List<String> keys = List.copyOf(names);
+        keys.forEach(this::invalidateNow);
+        TransactionCallbacks.afterCommit(() -> keys.forEach(this::invalidateNow));
+    }
+
+    /**
+     * Statistics of the three caches.
+     *
+     * @return one entry per cache
+     */
+    public List<CacheMetrics> stats() {
+        return List.of(
+                metrics("challenge-responses", responses),
+                metrics("challenge-awards", awards),
+                metrics("challenge-administrators", administrators));
+    }
+
+    private void invalidateNow(String name) {
+        responses.invalidate(name);
+        awards.invalidate(name);
+        administrators.invalidate(name);
+    }
+
+    private static CacheMetrics metrics(String name, Cache<String, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheMetrics(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    /**
+     * Copies the lists of a response, which may be lazy collections bound to the
+     * persistence context that loaded the challenge.
+     */
+    private static ChallengeResponse detach(ChallengeResponse response) {
+        if (response == null) {
+            return null;
+        }
+        return new ChallengeResponse(
+                response.name(),
+                response.description(),
+                response.imageUrl(),
+                response.phrase(),
+                copy(response.tips()),
+                response.duration(),
+                copy(response.goals()),
+                response.moduleName(),
+                response.requiredVerifications(),
+                copy(response.redeemables()),
+                response.participation());
+    }
+
+    private static <T> List<T> copy(List<T> list) {
+        return list == null ? null : List.copyOf(list);
+    }
+}
@@ -0,0 +1,121 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeDeadline;
+import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.utils.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Closes challenges when their deadline ({@link Challenge#getDuration()})
+ * passes.
+ *
+ * The deadlines of open challenges are kept in a priority queue ordered by
+ * deadline. Every run only looks at the head of the queue, so nothing is read
+ * from the database until some deadline has actually passed; then a single
+ * bulk update closes every expired challenge. Deadlines cannot change once a
+ * challenge is created, so the queue is filled at startup and fed by
+ * {@link ChallengeService#createChallenge}. Deleted challenges are left in the
+ * queue and simply match no row when their turn comes.
+ *
+ * Closing is only bookkeeping: {@link ChallengeService} already rejects
+ * enrollments and verifications once the deadline has passed, even if this job
+ * has not run yet.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChallengeDeadlineScheduler {
+
+    private final ChallengeRepository challengeRepository;
+
+    private final PriorityQueue<ChallengeDeadline> upcoming = new PriorityQueue<>(
+            Comparator.comparing(ChallengeDeadline::duration));
+
+    /**
+     * Loads the deadlines of the open challenges and closes the ones that
+     * expired while the application was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<ChallengeDeadline> deadlines = challengeRepository.findOpenDeadlines();
+        synchronized (this) {
+            upcoming.addAll(deadlines);
+        }
+        log.info("Deadline scheduler tracking {} open challenges", deadlines.size());
+        closeExpired();
+    }
+
+    /**
+     * Tracks the deadline of a created challenge once the current transaction
+     * commits.
+     *
+     * @param challenge the saved challenge
+     */
+    public void scheduled(Challenge challenge) {
+        if (challenge.getDuration() == null) {
+            return;
+        }
+        ChallengeDeadline deadline = new ChallengeDeadline(challenge.getName(),
+                challenge.getModule() != null ? challenge.getModule().getName() : null, challenge.getDuration());
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                upcoming.add(deadline);
+            }
+        });
+    }
+
+    /**
+     * Closes the challenges whose deadline has passed, if any.
+     *
+     * @return the number of challenges closed
+     */
+    @Scheduled(fixedDelayString = "${ecicare.challenges.deadlines.check-interval-ms:30000}")
+    public int closeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> expired = new ArrayList<>();
+        synchronized (this) {
+            while (!upcoming.isEmpty() && !upcoming.peek().duration().isAfter(now)) {
+                expired.add(upcoming.poll().name());
+            }
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        int closed;
+        try {
+            closed = challengeRepository.closeExpired(now);
+        } catch (RuntimeException e) {
+            log.warn("Could not close {} expired challenges, retrying later", expired.size(), e);
+            synchronized (this) {
+                expired.forEach(name -> upcoming.add(new ChallengeDeadline(name, null, now)));
+            }
+            return 0;
+        }
+        log.info("Closed {} challenges whose deadline passed", closed);
+        return closed;
+    }
+
+    /**
+     * The closest deadline still waiting to be closed.
+     *
+     * @return the next deadline, empty if no open challenge is tracked
+     */
+    public synchronized Optional<LocalDateTime> nextDeadline() {
+        return Optional.ofNullable(upcoming.peek()).map(ChallengeDeadline::duration);
+    }
+}
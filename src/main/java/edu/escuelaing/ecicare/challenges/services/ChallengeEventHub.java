@@ -0,0 +1,178 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeEvent;
+import edu.escuelaing.ecicare.utils.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes participation changes of a challenge (enrollments, verification
+ * scans and confirmations) to the administrators watching it as server-sent
+ * events.
+ *
+ * Events are published by {@link ChallengeService} once the change commits,
+ * so the stream never shows rolled back work and the database is not polled.
+ * Publishing only enqueues: every subscriber has a bounded buffer of
+ * {@code buffer-size} events drained by its own virtual thread, so a slow
+ * connection never delays a scan. A subscriber whose buffer fills up is
+ * disconnected; browsers reconnect on their own and reload the current state.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Component
+public class ChallengeEventHub {
+
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ChallengeEventHub(
+            @Value("${ecicare.challenges.events.buffer-size:256}") int bufferSize,
+            @Value("${ecicare.challenges.events.timeout-ms:1800000}") long timeoutMs) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Opens a stream of the events of a challenge.
+     *
+     * @param challengeName the name of the challenge
+     * @return the emitter the controller returns to the client
+     */
+    public SseEmitter subscribe(String challengeName) {
+        return subscribe(challengeName, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(String challengeName, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(challengeName, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.compute(challengeName, (name, watchers) -> {
+            Set<Subscriber> updated = watchers != null ? watchers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        return emitter;
+    }
+
+    /**
+     * Whether someone is watching a challenge, so callers can skip building
+     * events nobody would receive.
+     *
+     * @param challengeName the name of the challenge
+     * @return {@code true} if the challenge has subscribers
+     */
+    public boolean isWatched(String challengeName) {
+        return subscribers.containsKey(challengeName);
+    }
+
+    /**
+     * Sends events to the subscribers of a challenge once the current
+     * transaction commits.
+     *
+     * @param challengeName the name of the challenge
+     * @param events        the events, in order
+     */
+    public void publish(String challengeName, List<ChallengeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            for (Subscriber subscriber : subscribers.getOrDefault(challengeName, Set.of())) {
+                offer(subscriber, events);
+            }
+        });
+    }
+
+    /**
+     * Number of open streams of a challenge.
+     *
+     * @param challengeName the name of the challenge
+     * @return the subscribers of the challenge
+     */
+    public int subscriberCount(String challengeName) {
+        return subscribers.getOrDefault(challengeName, Set.of()).size();
+    }
+
+    /**
+     * Closes every stream and stops the senders before the application context
+     * is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(watchers -> watchers.forEach(subscriber -> subscriber.emitter().complete()));
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private void offer(Subscriber subscriber, List<ChallengeEvent> events) {
+        for (ChallengeEvent event : events) {
+            if (!subscriber.buffer().offer(event)) {
+                // Consumidor lento: se desconecta en lugar de acumular eventos sin límite
+                log.info("Disconnecting slow subscriber of challenge {}", subscriber.challengeName());
+                remove(subscriber);
+                subscriber.emitter().complete();
+                return;
+            }
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            ChallengeEvent event;
+            while ((event = subscriber.buffer().poll()) != null) {
+                try {
+                    subscriber.emitter().send(SseEmitter.event()
+                            .id(Long.toString(sequence.incrementAndGet()))
+                            .name(event.type().name())
+                            .data(event));
+                } catch (IOException | IllegalStateException e) {
+                    // El cliente cerró la conexión o el emisor ya terminó
+                    remove(subscriber);
+                    subscriber.buffer().clear();
+                    return;
+                }
+            }
+            subscriber.draining().set(false);
+            // Un evento encolado justo después del último poll vuelve a tomar el turno
+        } while (!subscriber.buffer().isEmpty() && subscriber.draining().compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.challengeName(), (name, watchers) -> {
+            watchers.remove(subscriber);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private record Subscriber(String challengeName, SseEmitter emitter, Queue<ChallengeEvent> buffer,
+            AtomicBoolean draining) {
+
+        Subscriber(String challengeName, SseEmitter emitter, Queue<ChallengeEvent> buffer) {
+            this(challengeName, emitter, buffer, new AtomicBoolean());
+        }
+    }
+}
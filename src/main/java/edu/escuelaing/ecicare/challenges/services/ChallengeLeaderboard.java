@@ -0,0 +1,428 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardCompletion;
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardEntry;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
+import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import edu.escuelaing.ecicare.utils.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rankings of users by completed challenges, overall and per module.
+ *
+ * Every board keeps the users sorted by completed challenges and a Fenwick
+ * tree over the completed counts, so the top-K is read in
+ * {@code O(log n + K)} and the rank of a user in {@code O(log n)} without
+ * touching the database. The boards are built at startup from the confirmed
+ * participants, archived ones included, and updated by
+ * {@link ChallengeService} after a promotion commits, a challenge changes
+ * module or a challenge is deleted; soft deleted challenges are discounted by
+ * {@link ChallengePurger} once their rows are gone.
+ *
+ * The set of challenges completed by each user is kept next to the boards, so
+ * every change is idempotent: counting a completion that is already there, or
+ * removing one that is not, does nothing. Changes committed while a rebuild
+ * reads the database may or may not be part of the read, so they are recorded
+ * and applied again to the new boards. A nightly rebuild corrects any drift.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChallengeLeaderboard {
+
+    private static final Comparator<Standing> ORDER = Comparator.comparingInt(Standing::completed).reversed()
+            .thenComparingLong(Standing::userId);
+
+    private final ChallengeRepository challengeRepository;
+    private final UserEcicareRepository userEcicareRepository;
+
+    // Solo una reconstrucción a la vez, para que haya un único registro de cambios abierto
+    private final Object rebuildLock = new Object();
+
+    private Board global = new Board();
+    private Map<String, Board> byModule = new HashMap<>();
+    // Retos completados por cada usuario y módulo de cada reto
+    private Map<Long, Set<String>> challengesByUser = new HashMap<>();
+    private Map<String, String> moduleByChallenge = new HashMap<>();
+    private Map<Long, UserLabel> labels = new HashMap<>();
+    private Map<String, Long> idsByEmail = new HashMap<>();
+    // Cambios aplicados mientras se reconstruye; null si no hay reconstrucción en curso
+    private List<Runnable> replay;
+
+    /**
+     * Builds the boards from the confirmed participants once the application
+     * is ready, and again every night.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ecicare.challenges.leaderboard.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            try {
+                rebuildBoards();
+            } finally {
+                synchronized (this) {
+                    replay = null;
+                }
+            }
+        }
+    }
+
+    private void rebuildBoards() {
+        Map<String, String> names = new HashMap<>();
+        Map<Long, Set<String>> loadedChallenges = new HashMap<>();
+        Map<String, String> loadedModules = new HashMap<>();
+        Map<Long, UserLabel> loadedLabels = new HashMap<>();
+        Map<String, Long> loadedIds = new HashMap<>();
+        for (LeaderboardCompletion completion : challengeRepository.findAllCompletions()) {
+            // Una sola instancia por nombre de reto en todos los conjuntos
+            String challengeName = names.computeIfAbsent(completion.challengeName(), name -> name);
+            loadedChallenges.computeIfAbsent(completion.userId(), id -> new HashSet<>()).add(challengeName);
+            if (completion.moduleName() != null) {
+                loadedModules.putIfAbsent(challengeName, completion.moduleName());
+            }
+            loadedLabels.putIfAbsent(completion.userId(), new UserLabel(completion.email(), completion.name()));
+            loadedIds.put(normalize(completion.email()), completion.userId());
+        }
+
+        Board loadedGlobal = new Board();
+        Map<String, Board> loadedByModule = new HashMap<>();
+        loadedChallenges.forEach((userId, challenges) -> {
+            loadedGlobal.add(userId, challenges.size());
+            Map<String, Integer> perModule = new HashMap<>();
+            for (String challengeName : challenges) {
+                String moduleName = loadedModules.get(challengeName);
+                if (moduleName != null) {
+                    perModule.merge(moduleName, 1, Integer::sum);
+                }
+            }
+            perModule.forEach((moduleName, completed) ->
+                    loadedByModule.computeIfAbsent(moduleName, name -> new Board()).add(userId, completed));
+        });
+
+        int replayed;
+        synchronized (this) {
+            global = loadedGlobal;
+            byModule = loadedByModule;
+            challengesByUser = loadedChallenges;
+            moduleByChallenge = loadedModules;
+            labels = loadedLabels;
+            idsByEmail = loadedIds;
+            // Lo confirmado durante la lectura puede estar o no en ella; los cambios son
+            // idempotentes, así que se aplican de nuevo sobre las tablas nuevas
+            replay.forEach(Runnable::run);
+            replayed = replay.size();
+        }
+        log.info("Leaderboards built for {} users in {} modules, {} changes replayed", loadedLabels.size(),
+                loadedByModule.size(), replayed);
+    }
+
+    /**
+     * Counts a completed challenge for each user once the current transaction
+     * commits. Users already counted for the challenge are left as they are.
+     *
+     * @param challengeName the name of the challenge
+     * @param userIds       the ids of the users promoted to confirmed
+     */
+    public void completed(String challengeName, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String knownModule = moduleOf(challengeName);
+        String moduleName = knownModule != null ? knownModule
+                : challengeRepository.findModuleNameByChallengeName(challengeName);
+        Map<Long, UserLabel> newLabels = missingLabels(userIds);
+        List<Long> ids = List.copyOf(userIds);
+        TransactionCallbacks.afterCommit(() -> apply(() -> {
+            newLabels.forEach((id, label) -> {
+                labels.put(id, label);
+                idsByEmail.put(normalize(label.email()), id);
+            });
+            if (moduleName != null) {
+                moduleByChallenge.putIfAbsent(challengeName, moduleName);
+            }
+            // Sin módulo solo si el reto se eliminó; la reconstrucción lo corrige
+            String module = moduleByChallenge.get(challengeName);
+            for (Long id : ids) {
+                if (challengesByUser.computeIfAbsent(id, key -> new HashSet<>()).add(challengeName)) {
+                    global.increment(id);
+                    if (module != null) {
+                        byModule.computeIfAbsent(module, name -> new Board()).increment(id);
+                    }
+                }
+            }
+        }));
+    }
+
+    /**
+     * Moves the completions of a challenge to another module board once the
+     * current transaction commits. The overall ranking does not change.
+     *
+     * @param challengeName the name of the challenge
+     * @param newModuleName the new module
+     */
+    public void moved(String challengeName, String newModuleName) {
+        TransactionCallbacks.afterCommit(() -> apply(() -> {
+            String oldModuleName = moduleByChallenge.put(challengeName, newModuleName);
+            if (oldModuleName == null || oldModuleName.equals(newModuleName)) {
+                return;
+            }
+            Board from = byModule.get(oldModuleName);
+            Board to = byModule.computeIfAbsent(newModuleName, name -> new Board());
+            challengesByUser.forEach((userId, challenges) -> {
+                if (challenges.contains(challengeName)) {
+                    if (from != null) {
+                        from.decrement(userId);
+                    }
+                    to.increment(userId);
+                }
+            });
+        }));
+    }
+
+    /**
+     * Discounts the completions of deleted challenges once the current
+     * transaction commits. Only memory is touched: the users who completed
+     * them are found in the per-user sets.
+     *
+     * @param challengeNames the names of the deleted challenges
+     */
+    public void deleted(Collection<String> challengeNames) {
+        Set<String> names = Set.copyOf(challengeNames);
+        TransactionCallbacks.afterCommit(() -> apply(() -> {
+            Iterator<Map.Entry<Long, Set<String>>> users = challengesByUser.entrySet().iterator();
+            while (users.hasNext()) {
+                Map.Entry<Long, Set<String>> user = users.next();
+                for (String challengeName : names) {
+                    if (user.getValue().remove(challengeName)) {
+                        global.decrement(user.getKey());
+                        Board module = byModule.get(moduleByChallenge.get(challengeName));
+                        if (module != null) {
+                            module.decrement(user.getKey());
+                        }
+                    }
+                }
+                if (user.getValue().isEmpty()) {
+                    users.remove();
+                }
+            }
+            names.forEach(moduleByChallenge::remove);
+        }));
+    }
+
+    /**
+     * Applies a committed change to the current boards and records it if a
+     * rebuild is reading the database, so it is applied to the new boards too.
+     */
+    private synchronized void apply(Runnable change) {
+        change.run();
+        if (replay != null) {
+            replay.add(change);
+        }
+    }
+
+    private synchronized String moduleOf(String challengeName) {
+        return moduleByChallenge.get(challengeName);
+    }
+
+    /**
+     * The users with most completed challenges.
+     *
+     * @param moduleName the module, {@code null} for the overall ranking
+     * @param limit      the maximum number of users
+     * @return the first {@code limit} users, best first
+     */
+    public synchronized List<LeaderboardEntry> top(String moduleName, int limit) {
+        Board board = board(moduleName);
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, board.size()));
+        Iterator<Standing> standings = board.ranking.iterator();
+        int rank = 0;
+        int previous = -1;
+        for (int position = 1; position <= limit && standings.hasNext(); position++) {
+            Standing standing = standings.next();
+            if (standing.completed() != previous) {
+                rank = position;
+                previous = standing.completed();
+            }
+            entries.add(entry(rank, standing.userId(), standing.completed()));
+        }
+        return entries;
+    }
+
+    /**
+     * The position of a user in a ranking.
+     *
+     * @param moduleName the module, {@code null} for the overall ranking
+     * @param userEmail  the email of the user
+     * @return the rank of the user; users without completed challenges share
+     *         the rank after the last ranked user
+     */
+    public synchronized LeaderboardEntry rankOf(String moduleName, String userEmail) {
+        Board board = board(moduleName);
+        Long userId = idsByEmail.get(normalize(userEmail));
+        int completed = userId != null ? board.completed(userId) : 0;
+        if (completed == 0) {
+            UserLabel label = userId != null ? labels.get(userId) : null;
+            return new LeaderboardEntry(board.size() + 1, label != null ? label.email() : userEmail,
+                    label != null ? label.name() : null, 0);
+        }
+        return entry(board.rank(completed), userId, completed);
+    }
+
+    private Board board(String moduleName) {
+        if (moduleName == null || moduleName.isBlank()) {
+            return global;
+        }
+        return byModule.getOrDefault(moduleName, Board.EMPTY);
+    }
+
+    private LeaderboardEntry entry(int rank, long userId, int completed) {
+        UserLabel label = labels.get(userId);
+        return new LeaderboardEntry(rank, label != null ? label.email() : null, label != null ? label.name() : null,
+                completed);
+    }
+
+    private Map<Long, UserLabel> missingLabels(Collection<Long> userIds) {
+        List<Long> missing;
+        synchronized (this) {
+            missing = userIds.stream().filter(id -> !labels.containsKey(id)).toList();
+        }
+        Map<Long, UserLabel> found = new HashMap<>();
+        if (!missing.isEmpty()) {
+            for (UserEcicare user : userEcicareRepository.findAllById(missing)) {
+                found.put(user.getIdEci(), new UserLabel(user.getEmail(), user.getName()));
+            }
+        }
+        return found;
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record UserLabel(String email, String name) {
+    }
+
+    private record Standing(long userId, int completed) {
+    }
+
+    /**
+     * One ranking: the users ordered by completed challenges plus a Fenwick tree
+     * that counts how many users have each number of completed challenges.
+     */
+    private static final class Board {
+
+        private static final Board EMPTY = new Board();
+
+        private final Map<Long, Integer> completedByUser = new HashMap<>();
+        private final TreeSet<Standing> ranking = new TreeSet<>(ORDER);
+        // tree[i] acumula los usuarios con i completados (índices desde 1)
+        private int[] tree = new int[16];
+
+        int size() {
+            return completedByUser.size();
+        }
+
+        int completed(long userId) {
+            return completedByUser.getOrDefault(userId, 0);
+        }
+
+        void add(long userId, int completed) {
+            set(userId, completed(userId) + completed);
+        }
+
+        void increment(long userId) {
+            set(userId, completed(userId) + 1);
+        }
+
+        void decrement(long userId) {
+            Integer previous = completedByUser.get(userId);
+            if (previous == null) {
+                return;
+            }
+            if (previous > 1) {
+                set(userId, previous - 1);
+                return;
+            }
+            // Sin completados el usuario sale de la tabla
+            completedByUser.remove(userId);
+            ranking.remove(new Standing(userId, previous));
+            update(previous, -1);
+        }
+
+        /**
+         * Competition rank of a user with the given count: one more than the
+         * number of users with strictly more completed challenges.
+         */
+        int rank(int completed) {
+            return size() - prefix(completed) + 1;
+        }
+
+        private void set(long userId, int completed) {
+            Integer previous = completedByUser.put(userId, completed);
+            if (previous != null) {
+                ranking.remove(new Standing(userId, previous));
+                update(previous, -1);
+            }
+            // Primero el árbol: si crece, se reconstruye sin contar al usuario dos veces
+            update(completed, 1);
+            ranking.add(new Standing(userId, completed));
+        }
+
+        private void update(int completed, int delta) {
+            if (completed >= tree.length) {
+                grow(completed);
+            }
+            for (int i = completed; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        private int prefix(int completed) {
+            int sum = 0;
+            for (int i = Math.min(completed, tree.length - 1); i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        private void grow(int completed) {
+            int[] counts = new int[Math.max(tree.length * 2, Integer.highestOneBit(completed) * 2)];
+            // Reconstruye el árbol con los conteos actuales
+            for (Standing standing : ranking) {
+                counts[standing.completed()]++;
+            }
+            int[] rebuilt = Arrays.copyOf(counts, counts.length);
+            for (int i = 1; i < rebuilt.length; i++) {
+                int parent = i + (i & -i);
+                if (parent < rebuilt.length) {
+                    rebuilt[parent] += rebuilt[i];
+                }
+            }
+            tree = rebuilt;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.utils.TransactionCallbacks;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of the registered and confirmed participants of every
+ * challenge, stored as one pair of compressed bitmaps of {@code idEci} values per
+ * challenge.
+ *
+ * A challenge is loaded from the join tables on first use and kept current by
+ * the service methods that enroll or promote users, which call the update methods
+ * after their transaction commits. Updates only reach the node that made them, so
+ * every entry expires {@code ttl-seconds} after it was loaded and is read again
+ * from the database; that bounds how long another node's writes stay invisible.
+ * Ids that do not fit in an {@code int} are always answered by the database.
+ *
+ * @author ByteProgramming
+ */
+@Component
+public class ChallengeMembershipIndex {
+
+    private final ChallengeRepository challengeRepository;
+
+    private final ConcurrentMap<String, Membership> memberships;
+
+    public ChallengeMembershipIndex(ChallengeRepository challengeRepository,
+            @Value("${ecicare.challenges.membership.ttl-seconds:300}") long ttlSeconds) {
+        this.challengeRepository = challengeRepository;
+        this.memberships = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .<String, Membership>build()
+                .asMap();
+    }
+
+    /**
+     * Whether the user is registered in the challenge.
+     *
+     * @param challengeName the name of the challenge
+     * @param userId        the id of the user
+     * @return {@code true} if the user is registered
+     */
+    public boolean isRegistered(String challengeName, Long userId) {
+        if (!fitsInBitmap(userId)) {
+            return challengeRepository.isUserRegisteredInChallenge(challengeName, userId);
+        }
+        Membership membership = membership(challengeName);
+        return membership != null && membership.isRegistered(userId.intValue());
+    }
+
+    /**
+     * Whether the user is confirmed in the challenge.
+     *
+     * @param challengeName the name of the challenge
+     * @param userId        the id of the user
+     * @return {@code true} if the user is confirmed
+     */
+    public boolean isConfirmed(String challengeName, Long userId) {
+        if (!fitsInBitmap(userId)) {
+            return challengeRepository.isUserConfirmedInChallenge(challengeName, userId);
+        }
+        Membership membership = membership(challengeName);
+        return membership != null && membership.isConfirmed(userId.intValue());
+    }
+
+    /**
+     * Records, once the current transaction commits, that users were registered
+     * in a challenge.
+     *
+     * @param challengeName the name of the challenge
+     * @param userIds       the ids of the registered users
+     */
+    public void registered(String challengeName, Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        TransactionCallbacks.afterCommit(() -> update(challengeName, membership -> ids.forEach(membership::register)));
+    }
+
+    /**
+     * Records, once the current transaction commits, that users were moved from
+     * registered to confirmed in a challenge.
+     *
+     * @param challengeName the name of the challenge
+     * @param userIds       the ids of the promoted users
+     */
+    public void promoted(String challengeName, Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        TransactionCallbacks.afterCommit(() -> update(challengeName, membership -> ids.forEach(id -> {
+            membership.unregister(id);
+            membership.confirm(id);
+        })));
+    }
+
+    /**
+     * Drops a challenge from the index once the current transaction commits.
+     *
+     * @param challengeName the name of the challenge
+     */
+    public void evict(String challengeName) {
+        TransactionCallbacks.afterCommit(() -> memberships.remove(challengeName));
+    }
+
+    private void update(String challengeName, Consumer<Membership> change) {
+        // Si el reto no está cargado, la próxima consulta lo leerá ya actualizado
+        memberships.computeIfPresent(challengeName, (name, membership) -> {
+            change.accept(membership);
+            return membership;
+        });
+    }
+
+    private Membership membership(String challengeName) {
+        Membership membership = memberships.get(challengeName);
+        if (membership != null) {
+            return membership;
+        }
+        if (!challengeRepository.existsById(challengeName)) {
+            return null;
+        }
+        // Se carga solo dentro de computeIfAbsent para que las actualizaciones concurrentes
+        // del mismo reto esperen a que termine la carga y se apliquen sobre ella
+        return memberships.computeIfAbsent(challengeName, this::load);
+    }
+
+    private Membership load(String challengeName) {
+        Membership membership = new Membership();
+        challengeRepository.findRegisteredUserIdsByChallenge(challengeName).forEach(membership::register);
+        challengeRepository.findConfirmedUserIdsByChallenge(challengeName).forEach(membership::confirm);
+        membership.optimize();
+        return membership;
+    }
+
+    private static boolean fitsInBitmap(Long userId) {
+        return userId != null && userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Registered and confirmed ids of a single challenge. Bitmaps are not thread
+     * safe, so every access goes through the instance monitor.
+     */
+    private static final class Membership {
+
+        private final RoaringBitmap registered = new RoaringBitmap();
+        private final RoaringBitmap confirmed = new RoaringBitmap();
+
+        synchronized boolean isRegistered(int userId) {
+            return registered.contains(userId);
+        }
+
+        synchronized boolean isConfirmed(int userId) {
+            return confirmed.contains(userId);
+        }
+
+        synchronized void register(Long userId) {
+            // Igual que en la base de datos, quien ya completó el reto no vuelve a inscribirse
+            if (fitsInBitmap(userId) && !confirmed.contains(userId.intValue())) {
+                registered.add(userId.intValue());
+            }
+        }
+
+        synchronized void unregister(Long userId) {
+            if (fitsInBitmap(userId)) {
+                registered.remove(userId.intValue());
+            }
+        }
+
+        synchronized void confirm(Long userId) {
+            if (fitsInBitmap(userId)) {
+                confirmed.add(userId.intValue());
+            }
+        }
+
+        synchronized void optimize() {
+            registered.runOptimize();
+            confirmed.runOptimize();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.awards.repositories.RedeemableRepository;
+import edu.escuelaing.ecicare.challenges.models.dto.PurgeStatus;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ParticipationArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Removes the rows of soft deleted challenges and modules in the background.
+ *
+ * A soft delete only sets {@code deleted_at}, which hides the row from every
+ * entity query. This job then deletes the participants, verifications,
+ * archived participation and ratings of each deleted challenge in chunks of
+ * {@code chunk-size} rows, each statement in its own short transaction and
+ * followed by a pause of {@code pause-ms}, so the hot join tables are never
+ * locked for long. The challenge row goes last, then its completions are taken
+ * out of the {@link ChallengeLeaderboard}, and a deleted module once all its
+ * challenges are gone. Every step is idempotent: a failed run leaves the
+ * rows marked and the next run resumes where it stopped.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Component
+public class ChallengePurger {
+
+    // Retos procesados como máximo en cada ejecución
+    private static final int CHALLENGES_PER_RUN = 20;
+
+    private final ChallengeRepository challengeRepository;
+    private final ModuleRepository moduleRepository;
+    private final ParticipationArchiveRepository archiveRepository;
+    private final RedeemableRepository redeemableRepository;
+    private final ChallengeLeaderboard leaderboard;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    private final AtomicLong purgedChallenges = new AtomicLong();
+    private final AtomicLong purgedModules = new AtomicLong();
+    private final AtomicLong purgedRows = new AtomicLong();
+    private volatile String currentChallenge;
+    private volatile LocalDateTime lastRunAt;
+
+    public ChallengePurger(ChallengeRepository challengeRepository,
+            ModuleRepository moduleRepository,
+            ParticipationArchiveRepository archiveRepository,
+            RedeemableRepository redeemableRepository,
+            ChallengeLeaderboard leaderboard,
+            @Value("${ecicare.challenges.purge.chunk-size:1000}") int chunkSize,
+            @Value("${ecicare.challenges.purge.pause-ms:100}") long pauseMs) {
+        this.challengeRepository = challengeRepository;
+        this.moduleRepository = moduleRepository;
+        this.archiveRepository = archiveRepository;
+        this.redeemableRepository = redeemableRepository;
+        this.leaderboard = leaderboard;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+    }
+
+    /**
+     * Purges the oldest soft deleted challenges, then the deleted modules left
+     * without challenges.
+     *
+     * @return the number of challenges purged
+     */
+    @Scheduled(fixedDelayString = "${ecicare.challenges.purge.interval-ms:60000}")
+    public synchronized int purgeDeleted() {
+        int purged = 0;
+        try {
+            for (String name : challengeRepository.findDeletedNames(CHALLENGES_PER_RUN)) {
+                currentChallenge = name;
+                try {
+                    long rows = purgeChallenge(name);
+                    purged++;
+                    purgedChallenges.incrementAndGet();
+                    log.info("Purged deleted challenge {} and {} dependent rows", name, rows);
+                } catch (RuntimeException e) {
+                    log.warn("Could not purge deleted challenge {}, retrying next run", name, e);
+                }
+            }
+            currentChallenge = null;
+            for (String module : moduleRepository.findPurgeableNames()) {
+                try {
+                    moduleRepository.deleteModuleByName(module);
+                    purgedModules.incrementAndGet();
+                    log.info("Purged deleted module {}", module);
+                } catch (RuntimeException e) {
+                    log.warn("Could not purge deleted module {}, retrying next run", module, e);
+                }
+            }
+        } finally {
+            currentChallenge = null;
+            lastRunAt = LocalDateTime.now();
+        }
+        return purged;
+    }
+
+    /**
+     * Progress of the purge.
+     *
+     * @return the pending work and the totals since startup
+     */
+    public PurgeStatus status() {
+        return new PurgeStatus(challengeRepository.countDeleted(), moduleRepository.countDeleted(),
+                currentChallenge, purgedChallenges.get(), purgedModules.get(), purgedRows.get(), lastRunAt);
+    }
+
+    private long purgeChallenge(String name) {
+        long rows = drain(() -> {
+            List<Long> ids = archiveRepository.findRegisteredUserIds(name, chunkSize);
+            return ids.isEmpty() ? 0 : challengeRepository.unregisterUsersFromChallenge(name, ids);
+        });
+        rows += drain(() -> {
+            List<Long> ids = archiveRepository.findConfirmedUserIds(name, chunkSize);
+            return ids.isEmpty() ? 0 : challengeRepository.unconfirmUsersFromChallenge(name, ids);
+        });
+        rows += drain(() -> {
+            List<String> emails = archiveRepository.findVerificationEmails(name, chunkSize);
+            return emails.isEmpty() ? 0 : challengeRepository.deleteVerifications(name, emails);
+        });
+        rows += drain(() -> archiveRepository.deleteParticipationChunk(name, chunkSize));
+        rows += drain(() -> archiveRepository.deleteVerificationChunk(name, chunkSize));
+        rows += drain(() -> challengeRepository.deleteRatingsChunk(name, chunkSize));
+
+        // Lo que queda es acotado por reto: premios, consejos, metas y la fila del reto
+        List<String> names = List.of(name);
+        int rest = redeemableRepository.deleteByChallengeNames(names)
+                + challengeRepository.deleteTipsOfChallenges(names)
+                + challengeRepository.deleteGoalsOfChallenges(names);
+        purgedRows.addAndGet(rest);
+        challengeRepository.deleteChallengesByNameIn(names);
+        // Fuera de la petición del borrado: solo recorre memoria, pero crece con las completadas
+        leaderboard.deleted(names);
+        return rows + rest;
+    }
+
+    /**
+     * Runs a chunk until it deletes nothing, pausing between chunks.
+     */
+    private long drain(IntSupplier chunk) {
+        long total = 0;
+        int deleted;
+        while ((deleted = chunk.getAsInt()) > 0) {
+            total += deleted;
+            purgedRows.addAndGet(deleted);
+            pause();
+        }
+        return total;
+    }
+
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Purge interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link ChallengeResponse} DTOs for whole lists of challenges.
+ *
+ * Mapping a challenge reads its tips, goals, redeemables with their awards and
+ * its module. Done one entity at a time, every lazy collection is a separate
+ * select, so a page of N challenges costs several queries per row. This
+ * assembler first initializes those collections for the whole list, one fetch
+ * join per collection, and only then maps the entities with
+ * {@link ChallengeService#challengeToResponse}. The number of statements no
+ * longer depends on the size of the list.
+ *
+ * The entities must belong to the current persistence context, which is the
+ * case for entities read during the same request.
+ *
+ * @author ByteProgramming
+ */
+@Component
+@RequiredArgsConstructor
+public class ChallengeResponseAssembler {
+
+    private final ChallengeRepository challengeRepository;
+
+    /**
+     * Maps a list of challenges, loading their relations in bulk.
+     *
+     * @param challenges the challenges to map
+     * @return the responses, in the same order
+     */
+    public List<ChallengeResponse> toResponses(Collection<Challenge> challenges) {
+        preload(challenges);
+        return challenges.stream()
+                .map(ChallengeService::challengeToResponse)
+                .toList();
+    }
+
+    /**
+     * Maps a page of challenges, loading their relations in bulk.
+     *
+     * @param challenges the page to map
+     * @return the page of responses
+     */
+    public Page<ChallengeResponse> toResponses(Page<Challenge> challenges) {
+        preload(challenges.getContent());
+        return challenges.map(ChallengeService::challengeToResponse);
+    }
+
+    /**
+     * Initializes the tips, goals and redeemables (with awards) of the given
+     * challenges with one query per collection.
+     *
+     * @param challenges the challenges whose relations are read next
+     */
+    public void preload(Collection<Challenge> challenges) {
+        Set<String> names = challenges.stream()
+                .map(Challenge::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return;
+        }
+        // Tips y goals son bolsas: no se pueden traer en el mismo JOIN FETCH
+        challengeRepository.fetchTipsByNameIn(names);
+        challengeRepository.fetchGoalsByNameIn(names);
+        challengeRepository.fetchRedeemablesByNameIn(names);
+    }
+
+    /**
+     * Maps every challenge of the given modules with one query for the
+     * challenges, keyed by module name, plus the bulk loads of their relations.
+     *
+     * @param moduleNames the names of the modules
+     * @return the responses of each module, in name order
+     */
+    public Map<String, List<ChallengeResponse>> toResponsesByModule(Collection<String> moduleNames) {
+        if (moduleNames.isEmpty()) {
+            return Map.of();
+        }
+        return groupByModule(toResponses(challengeRepository.findByModule_NameInOrderByNameAsc(moduleNames)));
+    }
+
+    /**
+     * Maps only the first {@code perModule} challenges, by name, of each of the
+     * given modules. The limit is applied per module in the database.
+     *
+     * @param moduleNames the names of the modules
+     * @param perModule   the maximum number of challenges per module
+     * @return the responses of each module, in name order
+     */
+    public Map<String, List<ChallengeResponse>> toResponsesByModule(Collection<String> moduleNames, int perModule) {
+        if (moduleNames.isEmpty()) {
+            return Map.of();
+        }
+        List<String> names = challengeRepository.findTopNamesPerModule("", moduleNames, perModule);
+        Map<String, Challenge> byName = challengeRepository.findAllById(names).stream()
+                .collect(Collectors.toMap(Challenge::getName, Function.identity()));
+        return groupByModule(toResponses(names.stream().map(byName::get).filter(Objects::nonNull).toList()));
+    }
+
+    private static Map<String, List<ChallengeResponse>> groupByModule(List<ChallengeResponse> responses) {
+        return responses.stream().collect(Collectors.groupingBy(ChallengeResponse::moduleName));
+    }
+}
@@ -0,0 +1,529 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSearchDocument;
+import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.utils.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the name, description and module name of every
+ * challenge, used instead of {@code LIKE '%q%'} scans for search.
+ *
+ * Text is lower-cased and stripped of accents, so "nutricion" finds
+ * "Nutrición". Each distinct word keeps one bitmap of challenges per field, and
+ * the words themselves are indexed by their trigrams and their one and two
+ * letter prefixes. A query word of three or more letters matches any word that
+ * contains it; a shorter one matches words starting with it. Every query word
+ * must match some field. Because matching is resolved against the vocabulary
+ * rather than against each challenge, the cost of a query depends on the
+ * number of words it matches, not on the number of challenges.
+ *
+ * Results are ranked by where each query word matched: at the start of a word
+ * of the name, elsewhere in the name, in the module or in the description.
+ * Challenges with the same score are ordered by name.
+ *
+ * The index is built at startup and kept current by the service methods that
+ * create, update or delete challenges, after their transaction commits. Until it
+ * is built, {@link #isReady()} is {@code false} and callers fall back to the
+ * database.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChallengeSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int NAME_PREFIX_SCORE = 8;
+    private static final int NAME_SCORE = 5;
+    private static final int MODULE_SCORE = 3;
+    private static final int DESCRIPTION_SCORE = 1;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final ChallengeRepository challengeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Term> terms = new HashMap<>();
+    private final List<Term> termsById = new ArrayList<>();
+    private final Deque<Integer> freeTermIds = new ArrayDeque<>();
+    private final Map<String, RoaringBitmap> termsByGram = new HashMap<>();
+    private final Map<String, RoaringBitmap> documentsByModule = new HashMap<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    // Retos modificados antes de terminar la carga inicial: la carga no los pisa
+    private final Set<String> updatedBeforeReady = new HashSet<>();
+    private volatile boolean ready;
+
+    /**
+     * Builds the index from the database once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<ChallengeSearchDocument> rows = challengeRepository.findAllSearchDocuments();
+        lock.writeLock().lock();
+        try {
+            for (ChallengeSearchDocument row : rows) {
+                if (!updatedBeforeReady.contains(row.name())) {
+                    put(row);
+                }
+            }
+            updatedBeforeReady.clear();
+            termsByGram.values().forEach(RoaringBitmap::runOptimize);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built for {} challenges with {} words", idsByName.size(), terms.size());
+    }
+
+    /**
+     * Whether the index has been built and can answer searches.
+     *
+     * @return {@code true} once the initial build finished
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records, once the current transaction commits, the current text of a
+     * created or updated challenge.
+     *
+     * @param challenge the saved challenge
+     */
+    public void indexed(Challenge challenge) {
+        ChallengeSearchDocument document = new ChallengeSearchDocument(challenge.getName(),
+                challenge.getDescription(), challenge.getModule() != null ? challenge.getModule().getName() : null);
+        TransactionCallbacks.afterCommit(() -> write(document.name(), () -> put(document)));
+    }
+
+    /**
+     * Removes a challenge from the index once the current transaction commits.
+     *
+     * @param challengeName the name of the deleted challenge
+     */
+    public void removed(String challengeName) {
+        TransactionCallbacks.afterCommit(() -> write(challengeName, () -> remove(challengeName)));
+    }
+
+    /**
+     * Names of all the challenges matching a query, best match first.
+     *
+     * @param query      the text typed by the user
+     * @param moduleName the module to restrict to, or {@code null} for all
+     * @return the ranked names, empty if the query has no words
+     */
+    public List<String> search(String query, String moduleName) {
+        return search(query, moduleName, 0, Integer.MAX_VALUE).names();
+    }
+
+    /**
+     * One page of the challenges matching a query, best match first.
+     *
+     * @param query      the text typed by the user
+     * @param moduleName the module to restrict to, or {@code null} for all
+     * @param pageable   the page to return; its sort is ignored in favour of the rank
+     * @return the page of names with the total number of matches
+     */
+    public Page<String> search(String query, String moduleName, Pageable pageable) {
+        Ranked ranked = search(query, moduleName, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(ranked.names(), pageable, ranked.total());
+    }
+
+    /**
+     * One page of the modules having challenges that match a query, ordered by
+     * module name, each with its number of matches and its best
+     * {@code perModule} challenges. Only the modules of the page are ranked.
+     *
+     * @param query     the text typed by the user
+     * @param perModule the maximum number of names per module
+     * @param pageable  the page of modules to return; its sort is ignored
+     * @return the page of modules with the total number of modules with matches
+     */
+    public Page<ModuleMatches> searchByModule(String query, int perModule, Pageable pageable) {
+        String[] words = words(query);
+        if (words.length == 0) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        lock.readLock().lock();
+        try {
+            TreeMap<Integer, RoaringBitmap> buckets = buckets(words, null);
+            if (buckets.isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+            RoaringBitmap matching = RoaringBitmap.or(buckets.values().iterator());
+            List<String> modules = documentsByModule.entrySet().stream()
+                    .filter(entry -> RoaringBitmap.intersects(entry.getValue(), matching))
+                    .map(Map.Entry::getKey)
+                    .sorted(String.CASE_INSENSITIVE_ORDER)
+                    .toList();
+            List<ModuleMatches> content = modules.stream()
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .map(module -> {
+                        // Los mismos grupos de puntaje, restringidos al módulo
+                        RoaringBitmap inModule = documentsByModule.get(module);
+                        TreeMap<Integer, RoaringBitmap> moduleBuckets = new TreeMap<>(Comparator.reverseOrder());
+                        buckets.forEach((score, bucket) -> {
+                            RoaringBitmap in = RoaringBitmap.and(bucket, inModule);
+                            if (!in.isEmpty()) {
+                                moduleBuckets.put(score, in);
+                            }
+                        });
+                        Ranked ranked = page(moduleBuckets, 0, perModule);
+                        return new ModuleMatches(module, ranked.total(), ranked.names());
+                    })
+                    .toList();
+            return new PageImpl<>(content, pageable, modules.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases a text, strips its accents and splits it into words.
+     *
+     * @param text the text, possibly {@code null}
+     * @return the normalized words
+     */
+    static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(SEPARATORS.split(plain.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private Ranked search(String query, String moduleName, long offset, int limit) {
+        String[] words = words(query);
+        if (words.length == 0) {
+            return new Ranked(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap scope = moduleName != null ? documentsByModule.get(moduleName) : null;
+            if (moduleName != null && scope == null) {
+                return new Ranked(List.of(), 0);
+            }
+            return page(buckets(words, scope), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The challenges matching every query word, split by score; empty if none
+     * matches. Must be called holding the read lock.
+     */
+    private TreeMap<Integer, RoaringBitmap> buckets(String[] words, RoaringBitmap scope) {
+        List<Match> matches = new ArrayList<>(words.length);
+        RoaringBitmap candidates = scope;
+        for (String word : Arrays.stream(words).distinct().toList()) {
+            Match match = match(word);
+            RoaringBitmap any = RoaringBitmap.or(match.name(), match.module(), match.description());
+            candidates = candidates == null ? any : RoaringBitmap.and(candidates, any);
+            if (candidates.isEmpty()) {
+                return new TreeMap<>();
+            }
+            matches.add(match);
+        }
+        return scoreBuckets(candidates, matches);
+    }
+
+    /**
+     * Challenges containing a query word in each field, resolved through the
+     * words of the vocabulary that contain it.
+     */
+    private Match match(String word) {
+        Match match = new Match(new RoaringBitmap(), new RoaringBitmap(), new RoaringBitmap(),
+                new RoaringBitmap());
+        RoaringBitmap termIds = null;
+        for (String gram : word.length() < GRAM ? List.of(word) : trigrams(word)) {
+            RoaringBitmap posting = termsByGram.get(gram);
+            if (posting == null) {
+                return match;
+            }
+            termIds = termIds == null ? posting : RoaringBitmap.and(termIds, posting);
+        }
+        IntIterator ids = termIds.getIntIterator();
+        while (ids.hasNext()) {
+            Term term = termsById.get(ids.next());
+            // Los trigramas pueden coincidir sin que la palabra contenga la consulta
+            boolean prefix = term.word().startsWith(word);
+            if (!prefix && (word.length() < GRAM || !term.word().contains(word))) {
+                continue;
+            }
+            match.name().or(term.name());
+            match.module().or(term.module());
+            match.description().or(term.description());
+            if (prefix) {
+                match.namePrefix().or(term.name());
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Splits the candidates into bitmaps of challenges with the same score, best
+     * score first, using only bitmap operations.
+     */
+    private static TreeMap<Integer, RoaringBitmap> scoreBuckets(RoaringBitmap candidates, List<Match> matches) {
+        TreeMap<Integer, RoaringBitmap> buckets = new TreeMap<>(Comparator.reverseOrder());
+        buckets.put(0, candidates);
+        for (Match match : matches) {
+            buckets = split(buckets, match.namePrefix(), NAME_PREFIX_SCORE);
+            // El resto del nombre solo puntúa si no empezó una palabra
+            buckets = split(buckets, RoaringBitmap.andNot(match.name(), match.namePrefix()), NAME_SCORE);
+            buckets = split(buckets, match.module(), MODULE_SCORE);
+            buckets = split(buckets, match.description(), DESCRIPTION_SCORE);
+        }
+        return buckets;
+    }
+
+    private static TreeMap<Integer, RoaringBitmap> split(TreeMap<Integer, RoaringBitmap> buckets,
+            RoaringBitmap matching, int score) {
+        TreeMap<Integer, RoaringBitmap> result = new TreeMap<>(Comparator.reverseOrder());
+        buckets.forEach((current, bucket) -> {
+            RoaringBitmap in = RoaringBitmap.and(bucket, matching);
+            if (!in.isEmpty()) {
+                result.merge(current + score, in, (left, right) -> RoaringBitmap.or(left, right));
+            }
+            RoaringBitmap out = RoaringBitmap.andNot(bucket, matching);
+            if (!out.isEmpty()) {
+                result.merge(current, out, (left, right) -> RoaringBitmap.or(left, right));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Reads one page from the score buckets. Whole buckets before the page are
+     * skipped by their cardinality; within a bucket only the names needed for
+     * the page are selected, in order.
+     */
+    private Ranked page(TreeMap<Integer, RoaringBitmap> buckets, long offset, int limit) {
+        long total = buckets.values().stream().mapToLong(RoaringBitmap::getLongCardinality).sum();
+        List<String> names = new ArrayList<>();
+        long skip = offset;
+        for (RoaringBitmap bucket : buckets.values()) {
+            if (names.size() >= limit) {
+                break;
+            }
+            long size = bucket.getLongCardinality();
+            if (skip >= size) {
+                skip -= size;
+                continue;
+            }
+            int wanted = (int) Math.min(size, skip + (limit - names.size()));
+            List<String> first = firstNames(bucket, wanted);
+            names.addAll(first.subList((int) skip, first.size()));
+            skip = 0;
+        }
+        return new Ranked(names, total);
+    }
+
+    private List<String> firstNames(RoaringBitmap bucket, int count) {
+        if (count >= bucket.getCardinality()) {
+            List<String> all = new ArrayList<>(bucket.getCardinality());
+            bucket.forEach((int id) -> all.add(documents.get(id).name()));
+            all.sort(Comparator.naturalOrder());
+            return all;
+        }
+        PriorityQueue<String> largest = new PriorityQueue<>(count + 1, Comparator.reverseOrder());
+        bucket.forEach((int id) -> {
+            String name = documents.get(id).name();
+            if (largest.size() < count) {
+                largest.add(name);
+            } else if (name.compareTo(largest.peek()) < 0) {
+                largest.poll();
+                largest.add(name);
+            }
+        });
+        List<String> first = new ArrayList<>(largest);
+        first.sort(Comparator.naturalOrder());
+        return first;
+    }
+
+    private void write(String challengeName, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                updatedBeforeReady.add(challengeName);
+            }
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(ChallengeSearchDocument row) {
+        remove(row.name());
+        Document document = new Document(row.name(), row.moduleName(), Set.of(distinct(row.name())),
+                Set.of(distinct(row.moduleName())), Set.of(distinct(row.description())));
+        int id = freeIds.isEmpty() ? documents.size() : freeIds.pop();
+        if (id == documents.size()) {
+            documents.add(document);
+        } else {
+            documents.set(id, document);
+        }
+        idsByName.put(row.name(), id);
+        document.nameWords().forEach(word -> term(word).name().add(id));
+        document.moduleWords().forEach(word -> term(word).module().add(id));
+        document.descriptionWords().forEach(word -> term(word).description().add(id));
+        if (row.moduleName() != null) {
+            documentsByModule.computeIfAbsent(row.moduleName(), key -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private void remove(String challengeName) {
+        Integer id = idsByName.remove(challengeName);
+        if (id == null) {
+            return;
+        }
+        Document document = documents.get(id);
+        document.nameWords().forEach(word -> terms.get(word).name().remove(id));
+        document.moduleWords().forEach(word -> terms.get(word).module().remove(id));
+        document.descriptionWords().forEach(word -> terms.get(word).description().remove(id));
+        for (Set<String> words : List.of(document.nameWords(), document.moduleWords(),
+                document.descriptionWords())) {
+            words.forEach(this::dropIfUnused);
+        }
+        RoaringBitmap module = documentsByModule.get(document.moduleName());
+        if (module != null) {
+            module.remove(id);
+            if (module.isEmpty()) {
+                documentsByModule.remove(document.moduleName());
+            }
+        }
+        documents.set(id, null);
+        freeIds.push(id);
+    }
+
+    private Term term(String word) {
+        Term existing = terms.get(word);
+        if (existing != null) {
+            return existing;
+        }
+        int id = freeTermIds.isEmpty() ? termsById.size() : freeTermIds.pop();
+        Term term = new Term(id, word, new RoaringBitmap(), new RoaringBitmap(), new RoaringBitmap());
+        if (id == termsById.size()) {
+            termsById.add(term);
+        } else {
+            termsById.set(id, term);
+        }
+        terms.put(word, term);
+        grams(word).forEach(gram -> termsByGram.computeIfAbsent(gram, key -> new RoaringBitmap()).add(id));
+        return term;
+    }
+
+    private void dropIfUnused(String word) {
+        Term term = terms.get(word);
+        if (term == null || !term.name().isEmpty() || !term.module().isEmpty() || !term.description().isEmpty()) {
+            return;
+        }
+        terms.remove(word);
+        for (String gram : grams(word)) {
+            RoaringBitmap posting = termsByGram.get(gram);
+            posting.remove(term.id());
+            if (posting.isEmpty()) {
+                termsByGram.remove(gram);
+            }
+        }
+        termsById.set(term.id(), null);
+        freeTermIds.push(term.id());
+    }
+
+    private static String[] distinct(String text) {
+        return Arrays.stream(words(text)).distinct().toArray(String[]::new);
+    }
+
+    /**
+     * The one and two letter prefixes of a word plus all of its trigrams.
+     */
+    private static Set<String> grams(String word) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length < GRAM && length <= word.length(); length++) {
+            grams.add(word.substring(0, length));
+        }
+        if (word.length() >= GRAM) {
+            grams.addAll(trigrams(word));
+        }
+        return grams;
+    }
+
+    private static List<String> trigrams(String word) {
+        List<String> grams = new ArrayList<>(word.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * A distinct normalized word and the challenges containing it in each field.
+     */
+    private record Term(int id, String word, RoaringBitmap name, RoaringBitmap module,
+            RoaringBitmap description) {
+    }
+
+    /**
+     * Words of an indexed challenge, kept to unindex it later.
+     */
+    private record Document(String name, String moduleName, Set<String> nameWords, Set<String> moduleWords,
+            Set<String> descriptionWords) {
+    }
+
+    /**
+     * Challenges matching one query word in each field; {@code namePrefix} holds
+     * those where a word of the name starts with it.
+     */
+    private record Match(RoaringBitmap namePrefix, RoaringBitmap name, RoaringBitmap module,
+            RoaringBitmap description) {
+    }
+
+    private record Ranked(List<String> names, long total) {
+    }
+
+    /**
+     * A module with challenges matching a query.
+     *
+     * @param moduleName the name of the module
+     * @param matches    how many of its challenges match
+     * @param names      its best matching challenges, best first
+     */
+    public record ModuleMatches(String moduleName, long matches, List<String> names) {
+    }
+}
@@ -8,26 +8,38 @@ import edu.escuelaing.ecicare.challenges.models.entity.Module;
 import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
 import edu.escuelaing.ecicare.awards.models.entity.Award;
 import edu.escuelaing.ecicare.users.models.dto.AuthResponseDTO;
+import edu.escuelaing.ecicare.users.models.dto.UserEmailIdDTO;
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
 import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
 import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import edu.escuelaing.ecicare.utils.exceptions.ChallengeClosedException;
+import edu.escuelaing.ecicare.utils.models.dto.CacheMetrics;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class that provides business logic for managing {@link Challenge}
@@ -48,10 +60,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChallengeService {
 
+    // Maximum number of emails resolved per IN clause in bulk operations
+    private static final int BATCH_SIZE = 500;
+    // Maximum number of duplicated or unknown emails listed in an enrollment report
+    private static final int MAX_REPORTED_EMAILS = 100;
+
+    public static final int DEFAULT_CHALLENGES_PER_MODULE = 5;
+    public static final int MAX_CHALLENGES_PER_MODULE = 50;
+
     private final ChallengeRepository challengeRepository;
     private final UserEcicareRepository userEcicareRepository;
     private final ModuleRepository moduleRepository;
     private final RedeemableRepository redeemableRepository;
+    private final ChallengeMembershipIndex membershipIndex;
+    private final ChallengeResponseAssembler responseAssembler;
+    private final ChallengeCache challengeCache;
+    private final ChallengeSearchIndex searchIndex;
+    private final ChallengeDeadlineScheduler deadlineScheduler;
+    private final ChallengeLeaderboard leaderboard;
+    private final ChallengeEventHub eventHub;
+    private final ModuleStatsCache moduleStatsCache;
 
     /**
      * Creates and saves a new challenge in the repository.
@@ -62,6 +90,10 @@ public class ChallengeService {
     public ChallengeResponse createChallenge(ChallengeDTO challengeDto) {
         Module module = moduleRepository.findById(challengeDto.getModuleName())
                 .orElseThrow(() -> new RuntimeException("Módulo no encontrado"));
+        if (challengeRepository.countDeletedByName(challengeDto.getName()) > 0) {
+            // El nombre sigue ocupado hasta que ChallengePurger borre el reto anterior
+            throw new RuntimeException("Challenge is being deleted, try again later");
+        }
         Challenge challenge = Challenge.builder()
                 .name(challengeDto.getName())
                 .description(challengeDto.getDescription())
@@ -75,6 +107,11 @@ public class ChallengeService {
                         challengeDto.getRequiredVerifications() != null ? challengeDto.getRequiredVerifications() : 1)
                 .build();
         challengeRepository.save(challenge);
+        // save() sobrescribe un reto existente con el mismo nombre
+        challengeCache.invalidate(challenge.getName());
+        moduleStatsCache.invalidate();
+        searchIndex.indexed(challenge);
+        deadlineScheduler.scheduled(challenge);
         return challengeToResponse(challenge);
     }
 
@@ -84,9 +121,7 @@ public class ChallengeService {
      * @return a list of all {@link ChallengeResponse} DTOs
      */
     public List<ChallengeResponse> getAllChallenges() {
-        return challengeRepository.findAll().stream()
-                .map(ChallengeService::challengeToResponse)
-                .toList();
+        return responseAssembler.toResponses(challengeRepository.findAll());
     }
 
     /**
@@ -115,12 +150,83 @@ public class ChallengeService {
         }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-        return challengeRepository.findAll(pageable)
-                .map(ChallengeService::challengeToResponse);
+        return responseAssembler.toResponses(challengeRepository.findAll(pageable));
+    }
+
+    /**
+     * Retrieves a page of challenge summaries in name order, for catalog and
+     * card views that do not need tips, goals or awards.
+     *
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @return a {@link Page} of {@link ChallengeSummary}
+     */
+    public Page<ChallengeSummary> getChallengeSummariesPaginated(int page, int size) {
+        if (page < 0) {
+            page = 0;
+        }
+        if (size <= 0) {
+            size = 10;
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
+        return challengeRepository.findSummaries("", null, pageable);
+    }
+
+    /**
+     * Searches challenge summaries by name, optionally within a module. Matches
+     * the same challenges, in the same order, as
+     * {@link #searchChallengesByName(String, String, Pageable)}: once the
+     * {@link ChallengeSearchIndex} is built, non blank terms are resolved by it
+     * and only the summaries of the page are read.
+     *
+     * @param name       the search term to match in challenge names
+     * @param moduleName optional module name to restrict the search to
+     * @param pageable   pagination information
+     * @return a {@link Page} of {@link ChallengeSummary} matching the criteria
+     */
+    public Page<ChallengeSummary> searchChallengeSummaries(String name, String moduleName, Pageable pageable) {
+        String query = name == null ? "" : name.trim();
+        String module = moduleName == null || moduleName.isBlank() ? null : moduleName;
+        if (searchIndex.isReady() && !query.isEmpty()) {
+            Page<String> names = searchIndex.search(query, module, pageable);
+            if (names.isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, names.getTotalElements());
+            }
+            Map<String, ChallengeSummary> byName = challengeRepository.findSummariesByNameIn(names.getContent())
+                    .stream()
+                    .collect(Collectors.toMap(ChallengeSummary::getName, summary -> summary));
+            return new PageImpl<>(names.getContent().stream().map(byName::get).filter(Objects::nonNull).toList(),
+                    pageable, names.getTotalElements());
+        }
+        return challengeRepository.findSummaries(query, module, pageable);
+    }
+
+    /**
+     * Retrieves challenges with keyset (cursor) pagination in name order.
+     *
+     * Each page is fetched with {@code name > cursor LIMIT limit + 1}, so it costs
+     * the same at any depth and no COUNT query is issued.
+     *
+     * @param after the cursor returned with the previous page, or {@code null} for
+     *              the first page
+     * @param limit the page size
+     * @return a {@link CursorPage} of {@link ChallengeResponse} DTOs
+     */
+    public CursorPage<ChallengeResponse> getChallengesAfter(String after, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        String lastName = CursorPage.decode(after);
+        List<Challenge> rows = challengeRepository.findByNameGreaterThanOrderByNameAsc(
+                lastName == null ? "" : lastName, Limit.of(CursorPage.fetchSize(size)));
+        responseAssembler.preload(rows);
+        return CursorPage.of(rows, size, Challenge::getName, ChallengeService::challengeToResponse);
     }
 
     /**
      * Searches challenges by name and groups them by their modules.
+     * Once the {@link ChallengeSearchIndex} is built, the term is also matched
+     * against descriptions and module names, ignoring accents, and challenges are
+     * listed by relevance within each module.
      * 
      * @param name the search term to match in challenge names (required)
      * @return a {@link List} of {@link ModuleWithChallengesDTO} containing modules
@@ -132,8 +238,10 @@ public class ChallengeService {
             throw new IllegalArgumentException("Search term cannot be null or empty");
         }
 
-        List<Challenge> matchingChallenges = challengeRepository
-                .findByNameContainingIgnoreCaseOrderByNameAsc(name.trim());
+        List<Challenge> matchingChallenges = searchIndex.isReady()
+                ? loadInOrder(searchIndex.search(name, null))
+                : challengeRepository.findByNameContainingIgnoreCaseOrderByNameAsc(name.trim());
+        responseAssembler.preload(matchingChallenges);
 
         Map<String, List<Challenge>> challengesByModule = matchingChallenges.stream()
                 .filter(challenge -> challenge.getModule() != null)
@@ -161,6 +269,78 @@ public class ChallengeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Bounded variant of {@link #searchChallengesGroupedByModule(String)}: pages
+     * over the modules with matching challenges, ordered by module name, and
+     * returns for each one its number of matches and only its first
+     * {@code perModule} challenges. Once the {@link ChallengeSearchIndex} is
+     * built, matching, counting and the per-module ranking come from it, as in
+     * the unbounded variant; until then they happen in the database with a
+     * name match, challenges ordered by name. Either way only the challenges
+     * returned are loaded.
+     *
+     * @param name      the search term to match in challenge names (required)
+     * @param perModule the maximum number of challenges per module, clamped to
+     *                  {@code [1, MAX_CHALLENGES_PER_MODULE]}
+     * @param pageable  pagination over modules
+     * @return a page of {@link ModuleWithChallengesDTO} whose
+     *         {@code totalChallenges} is the full number of matches in the module
+     * @throws IllegalArgumentException if name is null or empty
+     */
+    public Page<ModuleWithChallengesDTO> searchChallengesGroupedByModule(String name, int perModule,
+            Pageable pageable) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search term cannot be null or empty");
+        }
+        String term = name.trim();
+        int limit = Math.max(1, Math.min(perModule, MAX_CHALLENGES_PER_MODULE));
+        if (searchIndex.isReady()) {
+            return searchIndexGroupedByModule(term, limit, pageable);
+        }
+
+        Page<ModuleMatchCount> modules = challengeRepository.countMatchesByModule(term, pageable);
+        List<String> moduleNames = modules.getContent().stream().map(ModuleMatchCount::moduleName).toList();
+        List<Challenge> top = moduleNames.isEmpty()
+                ? List.of()
+                : loadInOrder(challengeRepository.findTopNamesPerModule(term, moduleNames, limit));
+        Map<String, List<ChallengeResponse>> topByModule = responseAssembler.toResponses(top).stream()
+                .collect(Collectors.groupingBy(ChallengeResponse::moduleName));
+
+        return modules.map(module -> ModuleWithChallengesDTO.builder()
+                .moduleName(module.moduleName())
+                .moduleDescription(module.moduleDescription())
+                .moduleImageUrl(module.moduleImageUrl())
+                .challenges(topByModule.getOrDefault(module.moduleName(), List.of()))
+                .totalChallenges((int) module.matches())
+                .build());
+    }
+
+    private Page<ModuleWithChallengesDTO> searchIndexGroupedByModule(String term, int perModule,
+            Pageable pageable) {
+        Page<ChallengeSearchIndex.ModuleMatches> modules = searchIndex.searchByModule(term, perModule, pageable);
+        List<Challenge> top = loadInOrder(modules.getContent().stream()
+                .flatMap(module -> module.names().stream())
+                .toList());
+        // Cada módulo de la página tiene al menos un reto cargado, del que se toman sus datos
+        Map<String, Module> modulesByName = top.stream()
+                .filter(challenge -> challenge.getModule() != null)
+                .collect(Collectors.toMap(challenge -> challenge.getModule().getName(), Challenge::getModule,
+                        (first, second) -> first));
+        Map<String, List<ChallengeResponse>> topByModule = responseAssembler.toResponses(top).stream()
+                .collect(Collectors.groupingBy(ChallengeResponse::moduleName));
+
+        return modules.map(matches -> {
+            Module module = modulesByName.get(matches.moduleName());
+            return ModuleWithChallengesDTO.builder()
+                    .moduleName(matches.moduleName())
+                    .moduleDescription(module != null ? module.getDescription() : null)
+                    .moduleImageUrl(module != null ? module.getImageUrl() : null)
+                    .challenges(topByModule.getOrDefault(matches.moduleName(), List.of()))
+                    .totalChallenges((int) matches.matches())
+                    .build();
+        });
+    }
+
     /**
      * Retrieves a challenge by its unique name.
      *
@@ -169,8 +349,10 @@ public class ChallengeService {
      *         or {@code null} if no such challenge exists
      */
     public ChallengeResponse getChallengeByName(String name) {
-        Challenge challenge = challengeRepository.findByName(name);
-        return challenge != null ? challengeToResponse(challenge) : null;
+        return challengeCache.response(name, key -> {
+            Challenge challenge = challengeRepository.findByName(key);
+            return challenge != null ? challengeToResponse(challenge) : null;
+        });
     }
 
     /**
@@ -181,12 +363,12 @@ public class ChallengeService {
      * @return a list of distinct {@link AwardDto} associated with that challenge.
      */
     public List<AwardDto> getAwardsByChallenge(String challengeName) {
-        return redeemableRepository.findByChallenge_Name(challengeName).stream()
+        return challengeCache.awards(challengeName, key -> redeemableRepository.findByChallenge_Name(key).stream()
                 .map(Redeemable::getAward)
                 .filter(Objects::nonNull)
                 .distinct()
                 .map(ChallengeService::toAwardDto)
-                .toList();
+                .toList());
     }
 
     /**
@@ -197,9 +379,49 @@ public class ChallengeService {
      *         or {@code null} if no such challenge exists
      */
     public List<ChallengeResponse> getChallengeByDuration(LocalDateTime duration) {
-        return challengeRepository.findByDuration(duration).stream()
-                .map(ChallengeService::challengeToResponse)
-                .toList();
+        return responseAssembler.toResponses(challengeRepository.findByDuration(duration));
+    }
+
+    /**
+     * Pages the open challenges whose deadline falls within the next
+     * {@code days} days, closest deadline first.
+     *
+     * @param days the size of the window, in days
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @return a page of {@link ChallengeSummary}
+     * @throws IllegalArgumentException if {@code days} is negative
+     */
+    public Page<ChallengeSummary> getChallengesExpiringWithin(int days, int page, int size) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days cannot be negative");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return challengeRepository.findOpenSummariesByDeadlineBetween(now, now.plusDays(days),
+                PageRequest.of(page, size));
+    }
+
+    /**
+     * Pages the challenges still accepting participants, closest deadline first.
+     *
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @return a page of {@link ChallengeSummary}
+     */
+    public Page<ChallengeSummary> getActiveChallenges(int page, int size) {
+        return challengeRepository.findActiveSummaries(LocalDateTime.now(), PageRequest.of(page, size));
+    }
+
+    /**
+     * Next deadlines of the open challenges in which a user is registered.
+     *
+     * @param userEmail the email of the user
+     * @param limit     the maximum number of deadlines, clamped like cursor pages
+     * @return the deadlines, closest first
+     */
+    public List<ChallengeDeadline> getUpcomingDeadlinesByUserEmail(String userEmail, Integer limit) {
+        return challengeRepository.findUpcomingDeadlinesByUserEmail(userEmail, LocalDateTime.now(),
+                Limit.of(CursorPage.normalizeLimit(limit)));
     }
 
     /**
@@ -209,6 +431,7 @@ public class ChallengeService {
      * @param challengeDto the {@link ChallengeDTO} containing updated values
      * @return the updated {@link ChallengeResponse}
      */
+    @Transactional
     public ChallengeResponse updateChallenge(ChallengeDTO challengeDto) {
         Challenge oldChallenge = challengeRepository.findByName(challengeDto.getName());
         if (oldChallenge == null) {
@@ -230,9 +453,22 @@ public class ChallengeService {
         if (challengeDto.getGoals() != null) {
             oldChallenge.setGoals(challengeDto.getGoals());
         }
+        boolean moduleChanged = false;
         if (challengeDto.getModuleName() != null && !challengeDto.getModuleName().isBlank()) {
             Module module = moduleRepository.findById(challengeDto.getModuleName())
                     .orElseThrow(() -> new RuntimeException("Módulo no encontrado"));
+            moduleChanged = oldChallenge.getModule() == null
+                    || !module.getName().equals(oldChallenge.getModule().getName());
+            if (moduleChanged) {
+                // Los contadores del reto pasan al nuevo módulo
+                if (oldChallenge.getModule() != null) {
+                    moduleRepository.addParticipationCounts(oldChallenge.getModule().getName(),
+                            -oldChallenge.getRegisteredCount(), -oldChallenge.getConfirmedCount(),
+                            -oldChallenge.getInProgressCount());
+                }
+                moduleRepository.addParticipationCounts(module.getName(), oldChallenge.getRegisteredCount(),
+                        oldChallenge.getConfirmedCount(), oldChallenge.getInProgressCount());
+            }
             oldChallenge.setModule(module);
         }
         if (challengeDto.getRequiredVerifications() != null && challengeDto.getRequiredVerifications() > 0) {
@@ -240,46 +476,148 @@ public class ChallengeService {
         }
 
         Challenge savedChallenge = challengeRepository.save(oldChallenge);
+        challengeCache.invalidate(savedChallenge.getName());
+        searchIndex.indexed(savedChallenge);
+        if (moduleChanged) {
+            // Las completadas del reto pasan a contar en el otro módulo
+            leaderboard.moved(savedChallenge.getName(), savedChallenge.getModule().getName());
+            moduleStatsCache.invalidate();
+        }
         return challengeToResponse(savedChallenge);
     }
 
     /**
-     * Deletes a challenge by its unique name, along with its associated redeemable.
+     * Deletes a challenge by its unique name, along with its redeemables,
+     * participants, verifications, tips, goals and ratings.
      *
      * @param name the name of the challenge to delete
      */
-    @Transactional
     public void deleteChallenge(String name) {
+        deleteChallenge(name, false);
+    }
+
+    /**
+     * Deletes a challenge, right away or as a soft delete. A soft delete only
+     * marks the challenge, which hides it from every read at once, and leaves
+     * its rows and its completions in the leaderboard to {@link ChallengePurger},
+     * so the request does not depend on the size of the challenge.
+     *
+     * @param name the name of the challenge to delete
+     * @param soft whether to mark it and purge it in the background
+     */
+    @Transactional
+    public void deleteChallenge(String name, boolean soft) {
         Challenge challenge = challengeRepository.findById(name)
                 .orElseThrow(() -> new RuntimeException("Challenge not found"));
 
-        // Borrar todos los redeemables asociados a este challenge
-        redeemableRepository.deleteAllByChallenge(challenge);
+        // Los contadores del módulo dejan de incluir los del reto
+        if (challenge.getModule() != null) {
+            moduleRepository.addParticipationCounts(challenge.getModule().getName(), -challenge.getRegisteredCount(),
+                    -challenge.getConfirmedCount(), -challenge.getInProgressCount());
+        }
+
+        if (soft) {
+            challengeRepository.markDeleted(name, LocalDateTime.now());
+        } else {
+            deleteChallengeRows(List.of(name));
+            leaderboard.deleted(List.of(name));
+        }
+        challengesDeleted(List.of(name));
+    }
+
+    /**
+     * Deletes every challenge of a module with their dependent rows, before the
+     * module itself is deleted. The module counters are left as they are.
+     *
+     * @param moduleName the name of the module
+     * @return the number of deleted challenges
+     */
+    public int deleteChallengesOfModule(String moduleName) {
+        return deleteChallengesOfModule(moduleName, false);
+    }
+
+    /**
+     * Deletes every challenge of a module, right away or as a soft delete that
+     * {@link ChallengePurger} completes in the background.
+     *
+     * @param moduleName the name of the module
+     * @param soft       whether to mark them and purge them in the background
+     * @return the number of deleted challenges
+     */
+    @Transactional
+    public int deleteChallengesOfModule(String moduleName, boolean soft) {
+        List<String> names = challengeRepository.findNamesByModuleName(moduleName);
+        if (soft) {
+            challengeRepository.markDeletedByModuleName(moduleName, LocalDateTime.now());
+        } else {
+            for (List<String> chunk : chunks(names, BATCH_SIZE)) {
+                deleteChallengeRows(chunk);
+            }
+            leaderboard.deleted(names);
+        }
+        if (!names.isEmpty()) {
+            challengesDeleted(names);
+        }
+        return names.size();
+    }
+
+    /**
+     * Deletes challenges and everything that references them with one
+     * set-based statement per table, so the cost does not depend on how many
+     * participants they have. The challenges are never loaded, and the
+     * archived participation goes away through its {@code ON DELETE CASCADE}
+     * foreign keys.
+     *
+     * @param names the names of the challenges
+     */
+    private void deleteChallengeRows(List<String> names) {
+        redeemableRepository.deleteByChallengeNames(names);
+        challengeRepository.deleteRegisteredOfChallenges(names);
+        challengeRepository.deleteConfirmedOfChallenges(names);
+        challengeRepository.deleteVerificationsOfChallenges(names);
+        challengeRepository.deleteTipsOfChallenges(names);
+        challengeRepository.deleteGoalsOfChallenges(names);
+        challengeRepository.deleteRatingsOfChallenges(names);
+        challengeRepository.deleteChallengesByNameIn(names);
+    }
 
-        // Ahora sí eliminar el challenge
-        challengeRepository.delete(challenge);
+    private void challengesDeleted(List<String> names) {
+        names.forEach(membershipIndex::evict);
+        names.forEach(searchIndex::removed);
+        challengeCache.invalidateAll(names);
+        moduleStatsCache.invalidate();
     }
 
     /**
      * Registers a user to a specific challenge by adding them
      * to the list of registered participants.
      *
+     * The user is enrolled by inserting a single join row only if they are
+     * neither registered nor confirmed yet, so the registered collection of the
+     * challenge is never loaded nor rewritten and a user who already completed
+     * the challenge is left as is.
+     *
      * @param userEmail the {@link UserEcicare} to be added
      * @param name      the name of the challenge
      * @return the updated {@link ChallengeResponse}
      */
+    @Transactional
     public ChallengeResponse addUserByEmail(String userEmail, String name) {
         Challenge challenge = challengeRepository.findByName(name);
         if (challenge == null) {
             throw new RuntimeException("Challenge not found: " + name);
         }
-        List<UserEcicare> registered = challenge.getRegistered();
+        requireOpen(challenge);
         UserEcicare user = userEcicareRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userEmail));
-        if (!registered.contains(user)) {
-            registered.add(user);
-            challenge.setRegistered(registered);
-            challengeRepository.save(challenge);
+        // Si ya está inscrito o ya completó el reto no se inserta nada y se devuelve el estado actual
+        if (challengeRepository.registerUserInChallenge(name, user.getIdEci()) > 0) {
+            membershipIndex.registered(name, List.of(user.getIdEci()));
+            countParticipation(name, 1, 0, 0);
+            if (eventHub.isWatched(name)) {
+                eventHub.publish(name, List.of(new ChallengeEvent(ChallengeEvent.Type.ENROLLED, name,
+                        user.getEmail(), null, 1, LocalDateTime.now())));
+            }
         }
         return challengeToResponse(challenge);
     }
@@ -289,6 +627,10 @@ public class ChallengeService {
      * registered list.
      * to the list of confirms participants.
      *
+     * The verification counter is incremented atomically in the database and the
+     * user is promoted from registered to confirmed in the same transaction, so
+     * concurrent scans for the same challenge never lose updates.
+     *
      * @param userEmail the {@link UserEcicare} to be added
      * @param challengeName      the name of the challenge
      * @return the updated {@link ChallengeResponse}
@@ -300,32 +642,409 @@ public class ChallengeService {
         if (challenge == null) {
             throw new RuntimeException("Challenge not found: " + challengeName);
         }
+        requireOpen(challenge);
 
         UserEcicare user = userEcicareRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + userEmail));
 
-        if (!challenge.getRegistered().contains(user)) {
+        // Las verificaciones se guardan con el email almacenado, no con el recibido
+        String email = user.getEmail();
+        // Incremento atómico: no afecta filas si el usuario no está inscrito
+        if (challengeRepository.incrementVerification(challengeName, user.getIdEci(), email) == 0) {
             throw new RuntimeException("User is not registered in the challenge");
         }
+        Integer currentVerifications = challengeRepository.findVerificationCount(challengeName, email);
+        // El primer escaneo crea el contador: el usuario pasa a estar en progreso
+        int started = currentVerifications != null && currentVerifications == 1 ? 1 : 0;
+
+        // Si alcanzó el número requerido de verificaciones, mover a confirmed
+        if (currentVerifications != null && currentVerifications >= challenge.getRequiredVerifications()) {
+            promoteUser(challengeName, user.getIdEci(), email, started);
+        } else {
+            countParticipation(challengeName, 0, 0, started);
+        }
+        if (eventHub.isWatched(challengeName) && currentVerifications != null) {
+            eventHub.publish(challengeName, List.of(verificationEvent(challengeName, email,
+                    currentVerifications, challenge.getRequiredVerifications())));
+        }
 
-        // Obtener el conteo actual de verificaciones para este usuario
-        int currentVerifications = challenge.getVerifications().getOrDefault(userEmail, 0);
-        currentVerifications++;
+        return challengeToResponse(challenge);
+    }
 
-        // Actualizar el conteo de verificaciones
-        challenge.getVerifications().put(userEmail, currentVerifications);
+    /**
+     * Moves a user from the registered to the confirmed participants of a
+     * challenge and clears their verification counter.
+     *
+     * @param challengeName the name of the challenge
+     * @param userId        the id of the user
+     * @param userEmail     the email of the user
+     * @param started       1 if the verification counter of the user was created
+     *                      in this transaction, 0 otherwise
+     */
+    private void promoteUser(String challengeName, Long userId, String userEmail, int started) {
+        int promoted = 0;
+        int unregistered = challengeRepository.unregisterUserFromChallenge(challengeName, userId);
+        if (unregistered > 0) {
+            // No inserta nada si el usuario ya había completado el reto
+            promoted = challengeRepository.confirmUserInChallenge(challengeName, userId);
+            membershipIndex.promoted(challengeName, List.of(userId));
+            if (promoted > 0) {
+                leaderboard.completed(challengeName, List.of(userId));
+            }
+        }
+        // Limpiar las verificaciones del usuario confirmado
+        int cleared = challengeRepository.deleteVerification(challengeName, userEmail);
+        countParticipation(challengeName, -unregistered, promoted, started - cleared);
+    }
 
-        // Si alcanzó el número requerido de verificaciones, mover a confirmed
-        if (currentVerifications >= challenge.getRequiredVerifications()) {
-            challenge.getRegistered().remove(user);
-            challenge.getConfirmed().add(user);
-            // Limpiar las verificaciones del usuario confirmado
-            challenge.getVerifications().remove(userEmail);
+    /**
+     * Adds deltas to the participation counters of a challenge and of its
+     * module in the current transaction, and drops the cached response and
+     * module statistics that show them.
+     *
+     * @param challengeName the name of the challenge
+     * @param registered    delta of registered users
+     * @param confirmed     delta of confirmed users
+     * @param inProgress    delta of users with verifications in progress
+     */
+    private void countParticipation(String challengeName, int registered, int confirmed, int inProgress) {
+        if (registered == 0 && confirmed == 0 && inProgress == 0) {
+            return;
         }
+        challengeRepository.addParticipationCounts(challengeName, registered, confirmed, inProgress);
+        moduleRepository.addParticipationCountsOfChallenge(challengeName, registered, confirmed, inProgress);
+        challengeCache.invalidate(challengeName);
+        moduleStatsCache.invalidate();
+    }
 
-        challengeRepository.save(challenge);
+    /**
+     * Whether enrollment and verification are frozen for a challenge: it was
+     * closed by the {@link ChallengeDeadlineScheduler} or its deadline has passed.
+     *
+     * @param challenge the challenge
+     * @param now       the current time
+     * @return {@code true} if the challenge no longer accepts participants
+     */
+    public static boolean isClosed(Challenge challenge, LocalDateTime now) {
+        return challenge.isClosed() || (challenge.getDuration() != null && !challenge.getDuration().isAfter(now));
+    }
 
-        return challengeToResponse(challenge);
+    private static void requireOpen(Challenge challenge) {
+        if (isClosed(challenge, LocalDateTime.now())) {
+            throw new ChallengeClosedException(challenge.getName());
+        }
+    }
+
+    /**
+     * Confirms many participants of a challenge in a single request.
+     *
+     * Users are resolved in one query per chunk and every verification increment
+     * and promotion is applied with set-based statements inside one transaction,
+     * instead of one round trip per email.
+     *
+     * @param challengeName the name of the challenge
+     * @param userEmails    the emails of the users to verify
+     * @return one {@link UserVerificationResult} per received email, in order
+     */
+    @Transactional
+    public List<UserVerificationResult> confirmUsersByEmail(String challengeName, List<String> userEmails) {
+        Challenge challenge = challengeRepository.findByName(challengeName);
+        if (challenge == null) {
+            throw new RuntimeException("Challenge not found: " + challengeName);
+        }
+        requireOpen(challenge);
+        int requiredVerifications = challenge.getRequiredVerifications();
+
+        // Las claves se normalizan porque la búsqueda por email no distingue mayúsculas
+        Map<String, UserVerificationResult> resultsByEmail = new HashMap<>();
+        List<String> uniqueEmails = userEmails.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+
+        for (List<String> chunk : chunks(uniqueEmails, BATCH_SIZE)) {
+            Map<String, UserEmailIdDTO> users = userEcicareRepository.findEmailIdsByEmailIn(chunk).stream()
+                    .collect(Collectors.toMap(u -> u.getEmail().toLowerCase(Locale.ROOT), u -> u, (a, b) -> a));
+            Set<Long> registered = users.isEmpty() ? Set.of()
+                    : new HashSet<>(challengeRepository.findRegisteredUserIds(challengeName,
+                            users.values().stream().map(UserEmailIdDTO::getIdEci).toList()));
+
+            List<UserEmailIdDTO> toVerify = new ArrayList<>();
+            for (String email : chunk) {
+                UserEmailIdDTO user = users.get(email);
+                if (user == null) {
+                    resultsByEmail.put(email, new UserVerificationResult(email,
+                            UserVerificationResult.Status.USER_NOT_FOUND, null, requiredVerifications));
+                } else if (!registered.contains(user.getIdEci())) {
+                    resultsByEmail.put(email, new UserVerificationResult(email,
+                            UserVerificationResult.Status.NOT_REGISTERED, null, requiredVerifications));
+                } else {
+                    toVerify.add(user);
+                }
+            }
+            if (toVerify.isEmpty()) {
+                continue;
+            }
+
+            challengeRepository.incrementVerifications(challengeName,
+                    toVerify.stream().map(UserEmailIdDTO::getIdEci).toList());
+            Map<String, Integer> counts = challengeRepository.findVerificationCounts(challengeName,
+                    toVerify.stream().map(UserEmailIdDTO::getEmail).toList()).stream()
+                    .collect(Collectors.toMap(VerificationCountDTO::getEmail,
+                            VerificationCountDTO::getVerificationCount, (a, b) -> a));
+
+            List<UserEmailIdDTO> toPromote = new ArrayList<>();
+            int started = 0;
+            for (UserEmailIdDTO user : toVerify) {
+                int current = counts.getOrDefault(user.getEmail(), 0);
+                if (current == 1) {
+                    started++;
+                }
+                boolean promoted = current >= requiredVerifications;
+                if (promoted) {
+                    toPromote.add(user);
+                }
+                resultsByEmail.put(user.getEmail().toLowerCase(Locale.ROOT), new UserVerificationResult(
+                        user.getEmail(),
+                        promoted ? UserVerificationResult.Status.CONFIRMED : UserVerificationResult.Status.VERIFIED,
+                        current,
+                        requiredVerifications));
+            }
+            promoteUsers(challengeName, toPromote, started);
+            publishVerifications(challengeName, toVerify, counts, requiredVerifications);
+        }
+
+        // Un resultado por email recibido; las repeticiones se reportan como duplicados
+        Set<String> seen = new HashSet<>();
+        List<UserVerificationResult> results = new ArrayList<>(userEmails.size());
+        for (String email : userEmails) {
+            if (email == null) {
+                continue;
+            }
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            if (!seen.add(key)) {
+                results.add(new UserVerificationResult(email, UserVerificationResult.Status.DUPLICATE, null,
+                        requiredVerifications));
+                continue;
+            }
+            UserVerificationResult result = resultsByEmail.get(key);
+            results.add(new UserVerificationResult(email, result.status(), result.currentVerifications(),
+                    result.requiredVerifications()));
+        }
+        return results;
+    }
+
+    /**
+     * Moves several users from the registered to the confirmed participants of a
+     * challenge and clears their verification counters, with one statement each.
+     *
+     * @param challengeName the name of the challenge
+     * @param users         the users to promote
+     * @param started       how many verification counters of the batch were
+     *                      created in this transaction
+     */
+    private void promoteUsers(String challengeName, List<UserEmailIdDTO> users, int started) {
+        if (users.isEmpty()) {
+            countParticipation(challengeName, 0, 0, started);
+            return;
+        }
+        List<Long> ids = users.stream().map(UserEmailIdDTO::getIdEci).toList();
+        int unregistered = challengeRepository.unregisterUsersFromChallenge(challengeName, ids);
+        int confirmed = challengeRepository.confirmUsersInChallenge(challengeName, ids);
+        membershipIndex.promoted(challengeName, ids);
+        leaderboard.completed(challengeName, ids);
+        int cleared = challengeRepository.deleteVerifications(challengeName,
+                users.stream().map(UserEmailIdDTO::getEmail).toList());
+        countParticipation(challengeName, -unregistered, confirmed, started - cleared);
+    }
+
+    /**
+     * Applies verification increments that were coalesced in memory by the
+     * {@link VerificationBuffer}.
+     *
+     * Users with the same pending delta are incremented together, so a flush
+     * issues a handful of statements per challenge regardless of how many scans
+     * were buffered. Users reaching the required verifications are promoted.
+     *
+     * @param challengeName the name of the challenge
+     * @param deltas        pending verifications per user
+     */
+    @Transactional
+    public void applyVerifications(String challengeName, Map<UserEmailIdDTO, Integer> deltas) {
+        Integer requiredVerifications = challengeRepository.findRequiredVerifications(challengeName);
+        if (requiredVerifications == null || deltas.isEmpty()) {
+            // El reto se eliminó mientras las verificaciones estaban en memoria
+            return;
+        }
+
+        Map<Integer, List<UserEmailIdDTO>> byDelta = deltas.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        for (Map.Entry<Integer, List<UserEmailIdDTO>> group : byDelta.entrySet()) {
+            for (List<UserEmailIdDTO> chunk : chunks(group.getValue(), BATCH_SIZE)) {
+                challengeRepository.addVerifications(challengeName,
+                        chunk.stream().map(UserEmailIdDTO::getIdEci).toList(), group.getKey());
+            }
+        }
+
+        for (List<UserEmailIdDTO> chunk : chunks(new ArrayList<>(deltas.keySet()), BATCH_SIZE)) {
+            Map<String, Integer> counts = challengeRepository.findVerificationCounts(challengeName,
+                    chunk.stream().map(UserEmailIdDTO::getEmail).toList()).stream()
+                    .collect(Collectors.toMap(VerificationCountDTO::getEmail,
+                            VerificationCountDTO::getVerificationCount, (a, b) -> a));
+            // Un contador igual al incremento aplicado se acaba de crear
+            int started = (int) chunk.stream()
+                    .filter(user -> counts.getOrDefault(user.getEmail(), 0).equals(deltas.get(user)))
+                    .count();
+            promoteUsers(challengeName, chunk.stream()
+                    .filter(user -> counts.getOrDefault(user.getEmail(), 0) >= requiredVerifications)
+                    .toList(), started);
+            publishVerifications(challengeName, chunk, counts, requiredVerifications);
+        }
+    }
+
+    /**
+     * Publishes one verification event per user, if anyone watches the
+     * challenge.
+     *
+     * @param challengeName         the name of the challenge
+     * @param users                 the verified users
+     * @param counts                verification counts by email after the scans
+     * @param requiredVerifications verifications required by the challenge
+     */
+    private void publishVerifications(String challengeName, List<UserEmailIdDTO> users, Map<String, Integer> counts,
+            int requiredVerifications) {
+        if (!eventHub.isWatched(challengeName)) {
+            return;
+        }
+        eventHub.publish(challengeName, users.stream()
+                .map(user -> verificationEvent(challengeName, user.getEmail(),
+                        counts.getOrDefault(user.getEmail(), 0), requiredVerifications))
+                .toList());
+    }
+
+    private static ChallengeEvent verificationEvent(String challengeName, String userEmail, int current,
+            int requiredVerifications) {
+        ChallengeEvent.Type type = current >= requiredVerifications ? ChallengeEvent.Type.CONFIRMED
+                : ChallengeEvent.Type.VERIFIED;
+        return new ChallengeEvent(type, challengeName, userEmail, current, 1, LocalDateTime.now());
+    }
+
+    /**
+     * Registers many users to a challenge at once.
+     *
+     * Emails are consumed lazily and resolved in chunks of {@value #BATCH_SIZE},
+     * and every chunk is enrolled with a single insert that skips users already
+     * registered or confirmed, so memory stays bounded by the chunk size and not
+     * by the input.
+     * Unknown and repeated emails are reported without aborting the batch: the
+     * report counts all of them but lists at most {@value #MAX_REPORTED_EMAILS}
+     * of each. Repeats are only detected within a chunk; a repeat in a later
+     * chunk is skipped by the insert and counted as already registered, or as
+     * unknown again if it belongs to no user.
+     *
+     * @param challengeName the name of the challenge
+     * @param userEmails    the emails to enroll, possibly streamed from a file
+     * @return an {@link EnrollmentReport} summarizing the operation
+     */
+    @Transactional
+    public EnrollmentReport enrollUsersByEmail(String challengeName, Stream<String> userEmails) {
+        Challenge challenge = challengeRepository.findByName(challengeName);
+        if (challenge == null) {
+            throw new RuntimeException("Challenge not found: " + challengeName);
+        }
+        requireOpen(challenge);
+
+        Set<String> chunk = new LinkedHashSet<>();
+        ReportedEmails duplicates = new ReportedEmails();
+        ReportedEmails unknownEmails = new ReportedEmails();
+        int enrolled = 0;
+        int processed = 0;
+
+        Iterator<String> iterator = userEmails.iterator();
+        while (iterator.hasNext()) {
+            String email = iterator.next();
+            if (email == null || email.isBlank()) {
+                continue;
+            }
+            // Solo se detectan repetidos dentro del bloque; entre bloques los descarta la inserción
+            if (!chunk.add(email.trim().toLowerCase(Locale.ROOT))) {
+                duplicates.add(email.trim());
+                continue;
+            }
+            processed++;
+            if (chunk.size() == BATCH_SIZE) {
+                enrolled += enrollChunk(challengeName, chunk, unknownEmails);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            enrolled += enrollChunk(challengeName, chunk, unknownEmails);
+        }
+        // Lo que no se inscribió ni es desconocido ya estaba inscrito o ya completó el reto
+        int alreadyRegistered = processed - enrolled - unknownEmails.count;
+        return new EnrollmentReport(enrolled, alreadyRegistered, duplicates.count, duplicates.emails,
+                unknownEmails.count, unknownEmails.emails);
+    }
+
+    /**
+     * Resolves a chunk of normalized emails and inserts the missing registrations.
+     *
+     * @return the number of users newly registered
+     */
+    private int enrollChunk(String challengeName, Set<String> chunk, ReportedEmails unknownEmails) {
+        Map<String, Long> ids = userEcicareRepository.findEmailIdsByEmailIn(chunk).stream()
+                .collect(Collectors.toMap(u -> u.getEmail().toLowerCase(Locale.ROOT), UserEmailIdDTO::getIdEci,
+                        (a, b) -> a));
+        for (String email : chunk) {
+            if (!ids.containsKey(email)) {
+                unknownEmails.add(email);
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int inserted = challengeRepository.registerUsersInChallenge(challengeName, ids.values());
+        membershipIndex.registered(challengeName, ids.values());
+        countParticipation(challengeName, inserted, 0, 0);
+        if (inserted > 0 && eventHub.isWatched(challengeName)) {
+            eventHub.publish(challengeName, List.of(new ChallengeEvent(ChallengeEvent.Type.BULK_ENROLLED,
+                    challengeName, null, null, inserted, LocalDateTime.now())));
+        }
+        return inserted;
+    }
+
+    /**
+     * Emails listed in an enrollment report: every one is counted, only the
+     * first {@value #MAX_REPORTED_EMAILS} are kept.
+     */
+    private static final class ReportedEmails {
+        private final List<String> emails = new ArrayList<>();
+        private int count;
+
+        void add(String email) {
+            if (count++ < MAX_REPORTED_EMAILS) {
+                emails.add(email);
+            }
+        }
+    }
+
+    /**
+     * Splits a list into consecutive sublists of at most {@code size} elements,
+     * used to keep {@code IN} clauses bounded.
+     *
+     * @param list the list to split
+     * @param size the maximum size of each chunk
+     * @return the chunks, in order
+     */
+    private static <T> List<List<T>> chunks(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < list.size(); start += size) {
+            chunks.add(list.subList(start, Math.min(start + size, list.size())));
+        }
+        return chunks;
     }
 
     /**
@@ -338,18 +1057,17 @@ public class ChallengeService {
         UserEcicare user = userEcicareRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userEmail));
         List<Challenge> challenges = challengeRepository.findByRegistered(user);
-        return challenges.stream()
-                .map(ChallengeService::challengeToResponse)
-                .toList();
+        return responseAssembler.toResponses(challenges);
     }
 
     /**
      * Obtiene los desafíos en los que un usuario está registrado, con paginación.
+     * La página se obtiene en la base de datos y solo se cargan sus desafíos.
      * 
      * @param userEmail email del usuario
      * @param page      página (default 0)
      * @param size      tamaño de página (default 10)
-     * @return Page de ChallengeResponse (sin ordenar)
+     * @return Page de ChallengeResponse ordenada por nombre
      */
     public Page<ChallengeResponse> getChallengesByUserEmailPaged(
             String userEmail, int page, int size) {
@@ -365,23 +1083,10 @@ public class ChallengeService {
         int safePage = Math.max(0, page);
         int safeSize = size > 0 ? size : 10;
 
-        // Obtener desafíos desde el repositorio (sin ordenar)
-        List<ChallengeResponse> allChallenges = challengeRepository.findByRegistered(user)
-                .stream()
-                .map(ChallengeService::challengeToResponse)
-                .toList();
-
-        // Paginación manual
-        int start = safePage * safeSize;
-        int end = Math.min(start + safeSize, allChallenges.size());
-
-        List<ChallengeResponse> pagedList = start < allChallenges.size()
-                ? allChallenges.subList(start, end)
-                : Collections.emptyList();
-
-        Pageable pageable = PageRequest.of(safePage, safeSize);
-
-        return new PageImpl<>(pagedList, pageable, allChallenges.size());
+        // Orden estable por nombre (clave primaria) para que las páginas no se solapen
+        Pageable pageable = PageRequest.of(safePage, safeSize, Sort.by("name"));
+        return responseAssembler.toResponses(
+                challengeRepository.findRegisteredChallengesByUserId(user.getIdEci(), pageable));
     }
 
     /**
@@ -402,8 +1107,8 @@ public class ChallengeService {
 
         String query = name == null ? "" : name.trim().toLowerCase();
 
-        return challengeRepository.findRegisterChallengesByUserIdAndSearch(user.getIdEci(), query, pageable)
-                .map(ChallengeService::challengeToResponse);
+        return responseAssembler.toResponses(
+                challengeRepository.findRegisterChallengesByUserIdAndSearch(user.getIdEci(), query, pageable));
     }
 
     /**
@@ -424,8 +1129,8 @@ public class ChallengeService {
 
         String query = name == null ? "" : name.trim().toLowerCase();
 
-        return challengeRepository.findConfirmedChallengesByUserIdAndSearch(user.getIdEci(), query, pageable)
-                .map(ChallengeService::challengeToResponse);
+        return responseAssembler.toResponses(
+                challengeRepository.findConfirmedChallengesByUserIdAndSearch(user.getIdEci(), query, pageable));
     }
 
     /**
@@ -454,7 +1159,19 @@ public class ChallengeService {
                 challenge.getGoals(),
                 challenge.getModule().getName(),
                 challenge.getRequiredVerifications(),
-                redeemables);
+                redeemables,
+                participationOf(challenge));
+    }
+
+    /**
+     * Reads the participation counters of a challenge.
+     *
+     * @param challenge the challenge
+     * @return its registered, confirmed and in-progress counts
+     */
+    public static ParticipationCounts participationOf(Challenge challenge) {
+        return new ParticipationCounts(challenge.getRegisteredCount(), challenge.getConfirmedCount(),
+                challenge.getInProgressCount());
     }
 
     /**
@@ -472,6 +1189,30 @@ public class ChallengeService {
                 award.getImageUrl());
     }
 
+    /**
+     * Users with most completed challenges, served from the in-memory
+     * {@link ChallengeLeaderboard}.
+     *
+     * @param moduleName the module, {@code null} or blank for the overall ranking
+     * @param limit      the maximum number of users, clamped to
+     *                   {@code [1, CursorPage.MAX_LIMIT]}
+     * @return the best users, best first
+     */
+    public List<LeaderboardEntry> getLeaderboard(String moduleName, Integer limit) {
+        return leaderboard.top(moduleName, CursorPage.normalizeLimit(limit));
+    }
+
+    /**
+     * Position of a user in the overall or module leaderboard.
+     *
+     * @param moduleName the module, {@code null} or blank for the overall ranking
+     * @param userEmail  the email of the user
+     * @return the rank and completed challenges of the user
+     */
+    public LeaderboardEntry getLeaderboardRank(String moduleName, String userEmail) {
+        return leaderboard.rankOf(moduleName, userEmail);
+    }
+
     /**
      * Retrieves all challenges completes in which a specific user is registered.
      *
@@ -479,24 +1220,55 @@ public class ChallengeService {
      * @return a list of {@link Challenge} entities
      */
     public List<ChallengeResponse> getChallengesCompletedByUserEmail(String userEmail) {
+        return getChallengesCompletedByUserEmail(userEmail, false);
+    }
+
+    /**
+     * Retrieves the challenges completed by a user, optionally including the
+     * finished challenges whose participation was moved to the archive by
+     * {@link ParticipationArchiver}.
+     *
+     * @param userEmail      the user whose challenges should be retrieved
+     * @param includeHistory whether archived challenges are included
+     * @return the completed challenges
+     */
+    public List<ChallengeResponse> getChallengesCompletedByUserEmail(String userEmail, boolean includeHistory) {
         UserEcicare user = userEcicareRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userEmail));
-        return user.getChallengesConfirmed()
-                .stream()
-                .map(ChallengeService::challengeToResponse)
-                .toList();
+        List<Challenge> completed = user.getChallengesConfirmed();
+        if (includeHistory) {
+            completed = new ArrayList<>(completed);
+            completed.addAll(challengeRepository.findArchivedConfirmedChallengesByUserId(user.getIdEci()));
+        }
+        return responseAssembler.toResponses(completed);
     }
 
     /**
      * Obtiene los desafíos completados por un usuario, con paginación.
+     * La página se obtiene en la base de datos y solo se cargan sus desafíos.
      * 
      * @param userEmail email del usuario
      * @param page      página (default 0)
      * @param size      tamaño de página (default 10)
-     * @return Page de ChallengeResponse (sin ordenar)
+     * @return Page de ChallengeResponse ordenada por nombre
      */
     public Page<ChallengeResponse> getChallengesCompletedByUserEmailPaged(
             String userEmail, int page, int size) {
+        return getChallengesCompletedByUserEmailPaged(userEmail, page, size, false);
+    }
+
+    /**
+     * Obtiene los desafíos completados por un usuario, con paginación,
+     * incluyendo opcionalmente los retos archivados.
+     *
+     * @param userEmail      email del usuario
+     * @param page           página (default 0)
+     * @param size           tamaño de página (default 10)
+     * @param includeHistory si se incluyen los retos cuya participación fue archivada
+     * @return Page de ChallengeResponse ordenada por nombre
+     */
+    public Page<ChallengeResponse> getChallengesCompletedByUserEmailPaged(
+            String userEmail, int page, int size, boolean includeHistory) {
 
         if (userEmail == null || userEmail.isBlank()) {
             throw new IllegalArgumentException("userEmail no puede ser nulo o vacío");
@@ -509,23 +1281,11 @@ public class ChallengeService {
         int safePage = Math.max(0, page);
         int safeSize = size > 0 ? size : 10;
 
-        // SIN ORDENAR → directo del Set/List original
-        List<ChallengeResponse> allChallenges = user.getChallengesConfirmed()
-                .stream()
-                .map(ChallengeService::challengeToResponse)
-                .toList();
-
-        // Paginación manual
-        int start = safePage * safeSize;
-        int end = Math.min(start + safeSize, allChallenges.size());
-
-        List<ChallengeResponse> pagedList = start < allChallenges.size()
-                ? allChallenges.subList(start, end)
-                : Collections.emptyList();
-
-        Pageable pageable = PageRequest.of(safePage, safeSize);
-
-        return new PageImpl<>(pagedList, pageable, allChallenges.size());
+        // Orden estable por nombre (clave primaria) para que las páginas no se solapen
+        Pageable pageable = PageRequest.of(safePage, safeSize, Sort.by("name"));
+        return responseAssembler.toResponses(includeHistory
+                ? challengeRepository.findConfirmedChallengesWithHistoryByUserId(user.getIdEci(), pageable)
+                : challengeRepository.findConfirmedChallengesByUserId(user.getIdEci(), pageable));
     }
 
     /**
@@ -562,6 +1322,8 @@ public class ChallengeService {
 
     /**
      * Retrieves paginated registered user emails for a specific challenge.
+     * The page, including each user's verification count, is built in the
+     * database by {@link ChallengeRepository#searchRegisteredUsers}.
      *
      * @param challengeName the name of the challenge
      * @param page          the page number (0-based)
@@ -569,37 +1331,27 @@ public class ChallengeService {
      * @return a page of registered user name and email DTOs
      */
     public Page<UserEmailNameDTO> getRegisteredUsersByChallenge(String challengeName, int page, int size) {
-
-        Challenge challenge = challengeRepository.findByName(challengeName);
-        if (challenge == null) {
+        if (!challengeRepository.existsById(challengeName)) {
             throw new RuntimeException("Challenge not found: " + challengeName);
         }
+        // Misma consulta que la búsqueda, sin filtro y con orden estable por email
+        return challengeRepository.searchRegisteredUsers(challengeName, "",
+                PageRequest.of(page, size, Sort.by("email")));
+    }
 
-        int requiredVerifications = challenge.getRequiredVerifications();
-        Map<String, Integer> verifications = challenge.getVerifications();
-
-        List<UserEmailNameDTO> emailsNameUser = challenge.getRegistered().stream()
-                .map(user -> {
-                    int currentVerifications = verifications.getOrDefault(user.getEmail(), 0);
-                    return new UserEmailNameDTO(
-                            user.getEmail(),
-                            user.getName(),
-                            currentVerifications,
-                            requiredVerifications);
-                })
-                .toList();
-
-        Pageable pageable = PageRequest.of(page, size);
-
-        int start = (int) pageable.getOffset();
-        if (start >= emailsNameUser.size()) {
-            return Page.empty(pageable);
+    /**
+     * Opens a stream of the enrollments, verifications and confirmations of a
+     * challenge, so administrators can follow a check-in without polling the
+     * participant pages.
+     *
+     * @param challengeName the name of the challenge
+     * @return the server-sent events emitter
+     */
+    public SseEmitter subscribeToEvents(String challengeName) {
+        if (!challengeRepository.existsById(challengeName)) {
+            throw new RuntimeException("Challenge not found: " + challengeName);
         }
-
-        int end = Math.min(start + pageable.getPageSize(), emailsNameUser.size());
-        List<UserEmailNameDTO> paginatedEmails = emailsNameUser.subList(start, end);
-
-        return new PageImpl<>(paginatedEmails, pageable, emailsNameUser.size());
+        return eventHub.subscribe(challengeName);
     }
 
     /**
@@ -635,7 +1387,9 @@ public class ChallengeService {
      */
     /**
      * Searches challenges by name with optional module filtering and pagination
-     * support.
+     * support. Once the {@link ChallengeSearchIndex} is built, non blank terms are
+     * answered from it, ranked by relevance instead of the requested sort;
+     * before that, and for blank terms, the database is queried.
      *
      * @param name       the search term to match in challenge names
      * @param moduleName optional module name to restrict the search to a specific
@@ -645,17 +1399,30 @@ public class ChallengeService {
      *         criteria
      */
     public Page<ChallengeResponse> searchChallengesByName(String name, String moduleName, Pageable pageable) {
+        String module = moduleName != null && !moduleName.isBlank() ? moduleName : null;
+        if (searchIndex.isReady() && name != null && !name.isBlank()) {
+            Page<String> names = searchIndex.search(name, module, pageable);
+            List<Challenge> challenges = loadInOrder(names.getContent());
+            responseAssembler.preload(challenges);
+            return new PageImpl<>(challenges.stream().map(this::toSearchResponse).toList(), pageable,
+                    names.getTotalElements());
+        }
 
         Page<Challenge> challengePage;
 
-        if (moduleName != null && !moduleName.isBlank()) {
+        if (module != null) {
             challengePage = challengeRepository.findByNameContainingIgnoreCaseAndModule_Name(name, moduleName,
                     pageable);
         } else {
             challengePage = challengeRepository.findByNameContainingIgnoreCase(name, pageable);
         }
+        responseAssembler.preload(challengePage.getContent());
 
-        return challengePage.map(c -> new ChallengeResponse(
+        return challengePage.map(this::toSearchResponse);
+    }
+
+    private ChallengeResponse toSearchResponse(Challenge c) {
+        return new ChallengeResponse(
                 c.getName(),
                 c.getDescription(),
                 c.getImageUrl(),
@@ -667,7 +1434,24 @@ public class ChallengeService {
                 c.getRequiredVerifications(),
                 c.getRedeemables() != null
                         ? c.getRedeemables().stream().map(this::toDto).toList()
-                        : null));
+                        : null,
+                participationOf(c));
+    }
+
+    /**
+     * Loads the challenges with the given names in one query, keeping the order
+     * of the names. Names deleted since they were looked up are skipped.
+     */
+    private List<Challenge> loadInOrder(List<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Challenge> byName = challengeRepository.findAllById(names).stream()
+                .collect(Collectors.toMap(Challenge::getName, challenge -> challenge));
+        return names.stream()
+                .map(byName::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     private AwardDto toDto(Redeemable redeemable) {
@@ -686,43 +1470,62 @@ public class ChallengeService {
     }
 
     public AdminDTO getChallengeAdmin(String challengeName) {
-        UserEcicare userEcicare = challengeRepository.findChallengeAdministrator(challengeName);
-        if (userEcicare == null) {
+        AdminDTO admin = challengeCache.administrator(challengeName, key -> {
+            UserEcicare userEcicare = challengeRepository.findChallengeAdministrator(key);
+            return userEcicare != null ? new AdminDTO(userEcicare.getName(), userEcicare.getEmail()) : null;
+        });
+        if (admin == null) {
             throw new RuntimeException("Challenge Administrator not found");
         }
-        return new AdminDTO(userEcicare.getName(), userEcicare.getEmail());
+        return admin;
     }
 
+    /**
+     * Statistics of the challenge read-through caches and of the module
+     * statistics cache.
+     *
+     * @return hit, miss and eviction counts of each cache
+     */
+    public List<CacheMetrics> getCacheStats() {
+        List<CacheMetrics> stats = new ArrayList<>(challengeCache.stats());
+        stats.add(moduleStatsCache.metrics());
+        return stats;
+    }
+
+    /**
+     * Tells whether a user is registered in and has completed a challenge. Both
+     * answers come from the in-memory {@link ChallengeMembershipIndex}.
+     *
+     * @param email         the email of the user
+     * @param challengeName the name of the challenge
+     * @return the {@link ChallengeUserStatus} of the user
+     */
     public ChallengeUserStatus getUserChallengeStatus(String email, String challengeName) {
         UserEcicare userEcicare = userEcicareRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        boolean registered = challengeRepository.isUserRegisteredInChallenge(challengeName, userEcicare.getIdEci());
-        boolean completed = challengeRepository.isUserConfirmedInChallenge(challengeName, userEcicare.getIdEci());
+        boolean registered = membershipIndex.isRegistered(challengeName, userEcicare.getIdEci());
+        boolean completed = membershipIndex.isConfirmed(challengeName, userEcicare.getIdEci());
         return new ChallengeUserStatus(completed, registered);
     }
 
     /**
-     * Obtiene el estado de verificaciones de un usuario en un challenge específico.
+     * Obtiene el estado de verificaciones de un usuario en un challenge específico
+     * con una única consulta de proyección.
      * 
      * @param userEmail     el email del usuario
      * @param challengeName el nombre del challenge
-     * @return un mapa con: currentVerifications, requiredVerifications, isConfirmed
+     * @return el {@link UserVerificationStatus} con verificaciones actuales y
+     *         requeridas, y si el usuario está inscrito o confirmado
      */
-    public Map<String, Object> getUserVerificationStatus(String userEmail, String challengeName) {
-        Challenge challenge = challengeRepository.findByName(challengeName);
-        if (challenge == null) {
-            throw new RuntimeException("Challenge not found: " + challengeName);
+    public UserVerificationStatus getUserVerificationStatus(String userEmail, String challengeName) {
+        UserVerificationStatus status = challengeRepository.findUserVerificationStatus(challengeName, userEmail);
+        if (status == null) {
+            // Solo en el caso de error se distingue cuál de los dos no existe
+            if (!challengeRepository.existsById(challengeName)) {
+                throw new RuntimeException("Challenge not found: " + challengeName);
+            }
+            throw new RuntimeException("User not found with email: " + userEmail);
         }
-
-        UserEcicare user = userEcicareRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + userEmail));
-
-        Map<String, Object> status = new java.util.HashMap<>();
-        status.put("currentVerifications", challenge.getVerifications().getOrDefault(userEmail, 0));
-        status.put("requiredVerifications", challenge.getRequiredVerifications());
-        status.put("isRegistered", challenge.getRegistered().contains(user));
-        status.put("isConfirmed", challenge.getConfirmed().contains(user));
-
         return status;
     }
 }
@@ -1,17 +1,26 @@
 package edu.escuelaing.ecicare.challenges.services;
 
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeParticipantDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleMatchCount;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleStats;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleChallengeDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleChallengesUsersDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ParticipationCounts;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
 import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
 import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
 import edu.escuelaing.ecicare.users.models.dto.UserEcicareDto;
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
 import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
 import edu.escuelaing.ecicare.utils.models.entity.enums.Role;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,8 +31,11 @@ import org.springframework.web.server.ResponseStatusException;
 import edu.escuelaing.ecicare.challenges.models.entity.Module;
 
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleGenResponse;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +58,9 @@ public class ModuleService {
         private final ChallengeService challengeService;
         private final UserEcicareRepository userEcicareRepository;
         private final ChallengeRepository challengeRepository;
+        private final ChallengeResponseAssembler responseAssembler;
+        private final ChallengeCache challengeCache;
+        private final ModuleStatsCache moduleStatsCache;
 
         /**
          * Persists a new module in the database.
@@ -54,6 +69,10 @@ public class ModuleService {
          * @return the created module as {@link ModuleResponse}
          */
         public ModuleResponse createModule(ModuleDTO moduleDto) {
+                if (moduleRepository.countDeletedByName(moduleDto.getName()) > 0) {
+                        // El nombre sigue ocupado hasta que ChallengePurger borre el módulo anterior
+                        throw new RuntimeException("Module is being deleted, try again later");
+                }
                 Module module = Module.builder()
                                 .name(moduleDto.getName())
                                 .description(moduleDto.getDescription())
@@ -63,7 +82,9 @@ public class ModuleService {
                                 .build();
 
                 moduleRepository.save(module);
-                return toModuleResponse(module);
+                moduleStatsCache.invalidate();
+                return new ModuleResponse(module.getName(), module.getDescription(), module.getImageUrl(),
+                                Collections.emptyList(), participationOf(module), 0);
         }
 
         /**
@@ -72,22 +93,36 @@ public class ModuleService {
          * @return a list of {@link ModuleResponse} DTOs
          */
         public List<ModuleResponse> getAllModules() {
-                return moduleRepository.findAll().stream()
-                                .map(this::toModuleResponse)
-                                .toList();
+                return getAllModules(null);
         }
 
-        public List<ModuleResponse> getModules() {
+        /**
+         * Retrieves all modules stored in the database with their challenges,
+         * optionally only the first ones of each module.
+         *
+         * @param challengesPerModule the maximum number of challenges listed per
+         *                            module, {@code null} for all of them
+         * @return a list of {@link ModuleResponse} DTOs
+         */
+        public List<ModuleResponse> getAllModules(Integer challengesPerModule) {
                 List<Module> modules = moduleRepository.findAll();
                 return modules.stream()
-                                .map(m -> new ModuleResponse(m.getName(), m.getDescription(), m.getImageUrl(),
-                                                m.getChallenges()
-                                                                .stream()
-                                                                .map(ChallengeService::challengeToResponse)
-                                                                .toList()))
+                                .map(responseMapper(modules, challengesPerModule))
                                 .toList();
         }
 
+        /**
+         * Dashboard statistics of every module: number of challenges,
+         * enrollments, completions and completion rate. They are computed with
+         * one {@code GROUP BY} over the modules and their challenges and cached
+         * for a few seconds.
+         *
+         * @return the statistics of every module, sorted by name
+         */
+        public List<ModuleStats> getModuleStats() {
+                return moduleStatsCache.stats(moduleRepository::findModuleStats);
+        }
+
         /**
          * Retrieves the total number of modules in the database.
          *
@@ -105,6 +140,20 @@ public class ModuleService {
          * @return a {@link Page} of {@link ModuleResponse} DTOs
          */
         public Page<ModuleResponse> getAllModulesPaginated(int page, int size) {
+                return getAllModulesPaginated(page, size, null);
+        }
+
+        /**
+         * Retrieves a page of modules with their challenges, optionally only the
+         * first ones of each module.
+         *
+         * @param page                the page number (0-based)
+         * @param size                the page size
+         * @param challengesPerModule the maximum number of challenges listed per
+         *                            module, {@code null} for all of them
+         * @return a {@link Page} of {@link ModuleResponse} DTOs
+         */
+        public Page<ModuleResponse> getAllModulesPaginated(int page, int size, Integer challengesPerModule) {
                 if (page < 0) {
                         page = 0;
                 }
@@ -112,8 +161,29 @@ public class ModuleService {
                         size = 10;
                 }
                 Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-                return moduleRepository.findAll(pageable)
-                                .map(this::toModuleResponse);
+                Page<Module> modules = moduleRepository.findAll(pageable);
+                return modules.map(responseMapper(modules.getContent(), challengesPerModule));
+        }
+
+        /**
+         * Retrieves modules with keyset (cursor) pagination in name order.
+         *
+         * Each page is fetched with {@code name > cursor LIMIT limit + 1}, so it
+         * costs the same at any depth and no COUNT query is issued.
+         *
+         * @param after the cursor returned with the previous page, or {@code null}
+         *              for the first page
+         * @param limit the page size
+         * @return a {@link CursorPage} of {@link ModuleResponse} DTOs
+         */
+        public CursorPage<ModuleResponse> getModulesAfter(String after, Integer limit) {
+                int size = CursorPage.normalizeLimit(limit);
+                String lastName = CursorPage.decode(after);
+                List<Module> rows = moduleRepository.findByNameGreaterThanOrderByNameAsc(
+                                lastName == null ? "" : lastName, Limit.of(CursorPage.fetchSize(size)));
+                // La fila extra solo indica si hay otra página: sus retos no se cargan
+                return CursorPage.of(rows, size, Module::getName,
+                                responseMapper(rows.subList(0, Math.min(size, rows.size())), null));
         }
 
         /**
@@ -148,9 +218,7 @@ public class ModuleService {
                 Module module = moduleRepository.findById(name)
                                 .orElseThrow(() -> new RuntimeException("Module not found: " + name));
 
-                return module.getChallenges().stream()
-                                .map(ChallengeService::challengeToResponse)
-                                .toList();
+                return responseAssembler.toResponses(module.getChallenges());
         }
 
         public Page<ChallengeResponse> getChallengesByModulePaged(String name, int page, int size) {
@@ -159,8 +227,26 @@ public class ModuleService {
                                 .orElseThrow(() -> new RuntimeException("Module not found: " + name));
 
                 Page<Challenge> challenges = challengeRepository.findByModule_Name(name, pageable);
-                return challenges
-                                .map(ChallengeService::challengeToResponse);
+                return responseAssembler.toResponses(challenges);
+        }
+
+        /**
+         * Retrieves a page of summaries of the challenges of a module, without
+         * loading tips, goals or awards.
+         *
+         * @param name the unique name of the module
+         * @param page the page number (0-based)
+         * @param size the page size
+         * @return a {@link Page} of {@link ChallengeSummary} in name order
+         * @throws java.util.RuntimeException if no module with the given name
+         *                                    exists
+         */
+        public Page<ChallengeSummary> getChallengeSummariesByModulePaged(String name, int page, int size) {
+                if (!moduleRepository.existsById(name)) {
+                        throw new RuntimeException("Module not found: " + name);
+                }
+                Pageable pageable = PageRequest.of(Math.max(0, page), size > 0 ? size : 10, Sort.by("name"));
+                return challengeRepository.findSummaries("", name, pageable);
         }
 
         /**
@@ -185,23 +271,41 @@ public class ModuleService {
         }
 
         /**
-         * Deletes a module if it contains no challenges.
+         * Deletes a module along with its challenges and everything that
+         * references them, in one transaction and with set-based statements
+         * whose number does not depend on the participants.
          *
          * @param name the unique name of the module to be deleted
-         * @return {@code true} if the module was deleted successfully,
-         *         {@code false} if it still contains challenges
-         * @throws java.util.NoSuchElementException if no module with the given name
-         *                                          exists
+         * @throws RuntimeException if no module with the given name exists
          */
         public void deleteModule(String name) {
-                Module module = moduleRepository.findById(name)
-                                .orElseThrow(() -> new RuntimeException("Module not found"));
-                if (module.getChallenges() != null && !module.getChallenges().isEmpty()) {
-                        for (Challenge challenge : module.getChallenges()) {
-                                challengeService.deleteChallenge(challenge.getName());
-                        }
+                deleteModule(name, false);
+        }
+
+        /**
+         * Deletes a module and its challenges, right away or as a soft delete.
+         * A soft delete only marks the module and its challenges, which hides
+         * them from every read at once; {@link ChallengePurger} removes their
+         * rows in the background.
+         *
+         * @param name the unique name of the module to be deleted
+         * @param soft whether to mark it and purge it in the background
+         * @throws RuntimeException if no module with the given name exists
+         */
+        @Transactional
+        public void deleteModule(String name, boolean soft) {
+                if (!moduleRepository.existsById(name)) {
+                        throw new RuntimeException("Module not found");
                 }
-                moduleRepository.delete(module);
+                if (soft) {
+                        challengeService.deleteChallengesOfModule(name, true);
+                        moduleRepository.markDeleted(name, LocalDateTime.now());
+                } else {
+                        // Retos y filas dependientes con sentencias por conjunto, sin cargar participantes
+                        challengeService.deleteChallengesOfModule(name, false);
+                        moduleRepository.deleteModuleByName(name);
+                }
+                moduleStatsCache.invalidate();
         }
 
         /**
@@ -228,12 +332,17 @@ public class ModuleService {
                 // Update the administrator
                 module.setAdministrator(newAdmin);
                 Module savedModule = moduleRepository.save(module);
+                // El administrador de un reto es el de su módulo
+                if (savedModule.getChallenges() != null) {
+                        challengeCache.invalidateAll(savedModule.getChallenges().stream()
+                                        .map(Challenge::getName)
+                                        .toList());
+                }
 
                 return toModuleResponse(savedModule);
         }
 
         /**
-         * l
          * Retrieves all modules with their associated challenges and registered users.
          * Only users assigned as administrator of a module can see that module.
          * Users without assigned modules will receive an empty list.
@@ -243,60 +352,84 @@ public class ModuleService {
          *         the user is the administrator
          */
         public List<ModuleChallengesUsersDTO> getAllModulesWithChallengesAndUsers(String email) {
+                return getAllModulesWithChallengesAndUsers(email, null);
+        }
+
+        /**
+         * Retrieves the modules administered by a user with their challenges and
+         * the first page of registered users of each challenge.
+         *
+         * The view is built with a fixed number of queries whatever the size of the
+         * modules: the modules are filtered by administrator in the database, the
+         * challenges of all of them are read with one projection, and the first
+         * {@code usersPerChallenge} participants of every challenge with one
+         * windowed query. The following pages of a challenge are served by
+         * {@link ChallengeService#getRegisteredUsersByChallenge}; each challenge
+         * carries its total of registered users for that.
+         *
+         * @param email             the email of the user requesting the modules
+         * @param usersPerChallenge the page size of registered users per challenge
+         * @return a list of ModuleChallengesUsersDTO containing only the modules where
+         *         the user is the administrator
+         */
+        public List<ModuleChallengesUsersDTO> getAllModulesWithChallengesAndUsers(String email,
+                        Integer usersPerChallenge) {
                 UserEcicare user = userEcicareRepository.findByEmail(email)
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
                 // All users (including ADMINISTRATION) can only see modules where they are the
                 // administrator
-                List<Module> modules = moduleRepository.findAll().stream()
-                                .filter(module -> module.getAdministrator() != null &&
-                                                module.getAdministrator().getIdEci().equals(user.getIdEci()))
-                                .collect(Collectors.toList());
+                List<Module> modules = moduleRepository.findByAdministrator_IdEciOrderByNameAsc(user.getIdEci());
+                if (modules.isEmpty()) {
+                        return List.of();
+                }
+
+                List<ModuleChallengeDTO> challenges = challengeRepository.findModuleChallenges(
+                                modules.stream().map(Module::getName).toList());
+                Map<String, List<UserEcicareDto>> usersByChallenge = challenges.isEmpty() ? Map.of()
+                                : challengeRepository.findFirstRegisteredPerChallenge(
+                                                challenges.stream().map(ModuleChallengeDTO::getName).toList(),
+                                                CursorPage.normalizeLimit(usersPerChallenge))
+                                                .stream()
+                                                .collect(Collectors.groupingBy(ChallengeParticipantDTO::getChallengeName,
+                                                                Collectors.mapping(ModuleService::toUserDto,
+                                                                                Collectors.toList())));
+
+                Map<String, List<ModuleChallengesUsersDTO.ChallengeUsersDTO>> challengesByModule = challenges.stream()
+                                .collect(Collectors.groupingBy(ModuleChallengeDTO::getModuleName,
+                                                Collectors.mapping(challenge -> ModuleChallengesUsersDTO.ChallengeUsersDTO
+                                                                .builder()
+                                                                .name(challenge.getName())
+                                                                .description(challenge.getDescription())
+                                                                .imageUrl(challenge.getImageUrl())
+                                                                .registeredUsers(usersByChallenge.getOrDefault(
+                                                                                challenge.getName(), List.of()))
+                                                                .registeredCount(challenge.getRegisteredCount())
+                                                                .build(),
+                                                                Collectors.toList())));
 
                 return modules.stream()
-                                .map(module -> {
-                                        List<ModuleChallengesUsersDTO.ChallengeUsersDTO> challengeUsers = module
-                                                        .getChallenges().stream()
-                                                        .map(challenge -> {
-                                                                List<UserEcicareDto> registeredUsers = challenge
-                                                                                .getRegistered().stream()
-                                                                                .map(registeredUser -> UserEcicareDto
-                                                                                                .builder()
-                                                                                                .idEci(registeredUser
-                                                                                                                .getIdEci())
-                                                                                                .name(registeredUser
-                                                                                                                .getName())
-                                                                                                .email(registeredUser
-                                                                                                                .getEmail())
-                                                                                                .role(registeredUser
-                                                                                                                .getRole())
-                                                                                                .registrationDate(
-                                                                                                                registeredUser.getRegistrationDate())
-                                                                                                .hasMedicalApprove(
-                                                                                                                registeredUser.getHasMedicalApprove())
-                                                                                                .build())
-                                                                                .collect(Collectors.toList());
-
-                                                                return ModuleChallengesUsersDTO.ChallengeUsersDTO
-                                                                                .builder()
-                                                                                .name(challenge.getName())
-                                                                                .description(challenge.getDescription())
-                                                                                .imageUrl(challenge.getImageUrl())
-                                                                                .registeredUsers(registeredUsers)
-                                                                                .build();
-                                                        })
-                                                        .collect(Collectors.toList());
-
-                                        return ModuleChallengesUsersDTO.builder()
-                                                        .name(module.getName())
-                                                        .description(module.getDescription())
-                                                        .imageUrl(module.getImageUrl())
-                                                        .challenges(challengeUsers)
-                                                        .build();
-                                })
+                                .map(module -> ModuleChallengesUsersDTO.builder()
+                                                .name(module.getName())
+                                                .description(module.getDescription())
+                                                .imageUrl(module.getImageUrl())
+                                                .challenges(challengesByModule.getOrDefault(module.getName(),
+                                                                List.of()))
+                                                .build())
                                 .collect(Collectors.toList());
         }
 
+        private static UserEcicareDto toUserDto(ChallengeParticipantDTO participant) {
+                return UserEcicareDto.builder()
+                                .idEci(participant.getIdEci())
+                                .name(participant.getName())
+                                .email(participant.getEmail())
+                                .role(participant.getRole())
+                                .registrationDate(participant.getRegistrationDate())
+                                .hasMedicalApprove(participant.getHasMedicalApprove())
+                                .build();
+        }
+
         /**
          * Retrieves only the modules where the given user is administrator,
          * returning minimal information (name and imageUrl).
@@ -328,17 +461,65 @@ public class ModuleService {
          * @return the ModuleResponse DTO
          */
         private ModuleResponse toModuleResponse(Module module) {
-                List<ChallengeResponse> challenges = module.getChallenges() != null
-                                ? module.getChallenges().stream()
-                                                .map(ChallengeService::challengeToResponse)
-                                                .toList()
-                                : Collections.emptyList();
+                return responseMapper(List.of(module), null).apply(module);
+        }
 
-                return new ModuleResponse(
-                                module.getName(),
-                                module.getDescription(),
-                                module.getImageUrl(),
-                                challenges);
+        /**
+         * Loads the challenges of a list of modules and returns the mapper of
+         * those modules to responses.
+         *
+         * The challenges of every module in the list are read with one query keyed
+         * by module name, plus the bulk loads of their relations, instead of
+         * walking each {@code module.getChallenges()}. When
+         * {@code challengesPerModule} is given only the first challenges of each
+         * module, by name, are loaded, and one grouped count gives the totals.
+         *
+         * @param modules             the modules that will be mapped
+         * @param challengesPerModule the maximum number of challenges per module,
+         *                            clamped to
+         *                            {@code [1, MAX_CHALLENGES_PER_MODULE]}, or
+         *                            {@code null} for all of them
+         * @return the mapper of the given modules
+         */
+        private Function<Module, ModuleResponse> responseMapper(List<Module> modules, Integer challengesPerModule) {
+                List<String> names = modules.stream().map(Module::getName).toList();
+                Map<String, List<ChallengeResponse>> challenges;
+                Map<String, Long> totals;
+                if (challengesPerModule == null) {
+                        challenges = responseAssembler.toResponsesByModule(names);
+                        totals = null;
+                } else {
+                        int perModule = Math.max(1,
+                                        Math.min(challengesPerModule, ChallengeService.MAX_CHALLENGES_PER_MODULE));
+                        challenges = responseAssembler.toResponsesByModule(names, perModule);
+                        totals = names.isEmpty() ? Map.of()
+                                        : challengeRepository.countChallengesByModuleNameIn(names).stream()
+                                                        .collect(Collectors.toMap(ModuleMatchCount::moduleName,
+                                                                        ModuleMatchCount::matches));
+                }
+                return module -> {
+                        List<ChallengeResponse> listed = challenges.getOrDefault(module.getName(), List.of());
+                        int total = totals == null ? listed.size()
+                                        : totals.getOrDefault(module.getName(), 0L).intValue();
+                        return new ModuleResponse(
+                                        module.getName(),
+                                        module.getDescription(),
+                                        module.getImageUrl(),
+                                        listed,
+                                        participationOf(module),
+                                        total);
+                };
+        }
+
+        /**
+         * Reads the participation counters rolled up over the challenges of a module.
+         *
+         * @param module the module
+         * @return its registered, confirmed and in-progress counts
+         */
+        private static ParticipationCounts participationOf(Module module) {
+                return new ParticipationCounts(module.getRegisteredCount(), module.getConfirmedCount(),
+                                module.getInProgressCount());
         }
 
         /**
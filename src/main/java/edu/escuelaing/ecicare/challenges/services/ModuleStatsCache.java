@@ -0,0 +1,71 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleStats;
+import edu.escuelaing.ecicare.utils.TransactionCallbacks;
+import edu.escuelaing.ecicare.utils.models.dto.CacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the module dashboard statistics.
+ *
+ * The statistics of all the modules are read together, so the cache holds a
+ * single entry. {@link ChallengeService} and {@link ModuleService} drop it on
+ * every enrollment, confirmation and change of the modules or their
+ * challenges; the short expiration only bounds the staleness of writes made
+ * by other nodes.
+ *
+ * @author ByteProgramming
+ */
+@Component
+public class ModuleStatsCache {
+
+    private static final String KEY = "modules";
+
+    private final Cache<String, List<ModuleStats>> stats;
+
+    public ModuleStatsCache(@Value("${ecicare.modules.stats.ttl-seconds:30}") long ttlSeconds) {
+        this.stats = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the statistics of every module, loading them on a miss.
+     *
+     * @param loader reads the statistics from the database
+     * @return the statistics of every module
+     */
+    public List<ModuleStats> stats(Supplier<List<ModuleStats>> loader) {
+        return stats.get(KEY, key -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Drops the statistics right away and again once the current transaction
+     * commits, as {@link ChallengeCache#invalidate(String)} does.
+     */
+    public void invalidate() {
+        stats.invalidateAll();
+        TransactionCallbacks.afterCommit(stats::invalidateAll);
+    }
+
+    /**
+     * Statistics of the cache itself.
+     *
+     * @return hit, miss and eviction counts
+     */
+    public CacheMetrics metrics() {
+        CacheStats cacheStats = stats.stats();
+        return new CacheMetrics("module-stats", stats.estimatedSize(), cacheStats.hitCount(),
+                cacheStats.missCount(), cacheStats.hitRate(), cacheStats.evictionCount());
+    }
+}
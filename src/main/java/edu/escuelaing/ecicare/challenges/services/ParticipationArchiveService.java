@@ -0,0 +1,68 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ParticipationArchiveRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves the participation rows of a finished challenge to the archive tables.
+ *
+ * Each call moves one bounded chunk inside its own transaction: the keys of
+ * the chunk are read first, copied with {@code INSERT ... SELECT} and then
+ * deleted from the hot table, so a failure leaves the chunk where it was and
+ * locks are never held for the whole challenge. Archived registrations and
+ * confirmations still count in the participation counters; archived
+ * verification counters are taken out of the in-progress count.
+ *
+ * @author ByteProgramming
+ */
+@Service
+@RequiredArgsConstructor
+public class ParticipationArchiveService {
+
+    private final ChallengeRepository challengeRepository;
+    private final ModuleRepository moduleRepository;
+    private final ParticipationArchiveRepository archiveRepository;
+
+    /**
+     * Archives up to {@code chunkSize} participation rows of a challenge,
+     * registrations first, then confirmations, then verification counters.
+     *
+     * @param challengeName the name of the finished challenge
+     * @param chunkSize     the maximum number of rows to move
+     * @return the number of rows moved, 0 when nothing is left
+     */
+    @Transactional
+    public int archiveChunk(String challengeName, int chunkSize) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> registered = archiveRepository.findRegisteredUserIds(challengeName, chunkSize);
+        if (!registered.isEmpty()) {
+            archiveRepository.archiveRegistered(challengeName, registered, now);
+            return challengeRepository.unregisterUsersFromChallenge(challengeName, registered);
+        }
+
+        List<Long> confirmed = archiveRepository.findConfirmedUserIds(challengeName, chunkSize);
+        if (!confirmed.isEmpty()) {
+            archiveRepository.archiveConfirmed(challengeName, confirmed, now);
+            return challengeRepository.unconfirmUsersFromChallenge(challengeName, confirmed);
+        }
+
+        List<String> emails = archiveRepository.findVerificationEmails(challengeName, chunkSize);
+        if (!emails.isEmpty()) {
+            archiveRepository.archiveVerifications(challengeName, emails, now);
+            int deleted = challengeRepository.deleteVerifications(challengeName, emails);
+            // El reto terminó: esos usuarios ya no están en progreso
+            challengeRepository.addParticipationCounts(challengeName, 0, 0, -deleted);
+            moduleRepository.addParticipationCountsOfChallenge(challengeName, 0, 0, -deleted);
+            return deleted;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,90 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically moves the participation data of long finished challenges out
+ * of {@code user_challenges_registered}, {@code user_challenges_confirmed} and
+ * {@code challenge_verifications}.
+ *
+ * A challenge is archived once it has been closed by
+ * {@link ChallengeDeadlineScheduler} for {@code after-days} days. Every chunk
+ * runs in its own transaction through {@link ParticipationArchiveService}, so
+ * the job can be stopped at any point and resumes where it left off.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Component
+public class ParticipationArchiver {
+
+    // Retos procesados como máximo en cada ejecución
+    private static final int CHALLENGES_PER_RUN = 100;
+
+    private final ChallengeRepository challengeRepository;
+    private final ParticipationArchiveService archiveService;
+    private final ChallengeMembershipIndex membershipIndex;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int chunkSize;
+
+    public ParticipationArchiver(ChallengeRepository challengeRepository,
+            ParticipationArchiveService archiveService,
+            ChallengeMembershipIndex membershipIndex,
+            @Value("${ecicare.challenges.archive.enabled:true}") boolean enabled,
+            @Value("${ecicare.challenges.archive.after-days:30}") int afterDays,
+            @Value("${ecicare.challenges.archive.chunk-size:1000}") int chunkSize) {
+        this.challengeRepository = challengeRepository;
+        this.archiveService = archiveService;
+        this.membershipIndex = membershipIndex;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Archives the participation rows of the challenges finished more than
+     * {@code after-days} days ago.
+     *
+     * @return the number of rows moved
+     */
+    @Scheduled(cron = "${ecicare.challenges.archive.cron:0 30 3 * * *}")
+    public int archiveFinished() {
+        if (!enabled) {
+            return 0;
+        }
+        List<String> names = challengeRepository.findArchivableChallengeNames(
+                LocalDateTime.now().minusDays(afterDays), Limit.of(CHALLENGES_PER_RUN));
+        int moved = 0;
+        for (String name : names) {
+            try {
+                moved += archive(name);
+            } catch (RuntimeException e) {
+                log.warn("Could not archive participation of challenge {}, retrying next run", name, e);
+            } finally {
+                membershipIndex.evict(name);
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} participation rows of {} finished challenges", moved, names.size());
+        }
+        return moved;
+    }
+
+    private int archive(String challengeName) {
+        int total = 0;
+        int moved;
+        while ((moved = archiveService.archiveChunk(challengeName, chunkSize)) > 0) {
+            total += moved;
+        }
+        return total;
+    }
+}
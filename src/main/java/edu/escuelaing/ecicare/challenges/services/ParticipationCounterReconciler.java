@@ -0,0 +1,65 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Repairs the participation counters of challenges and modules.
+ *
+ * {@link ChallengeService} keeps the counters current with relative updates in
+ * the same transaction as every enrollment, verification and promotion; this job
+ * recomputes them from the join tables and the archive at startup and every
+ * night, so counters created empty on existing data or changed outside the
+ * service converge. Challenges are recomputed in chunks of
+ * {@value #CHUNK_SIZE}, each in its own transaction, and the modules are then
+ * rolled up from their challenges.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParticipationCounterReconciler {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final ChallengeRepository challengeRepository;
+    private final ModuleRepository moduleRepository;
+    private final ChallengeCache challengeCache;
+    private final ModuleStatsCache moduleStatsCache;
+
+    /**
+     * Recomputes every counter from the participation rows.
+     *
+     * @return the number of challenges reconciled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ecicare.challenges.counters.reconcile-cron:0 0 5 * * *}")
+    public int reconcile() {
+        int reconciled = 0;
+        String after = "";
+        List<String> names;
+        do {
+            names = challengeRepository.findNamesAfter(after, Limit.of(CHUNK_SIZE));
+            if (names.isEmpty()) {
+                break;
+            }
+            reconciled += challengeRepository.reconcileParticipationCounts(names);
+            challengeCache.invalidateAll(names);
+            after = names.get(names.size() - 1);
+        } while (names.size() == CHUNK_SIZE);
+        int modules = moduleRepository.reconcileParticipationCounts();
+        moduleStatsCache.invalidate();
+        log.info("Participation counters reconciled for {} challenges and {} modules", reconciled, modules);
+        return reconciled;
+    }
+}
@@ -0,0 +1,233 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.VerificationAck;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.users.models.dto.UserEmailIdDTO;
+import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import edu.escuelaing.ecicare.utils.exceptions.ChallengeClosedException;
+import edu.escuelaing.ecicare.utils.exceptions.notfound.ChallengeNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Optional write-behind buffer for verification scans.
+ *
+ * When enabled, repeated scans of the same (challenge, email) pair are
+ * coalesced in memory and flushed periodically to
+ * {@code challenge_verifications} through
+ * {@link ChallengeService#applyVerifications}, so a check-in peak turns into a
+ * few batched statements instead of one write per scan. Callers get an
+ * acknowledgement with the projected count right away.
+ *
+ * The buffer holds at most {@code capacity} distinct pairs, counting the ones
+ * being flushed: each pair takes a permit when it enters the buffer and gives
+ * it back once its increments are written, so entries put back after a failed
+ * flush stay within the bound. When no permit is left, or when the mode is
+ * disabled, scans are applied synchronously. Pending increments are
+ * drained on graceful shutdown. Scans after the deadline of the challenge are
+ * rejected; scans acknowledged before it are still flushed.
+ *
+ * @author ByteProgramming
+ */
+@Slf4j
+@Service
+public class VerificationBuffer {
+
+    private final ChallengeService challengeService;
+    private final ChallengeRepository challengeRepository;
+    private final UserEcicareRepository userEcicareRepository;
+    private final ChallengeMembershipIndex membershipIndex;
+    private final boolean enabled;
+
+    private final Map<PendingKey, PendingVerification> pending = new ConcurrentHashMap<>();
+    // Un permiso por par en el buffer o en un flush en curso
+    private final Semaphore permits;
+
+    public VerificationBuffer(ChallengeService challengeService,
+            ChallengeRepository challengeRepository,
+            UserEcicareRepository userEcicareRepository,
+            ChallengeMembershipIndex membershipIndex,
+            @Value("${ecicare.verifications.write-behind.enabled:false}") boolean enabled,
+            @Value("${ecicare.verifications.write-behind.capacity:10000}") int capacity) {
+        this.challengeService = challengeService;
+        this.challengeRepository = challengeRepository;
+        this.userEcicareRepository = userEcicareRepository;
+        this.membershipIndex = membershipIndex;
+        this.enabled = enabled;
+        this.permits = new Semaphore(capacity);
+    }
+
+    /**
+     * Records one verification of a user in a challenge.
+     *
+     * The first scan of a pair since the last flush validates the user and reads
+     * the persisted count; later scans of the same pair only touch memory.
+     *
+     * @param userEmail     the email of the user
+     * @param challengeName the name of the challenge
+     * @return the acknowledgement with the projected verification count
+     */
+    public VerificationAck verify(String userEmail, String challengeName) {
+        if (!enabled) {
+            return verifySynchronously(userEmail, challengeName);
+        }
+        PendingKey key = new PendingKey(challengeName, normalize(userEmail));
+        LocalDateTime now = LocalDateTime.now();
+        PendingVerification merged;
+        while ((merged = pending.computeIfPresent(key, (pendingKey, current) -> {
+            if (current.isExpired(now)) {
+                throw new ChallengeClosedException(challengeName);
+            }
+            return current.withDelta(current.delta() + 1);
+        })) == null) {
+            // La línea base se lee fuera del mapa, sin bloquear a otros escaneos
+            PendingVerification loaded = load(key).withDelta(1);
+            if (!permits.tryAcquire()) {
+                return verifySynchronously(userEmail, challengeName);
+            }
+            if (pending.putIfAbsent(key, loaded) == null) {
+                merged = loaded;
+                break;
+            }
+            // Otro escaneo del mismo par llegó primero; se suma sobre su entrada
+            permits.release();
+        }
+        int projected = merged.baseline() + merged.delta();
+        return new VerificationAck(challengeName, merged.userEmail(), projected, merged.requiredVerifications(),
+                projected >= merged.requiredVerifications(), true);
+    }
+
+    /**
+     * Flushes the coalesced increments, one {@link ChallengeService#applyVerifications}
+     * call per challenge. Entries of a challenge whose flush fails are put back so
+     * they are retried on the next run; they keep their permits meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${ecicare.verifications.write-behind.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Map<PendingKey, PendingVerification>> byChallenge = new HashMap<>();
+        for (PendingKey key : new ArrayList<>(pending.keySet())) {
+            PendingVerification verification = pending.remove(key);
+            if (verification != null) {
+                byChallenge.computeIfAbsent(key.challengeName(), name -> new HashMap<>()).put(key, verification);
+            }
+        }
+
+        byChallenge.forEach((challengeName, verifications) -> {
+            Map<UserEmailIdDTO, Integer> deltas = new HashMap<>();
+            verifications.values().forEach(v -> deltas.put(new UserEmailIdDTO(v.userEmail(), v.userId()), v.delta()));
+            try {
+                challengeService.applyVerifications(challengeName, deltas);
+                permits.release(verifications.size());
+            } catch (RuntimeException e) {
+                log.warn("Could not flush {} verifications of challenge {}, retrying later", deltas.size(),
+                        challengeName, e);
+                verifications.forEach((key, verification) -> {
+                    PendingVerification merged = pending.merge(key, verification,
+                            (existing, added) -> existing.withDelta(existing.delta() + added.delta()));
+                    // Si el par volvió a entrar mientras tanto, las dos entradas quedan en una
+                    if (merged != verification) {
+                        permits.release();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Drains pending increments before the application context is closed.
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("{} buffered verifications could not be written on shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Number of (challenge, email) pairs waiting to be flushed.
+     *
+     * @return the pending pairs
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private VerificationAck verifySynchronously(String userEmail, String challengeName) {
+        challengeService.confirmUserByEmail(userEmail, challengeName);
+        Integer required = challengeRepository.findRequiredVerifications(challengeName);
+        if (required == null) {
+            throw new ChallengeNotFoundException(challengeName);
+        }
+        // Los contadores se guardan con el email almacenado, no con el recibido
+        UserEmailIdDTO user = findUser(normalize(userEmail));
+        Integer count = challengeRepository.findVerificationCount(challengeName, user.getEmail());
+        int projected;
+        if (count != null) {
+            projected = count;
+        } else {
+            // Sin contador: o fue promovido, o el contador se archivó o borró entre tanto
+            projected = membershipIndex.isConfirmed(challengeName, user.getIdEci()) ? required : 0;
+        }
+        return new VerificationAck(challengeName, user.getEmail(), projected, required, projected >= required,
+                false);
+    }
+
+    private PendingVerification load(PendingKey key) {
+        Integer required = challengeRepository.findRequiredVerifications(key.challengeName());
+        if (required == null) {
+            throw new ChallengeNotFoundException(key.challengeName());
+        }
+        LocalDateTime deadline = challengeRepository.findDeadline(key.challengeName());
+        if (deadline != null && !deadline.isAfter(LocalDateTime.now())) {
+            throw new ChallengeClosedException(key.challengeName());
+        }
+        UserEmailIdDTO user = findUser(key.userEmail());
+        if (!membershipIndex.isRegistered(key.challengeName(), user.getIdEci())) {
+            throw new RuntimeException("User is not registered in the challenge");
+        }
+        Integer count = challengeRepository.findVerificationCount(key.challengeName(), user.getEmail());
+        return new PendingVerification(user.getEmail(), user.getIdEci(), count == null ? 0 : count, 0, required,
+                deadline);
+    }
+
+    private UserEmailIdDTO findUser(String email) {
+        return userEcicareRepository.findEmailIdsByEmailIn(List.of(email)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record PendingKey(String challengeName, String userEmail) {
+    }
+
+    private record PendingVerification(String userEmail, Long userId, int baseline, int delta,
+            int requiredVerifications, LocalDateTime deadline) {
+
+        PendingVerification withDelta(int newDelta) {
+            return new PendingVerification(userEmail, userId, baseline, newDelta, requiredVerifications, deadline);
+        }
+
+        boolean isExpired(LocalDateTime now) {
+            return deadline != null && !deadline.isAfter(now);
+        }
+    }
+}
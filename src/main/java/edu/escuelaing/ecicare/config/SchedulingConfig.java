@@ -0,0 +1,13 @@
+package edu.escuelaing.ecicare.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs, such as the periodic flush of
+ * buffered verifications.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
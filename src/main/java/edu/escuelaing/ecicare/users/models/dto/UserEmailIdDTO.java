@@ -0,0 +1,17 @@
+package edu.escuelaing.ecicare.users.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight projection of a user holding only its email and identifier.
+ * Used to resolve batches of emails to ids without hydrating full entities.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserEmailIdDTO {
+    private String email;
+    private Long idEci;
+}
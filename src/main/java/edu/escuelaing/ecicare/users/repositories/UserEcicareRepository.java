@@ -1,10 +1,14 @@
 package edu.escuelaing.ecicare.users.repositories;
 
+import edu.escuelaing.ecicare.users.models.dto.UserEmailIdDTO;
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
 import edu.escuelaing.ecicare.utils.models.entity.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +31,18 @@ public interface UserEcicareRepository extends JpaRepository<UserEcicare, Long>
 
     List<UserEcicare> findByNameContainingIgnoreCaseAndRole(String name, Role role);
 
+    /**
+     * Resolves a batch of emails to user ids in a single query, without
+     * hydrating full {@link UserEcicare} entities.
+     *
+     * @param emails The emails to resolve.
+     * @return The email and id of every user found; unknown emails are omitted.
+     */
+    @Query("""
+            SELECT new edu.escuelaing.ecicare.users.models.dto.UserEmailIdDTO(u.email, u.idEci)
+            FROM UserEcicare u
+            WHERE u.email IN :emails
+            """)
+    List<UserEmailIdDTO> findEmailIdsByEmailIn(@Param("emails") Collection<String> emails);
+
 }
@@ -0,0 +1,13 @@
+package edu.escuelaing.ecicare.utils.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ChallengeClosedException extends RuntimeException {
+
+    public ChallengeClosedException(String challengeName) {
+        super("Challenge " + challengeName + " is closed");
+    }
+
+}
@@ -77,6 +77,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiError, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(ChallengeClosedException.class)
+    public ResponseEntity<ApiErrorDto> handleChallengeClosedException(ChallengeClosedException exception,
+            HttpServletRequest request) {
+        ApiErrorDto apiError = ApiErrorDto.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(request.getServletPath())
+                .build();
+        return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorDto> handlePropertyValueException(Exception exception,
             HttpServletRequest request) {
@@ -8,4 +8,8 @@ public class ChallengeNotFoundException extends ResourceNotFoundException {
         super("Challenge not found with id " + id);
     }
 
+    public ChallengeNotFoundException(String name) {
+        super("Challenge not found with name " + name);
+    }
+
 }
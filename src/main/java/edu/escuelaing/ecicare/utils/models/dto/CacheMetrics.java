@@ -0,0 +1,15 @@
+package edu.escuelaing.ecicare.utils.models.dto;
+
+/**
+ * Snapshot of the statistics of an in-process cache.
+ *
+ * @param cache          name of the cache
+ * @param size           approximate number of entries
+ * @param hitCount       lookups answered from the cache
+ * @param missCount      lookups that had to load the value
+ * @param hitRate        ratio of hits over all lookups, {@code 1.0} when there were none
+ * @param evictionCount  entries removed because of size or expiration
+ */
+public record CacheMetrics(String cache, long size, long hitCount, long missCount, double hitRate,
+        long evictionCount) {
+}
@@ -0,0 +1,96 @@
+package edu.escuelaing.ecicare.utils.models.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ *
+ * Pages are fetched with {@code key > after ORDER BY key LIMIT limit + 1}: the
+ * extra row only tells whether there is a next page, so no COUNT query is
+ * needed and every page costs the same regardless of its depth. Cursors are the
+ * Base64 encoding of the last key of the page and must be treated as opaque by
+ * clients.
+ *
+ * @param items      the elements of the page
+ * @param nextCursor cursor to request the following page, {@code null} on the last one
+ * @param hasNext    whether there is a following page
+ * @param <T>        type of the elements
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasNext) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Builds a page from rows fetched with {@link #fetchSize(int)}.
+     *
+     * @param rows   the rows returned by the repository, at most {@code limit + 1}
+     * @param limit  the normalized page size
+     * @param keyOf  extracts the ordering key of a row
+     * @param mapper converts a row to the element exposed by the API
+     * @param <E>    type of the rows
+     * @param <T>    type of the elements
+     * @return the page
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, ?> keyOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encode(String.valueOf(keyOf.apply(pageRows.get(limit - 1)))) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+
+    /**
+     * Clamps a requested page size to {@code [1, MAX_LIMIT]}, using
+     * {@link #DEFAULT_LIMIT} when none is given.
+     *
+     * @param limit the requested page size, possibly {@code null}
+     * @return the page size to use
+     */
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Number of rows to ask the repository for: one more than the page size.
+     *
+     * @param limit the normalized page size
+     * @return the fetch size
+     */
+    public static int fetchSize(int limit) {
+        return limit + 1;
+    }
+
+    /**
+     * Encodes a key as an opaque cursor.
+     *
+     * @param key the last key of a page
+     * @return the cursor
+     */
+    public static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     *
+     * @param cursor the cursor, {@code null} or blank for the first page
+     * @return the key to continue after, or {@code null} for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
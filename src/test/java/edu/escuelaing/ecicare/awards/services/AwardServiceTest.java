@@ -3,8 +3,11 @@ package edu.escuelaing.ecicare.awards.services;
 import edu.escuelaing.ecicare.awards.models.dto.AwardDto;
 import edu.escuelaing.ecicare.awards.models.entity.Award;
 import edu.escuelaing.ecicare.awards.repositories.AwardRepository;
+import edu.escuelaing.ecicare.awards.repositories.RedeemableRepository;
+import edu.escuelaing.ecicare.challenges.services.ChallengeCache;
 import edu.escuelaing.ecicare.services.MapperService;
 import edu.escuelaing.ecicare.utils.exceptions.notfound.AwardNotFoundException;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -35,6 +39,12 @@ class AwardServiceTest {
     @Mock
     private MapperService mapperService;
 
+    @Mock
+    private RedeemableRepository redeemableRepository;
+
+    @Mock
+    private ChallengeCache challengeCache;
+
     @InjectMocks
     private AwardService awardService;
 
@@ -279,6 +289,22 @@ class AwardServiceTest {
         verify(awardRepository, times(1)).save(any(Award.class));
     }
 
+    @Test
+    @DisplayName("Should invalidate the cached challenges that offer an updated award")
+    void shouldInvalidateChallengesWhenAwardIsUpdated() {
+        // Given
+        when(awardRepository.findById(1L)).thenReturn(Optional.of(testAward));
+        when(mapperService.covertDtoToMap(testAwardDto)).thenReturn(new HashMap<>());
+        when(awardRepository.save(any(Award.class))).thenReturn(testAward);
+        when(redeemableRepository.findChallengeNamesByAwardId(1L)).thenReturn(List.of("Challenge1", "Challenge2"));
+
+        // When
+        awardService.updateAwardDetails(1L, testAwardDto);
+
+        // Then
+        verify(challengeCache, times(1)).invalidateAll(List.of("Challenge1", "Challenge2"));
+    }
+
     @Test
     @DisplayName("Should throw exception when updating non-existent award")
     void shouldThrowExceptionWhenUpdatingNonExistentAward() {
@@ -489,4 +515,29 @@ class AwardServiceTest {
                 .findByNameContainingIgnoreCase(eq("test"), any(Pageable.class));
     }
 
+    @Test
+    @DisplayName("Should search awards after the cursor id without counting")
+    void shouldSearchAwardsByNameAfterCursor() {
+        // Given
+        when(awardRepository.findByNameContainingIgnoreCaseAndAwardIdGreaterThanOrderByAwardIdAsc(
+                "test", 5L, Limit.of(2)))
+                .thenReturn(List.of(testAward));
+
+        // When
+        CursorPage<Award> result = awardService.searchAwardsByNameAfter(" test ", CursorPage.encode("5"), 1);
+
+        // Then
+        assertEquals(1, result.items().size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+        verify(awardRepository, never()).findByNameContainingIgnoreCase(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject award cursors that are not ids")
+    void shouldRejectInvalidAwardCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> awardService.searchAwardsByNameAfter("test", CursorPage.encode("abc"), 5));
+    }
+
 }
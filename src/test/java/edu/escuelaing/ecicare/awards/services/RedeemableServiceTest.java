@@ -8,6 +8,7 @@ import edu.escuelaing.ecicare.awards.repositories.RedeemableRepository;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
 import edu.escuelaing.ecicare.challenges.models.entity.Module;
+import edu.escuelaing.ecicare.challenges.services.ChallengeCache;
 import edu.escuelaing.ecicare.challenges.services.ChallengeService;
 import edu.escuelaing.ecicare.utils.exceptions.notfound.RedeemableNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,6 +40,9 @@ class RedeemableServiceTest {
     @Mock
     private ChallengeService challengeService;
 
+    @Mock
+    private ChallengeCache challengeCache;
+
     @InjectMocks
     private RedeemableService redeemableService;
 
@@ -245,6 +249,19 @@ class RedeemableServiceTest {
         verify(redeemableRepository, times(1)).delete(testRedeemable);
     }
 
+    @Test
+    @DisplayName("Should invalidate the cached challenge when a redeemable is deleted")
+    void shouldInvalidateChallengeWhenRedeemableIsDeleted() {
+        // Given
+        when(redeemableRepository.findById(any(RedeemableId.class))).thenReturn(Optional.of(testRedeemable));
+
+        // When
+        redeemableService.deleteRedeemable("Test Challenge", 1L);
+
+        // Then
+        verify(challengeCache, times(1)).invalidate("Test Challenge");
+    }
+
     @Test
     @DisplayName("Should throw exception when deleting non-existent redeemable")
     void shouldThrowExceptionWhenDeletingNonExistentRedeemable() {
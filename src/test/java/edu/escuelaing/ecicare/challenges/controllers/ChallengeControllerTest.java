@@ -6,18 +6,30 @@ import edu.escuelaing.ecicare.awards.models.entity.Redeemable;
 import edu.escuelaing.ecicare.awards.models.entity.RedeemableId;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary;
+import edu.escuelaing.ecicare.challenges.models.dto.EnrollmentReport;
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardEntry;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleWithChallengesDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.PurgeStatus;
+import edu.escuelaing.ecicare.challenges.models.dto.UserVerificationResult;
+import edu.escuelaing.ecicare.challenges.models.dto.UserVerificationStatus;
+import edu.escuelaing.ecicare.challenges.models.dto.VerificationAck;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
 import edu.escuelaing.ecicare.challenges.models.entity.Module;
+import edu.escuelaing.ecicare.challenges.services.ChallengePurger;
 import edu.escuelaing.ecicare.challenges.services.ChallengeService;
+import edu.escuelaing.ecicare.challenges.services.VerificationBuffer;
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,8 +39,15 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,6 +61,12 @@ public class ChallengeControllerTest {
         @MockBean
         private ChallengeService challengeService;
 
+        @MockBean
+        private VerificationBuffer verificationBuffer;
+
+        @MockBean
+        private ChallengePurger challengePurger;
+
         @Autowired
         private ObjectMapper objectMapper;
 
@@ -84,6 +109,7 @@ public class ChallengeControllerTest {
                                 null,
                                 null,
                                 null,
+                        null,
                         null
                 );
 
@@ -107,8 +133,8 @@ public class ChallengeControllerTest {
         @DisplayName("Should get all challenges")
         void shouldGetAllChallenges() throws Exception {
                 List<ChallengeResponse> challenges = Arrays.asList(
-                                new ChallengeResponse("Challenge1", "Desc1", null, null, null, null, null, null, null, null),
-                                new ChallengeResponse("Challenge2", "Desc2", null, null, null, null, null, null, null, null));
+                                new ChallengeResponse("Challenge1", "Desc1", null, null, null, null, null, null, null, null, null),
+                                new ChallengeResponse("Challenge2", "Desc2", null, null, null, null, null, null, null, null, null));
 
                 when(challengeService.getAllChallenges()).thenReturn(challenges);
 
@@ -123,10 +149,43 @@ public class ChallengeControllerTest {
                                 });
         }
 
+        @Test
+        @DisplayName("Should return challenge summaries when the SUMMARY view is requested")
+        void shouldGetChallengeSummaries() throws Exception {
+                ChallengeSummary summary = ChallengeSummary.builder()
+                                .name("Challenge1")
+                                .moduleName("Nutrition")
+                                .requiredVerifications(3)
+                                .registeredCount(5)
+                                .confirmedCount(2)
+                                .build();
+                when(challengeService.getChallengeSummariesPaginated(0, 2))
+                                .thenReturn(new PageImpl<>(List.of(summary)));
+
+                mockMvc.perform(get("/challenges/").param("view", "SUMMARY").param("page", "0").param("size", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[0].name").value("Challenge1"))
+                                .andExpect(jsonPath("$.content[0].registeredCount").value(5))
+                                .andExpect(jsonPath("$.content[0].tips").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should accept the SUMMARY view in any case")
+        void shouldGetChallengeSummariesIgnoringViewCase() throws Exception {
+                when(challengeService.searchChallengeSummaries(eq("yo"), isNull(), any(Pageable.class)))
+                                .thenReturn(new PageImpl<>(List.of(ChallengeSummary.builder().name("Yoga").build())));
+
+                mockMvc.perform(get("/challenges/searchContainingPaged").param("name", "yo").param("view", "summary"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[0].name").value("Yoga"));
+
+                verify(challengeService, never()).searchChallengesByName(anyString(), any(), any());
+        }
+
         @Test
         @DisplayName("Should get challenge by name")
         void shouldGetChallengeByName() throws Exception {
-                ChallengeResponse challenge = new ChallengeResponse("Challenge1", "Desc1", null, null, null, null, null, null, null, null);
+                ChallengeResponse challenge = new ChallengeResponse("Challenge1", "Desc1", null, null, null, null, null, null, null, null, null);
 
                 when(challengeService.getChallengeByName("Challenge1")).thenReturn(challenge);
 
@@ -144,7 +203,7 @@ public class ChallengeControllerTest {
         void shouldGetChallengesByDuration() throws Exception {
                 LocalDateTime duration = LocalDateTime.now().plusDays(7);
                 List<ChallengeResponse> challenges = List.of(
-                                new ChallengeResponse("Challenge1", null, null, null, null, duration, null, null, null, null));
+                                new ChallengeResponse("Challenge1", null, null, null, null, duration, null, null, null, null, null));
 
                 when(challengeService.getChallengeByDuration(duration)).thenReturn(challenges);
 
@@ -197,7 +256,7 @@ public class ChallengeControllerTest {
                                 "Challenge1",
                                 "Updated Desc",
                                 "imageUrl1",
-                                null, null, null, null, null, null, null);
+                                null, null, null, null, null, null, null, null);
 
                 when(challengeService.updateChallenge(updated)).thenReturn(challenge);
 
@@ -216,10 +275,33 @@ public class ChallengeControllerTest {
         @Test
         @DisplayName("Should delete challenge successfully")
         void shouldDeleteChallenge() throws Exception {
-                doNothing().when(challengeService).deleteChallenge("Challenge1");
+                doNothing().when(challengeService).deleteChallenge("Challenge1", false);
 
                 mockMvc.perform(delete("/challenges/Challenge1"))
                                 .andExpect(status().isOk());
+
+                verify(challengeService).deleteChallenge("Challenge1", false);
+        }
+
+        @Test
+        @DisplayName("Should soft delete a challenge when asked to")
+        void shouldSoftDeleteChallenge() throws Exception {
+                mockMvc.perform(delete("/challenges/Challenge1").param("soft", "true"))
+                                .andExpect(status().isOk());
+
+                verify(challengeService).deleteChallenge("Challenge1", true);
+        }
+
+        @Test
+        @DisplayName("Should report the progress of the purge")
+        void shouldReturnPurgeStatus() throws Exception {
+                when(challengePurger.status()).thenReturn(new PurgeStatus(2, 1, "Challenge1", 5, 0, 1200, null));
+
+                mockMvc.perform(get("/challenges/purge/status"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.pendingChallenges").value(2))
+                                .andExpect(jsonPath("$.currentChallenge").value("Challenge1"))
+                                .andExpect(jsonPath("$.purgedRows").value(1200));
         }
 
         @Test
@@ -230,7 +312,7 @@ public class ChallengeControllerTest {
 
                 // Mock service
                 ChallengeResponse mockChallenge = new ChallengeResponse(
-                                challengeName, null, null, null, null, null, null, null, null, null);
+                                challengeName, null, null, null, null, null, null, null, null, null, null);
 
                 when(challengeService.addUserByEmail(userEmail, challengeName)).thenReturn(mockChallenge);
 
@@ -313,6 +395,63 @@ public class ChallengeControllerTest {
                                 });
         }
 
+        @Test
+        @DisplayName("Should page modules with their match count and top challenges")
+        void shouldReturnBoundedSearchGroupedByModule() throws Exception {
+                ModuleWithChallengesDTO hydration = ModuleWithChallengesDTO.builder()
+                                .moduleName("Hidratación")
+                                .challenges(List.of())
+                                .totalChallenges(40)
+                                .build();
+                when(challengeService.searchChallengesGroupedByModule(eq("agua"), eq(3), any(Pageable.class)))
+                                .thenReturn(new PageImpl<>(List.of(hydration)));
+
+                mockMvc.perform(get("/challenges/search/modules")
+                                .param("q", "agua")
+                                .param("perModule", "3"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[0].moduleName").value("Hidratación"))
+                                .andExpect(jsonPath("$.content[0].totalChallenges").value(40));
+        }
+
+        @Test
+        @DisplayName("Should return an empty page of modules when the search query is blank")
+        void shouldReturnEmptyPageForBlankBoundedSearch() throws Exception {
+                mockMvc.perform(get("/challenges/search/modules").param("q", " "))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content").isEmpty());
+
+                verifyNoInteractions(challengeService);
+        }
+
+        @Test
+        @DisplayName("Should return the module leaderboard and the rank of a user")
+        void shouldReturnLeaderboardAndRank() throws Exception {
+                when(challengeService.getLeaderboard("Nutrición", 5)).thenReturn(List.of(
+                                new LeaderboardEntry(1, "a@eci.edu.co", "Ana", 4),
+                                new LeaderboardEntry(2, "b@eci.edu.co", "Beto", 2)));
+                when(challengeService.getLeaderboardRank(null, "b@eci.edu.co"))
+                                .thenReturn(new LeaderboardEntry(7, "b@eci.edu.co", "Beto", 2));
+
+                mockMvc.perform(get("/challenges/leaderboard").param("module", "Nutrición").param("limit", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].email").value("a@eci.edu.co"))
+                                .andExpect(jsonPath("$[1].rank").value(2));
+                mockMvc.perform(get("/challenges/leaderboard/users/b@eci.edu.co"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.rank").value(7))
+                                .andExpect(jsonPath("$.completed").value(2));
+        }
+
+        @Test
+        @DisplayName("Should open an event stream for a challenge")
+        void shouldStreamChallengeEvents() throws Exception {
+                when(challengeService.subscribeToEvents("Challenge1")).thenReturn(new SseEmitter());
+
+                mockMvc.perform(get("/challenges/Challenge1/events").accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(request().asyncStarted());
+        }
+
         @Test
         @DisplayName("Should return empty list when search query is null")
         void shouldReturnEmptyListWhenSearchQueryIsNull() throws Exception {
@@ -462,7 +601,7 @@ public class ChallengeControllerTest {
                 .map(ChallengeService::challengeToResponse)
                 .toList();
 
-        when(challengeService.getChallengesCompletedByUserEmail(userEmail))
+        when(challengeService.getChallengesCompletedByUserEmail(userEmail, false))
                 .thenReturn(confirmedChallenges);
 
         mockMvc.perform(get("/challenges/confirmed/" + userEmail))
@@ -477,4 +616,88 @@ public class ChallengeControllerTest {
                 });
     }
 
+
+    @Test
+    @DisplayName("Should confirm several users of a challenge in one request")
+    void shouldConfirmUsersInBulk() throws Exception {
+        List<String> emails = List.of("a@eci.edu.co", "b@eci.edu.co");
+        List<UserVerificationResult> results = List.of(
+                new UserVerificationResult("a@eci.edu.co", UserVerificationResult.Status.CONFIRMED, 1, 1),
+                new UserVerificationResult("b@eci.edu.co", UserVerificationResult.Status.NOT_REGISTERED, null, 1));
+
+        when(challengeService.confirmUsersByEmail("Challenge1", emails)).thenReturn(results);
+
+        mockMvc.perform(put("/challenges/Challenge1/confirm")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(emails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_REGISTERED"));
+    }
+
+    @Test
+    @DisplayName("Should enroll users in bulk from a streamed CSV body")
+    void shouldEnrollUsersFromCsv() throws Exception {
+        String csv = "email\na@eci.edu.co, b@eci.edu.co\n\nghost@eci.edu.co\n";
+        List<String> received = new ArrayList<>();
+        when(challengeService.enrollUsersByEmail(eq("Challenge1"), any())).thenAnswer(invocation -> {
+            Stream<String> emails = invocation.getArgument(1);
+            emails.forEach(received::add);
+            return new EnrollmentReport(2, 0, 0, List.of(), 2, List.of("email", "ghost@eci.edu.co"));
+        });
+
+        mockMvc.perform(post("/challenges/Challenge1/users")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrolled").value(2))
+                .andExpect(jsonPath("$.unknownCount").value(2))
+                .andExpect(jsonPath("$.unknownEmails[1]").value("ghost@eci.edu.co"));
+
+        // La cabecera no se descarta: el servicio la reporta como desconocida
+        assertEquals(List.of("email", "a@eci.edu.co", "b@eci.edu.co", "", "ghost@eci.edu.co"), received);
+    }
+
+    @Test
+    @DisplayName("Should enroll users in bulk from a JSON list")
+    void shouldEnrollUsersFromJson() throws Exception {
+        when(challengeService.enrollUsersByEmail(eq("Challenge1"), any()))
+                .thenReturn(new EnrollmentReport(1, 1, 1, List.of("a@eci.edu.co"), 0, List.of()));
+
+        mockMvc.perform(post("/challenges/Challenge1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of("a@eci.edu.co", "b@eci.edu.co", "a@eci.edu.co"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrolled").value(1))
+                .andExpect(jsonPath("$.alreadyRegistered").value(1))
+                .andExpect(jsonPath("$.duplicates[0]").value("a@eci.edu.co"));
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a buffered verification with 202")
+    void shouldAcknowledgeBufferedVerification() throws Exception {
+        when(verificationBuffer.verify("a@eci.edu.co", "Challenge1"))
+                .thenReturn(new VerificationAck("Challenge1", "a@eci.edu.co", 2, 3, false, true));
+
+        mockMvc.perform(post("/challenges/users/a@eci.edu.co/challenges/Challenge1/verifications"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.projectedVerifications").value(2))
+                .andExpect(jsonPath("$.confirmed").value(false));
+    }
+
+    @Test
+    @DisplayName("Should keep the verification status JSON fields")
+    void shouldReturnUserVerificationStatus() throws Exception {
+        when(challengeService.getUserVerificationStatus("a@eci.edu.co", "Challenge1"))
+                .thenReturn(new UserVerificationStatus(1, 2, true, false));
+
+        mockMvc.perform(get("/challenges/Challenge1/users/a@eci.edu.co/verification-status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentVerifications").value(1))
+                .andExpect(jsonPath("$.requiredVerifications").value(2))
+                .andExpect(jsonPath("$.isRegistered").value(true))
+                .andExpect(jsonPath("$.isConfirmed").value(false));
+    }
+
 }
@@ -7,6 +7,7 @@ import edu.escuelaing.ecicare.awards.models.entity.RedeemableId;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleStats;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
 import edu.escuelaing.ecicare.challenges.models.entity.Module;
 import edu.escuelaing.ecicare.challenges.services.ChallengeService;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -27,6 +29,7 @@ import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -56,7 +59,7 @@ class ModuleControllerTest {
                 "Module1",
                 "Description1",
                 "ImageUrl1",
-                Collections.emptyList());
+                Collections.emptyList(), null, 0);
 
         when(moduleService.createModule(any(ModuleDTO.class)))
                 .thenReturn(moduleResponse);
@@ -74,15 +77,39 @@ class ModuleControllerTest {
                 });
     }
 
+    @Test
+    @DisplayName("Should return the statistics of every module")
+    void shouldReturnModuleStats() throws Exception {
+        when(moduleService.getModuleStats()).thenReturn(List.of(new ModuleStats("Module1", 2, 3, 1, 1)));
+
+        mockMvc.perform(get("/modules/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].moduleName").value("Module1"))
+                .andExpect(jsonPath("$[0].challenges").value(2))
+                .andExpect(jsonPath("$[0].completionRate").value(0.25));
+    }
+
+    @Test
+    @DisplayName("Should pass the per-module challenge cap to paginated listings")
+    void shouldCapChallengesPerModule() throws Exception {
+        when(moduleService.getAllModulesPaginated(0, 5, 3)).thenReturn(new PageImpl<>(List.of(
+                new ModuleResponse("Module1", "Desc1", null, Collections.emptyList(), null, 12))));
+
+        mockMvc.perform(get("/modules/modulesWithChallenges").param("page", "0").param("size", "5")
+                        .param("challengesPerModule", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].totalChallenges").value(12));
+    }
+
     @Test
     @DisplayName("Should return all modules when they exist")
     void shouldGetAllModules() throws Exception {
         List<ModuleResponse> modules = Arrays.asList(
-                new ModuleResponse("Module1", "Desc1", null, Collections.emptyList()),
-                new ModuleResponse("Module2", "Desc2", null, Collections.emptyList())
+                new ModuleResponse("Module1", "Desc1", null, Collections.emptyList(), null, 0),
+                new ModuleResponse("Module2", "Desc2", null, Collections.emptyList(), null, 0)
         );
 
-        when(moduleService.getAllModules()).thenReturn(modules);
+        when(moduleService.getAllModules(null)).thenReturn(modules);
 
         mockMvc.perform(get("/modules/modulesWithChallenges"))
                 .andExpect(status().isOk())
@@ -176,7 +203,7 @@ class ModuleControllerTest {
                 "Module1",
                 "New Description",
                 "ImageUrl1",
-                Collections.emptyList());
+                Collections.emptyList(), null, 0);
 
         when(moduleService.updateModuleByName(moduleDto))
                 .thenReturn(moduleResponse);
@@ -190,9 +217,11 @@ class ModuleControllerTest {
     @Test
     @DisplayName("Should call deleteModule when deleting a challenge")
     void shouldDeleteModule() throws Exception {
-        doNothing().when(moduleService).deleteModule("Module1");
+        doNothing().when(moduleService).deleteModule("Module1", false);
 
         mockMvc.perform(delete("/modules/Module1"))
                 .andExpect(status().isOk());
+
+        verify(moduleService).deleteModule("Module1", false);
     }
 }
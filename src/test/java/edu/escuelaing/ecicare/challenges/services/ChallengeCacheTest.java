@@ -0,0 +1,149 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.AdminDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.utils.models.dto.CacheMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeCacheTest {
+
+    private final ChallengeCache cache = new ChallengeCache(100, 600);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ChallengeResponse response(String name, String description) {
+        return new ChallengeResponse(name, description, null, null, new ArrayList<>(List.of("tip")), null,
+                null, "Nutrition", 1, null, null);
+    }
+
+    @Test
+    @DisplayName("Should load a challenge once and record hits and misses")
+    void response_shouldLoadOnceAndRecordStats() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.response("Challenge1", name -> {
+            loads.incrementAndGet();
+            return response(name, "Desc");
+        });
+        ChallengeResponse cached = cache.response("Challenge1", name -> {
+            loads.incrementAndGet();
+            return response(name, "Other");
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(cached.description()).isEqualTo("Desc");
+        CacheMetrics metrics = cache.stats().get(0);
+        assertThat(metrics.hitCount()).isEqualTo(1);
+        assertThat(metrics.missCount()).isEqualTo(1);
+        assertThat(metrics.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown challenges")
+    void response_whenLoaderReturnsNull_shouldNotCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.response("Missing", name -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        cache.response("Missing", name -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should detach cached lists from the loaded entity")
+    void response_shouldCopyLists() {
+        ChallengeResponse loaded = response("Challenge1", "Desc");
+
+        ChallengeResponse cached = cache.response("Challenge1", name -> loaded);
+        loaded.tips().add("changed later");
+
+        assertThat(cached.tips()).containsExactly("tip");
+    }
+
+    @Test
+    @DisplayName("Should drop the response, awards and administrator of a challenge")
+    void invalidate_shouldDropEveryValueOfTheChallenge() {
+        cache.response("Challenge1", name -> response(name, "Desc"));
+        cache.awards("Challenge1", name -> List.of());
+        cache.administrator("Challenge1", name -> new AdminDTO("Admin", "admin@eci.edu.co"));
+
+        cache.invalidate("Challenge1");
+
+        assertThat(cache.stats()).extracting(CacheMetrics::size).containsOnly(0L);
+    }
+
+    @Test
+    @DisplayName("Should drop again after commit the values reloaded during the transaction")
+    void invalidate_insideTransaction_shouldDropAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.response("Challenge1", name -> response(name, "Old"));
+
+        cache.invalidate("Challenge1");
+        // Otro hilo lee el estado anterior al commit
+        cache.response("Challenge1", name -> response(name, "Old"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        ChallengeResponse fresh = cache.response("Challenge1", name -> response(name, "New"));
+        assertThat(fresh.description()).isEqualTo("New");
+    }
+
+    @Test
+    @DisplayName("Should not keep a value whose load was in flight during the invalidation")
+    void invalidate_duringLoad_shouldWaitAndDropTheLoadedValue() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ChallengeResponse> reader = executor.submit(() -> cache.response("Challenge1", name -> {
+                loading.countDown();
+                await(release);
+                return response(name, "Old");
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> writer = executor.submit(() -> cache.invalidate("Challenge1"));
+
+            release.countDown();
+            reader.get(5, TimeUnit.SECONDS);
+            writer.get(5, TimeUnit.SECONDS);
+
+            ChallengeResponse fresh = cache.response("Challenge1", name -> response(name, "New"));
+            assertThat(fresh.description()).isEqualTo("New");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeDeadline;
+import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.models.entity.Module;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeDeadlineSchedulerTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    private ChallengeDeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ChallengeDeadlineScheduler(challengeRepository);
+    }
+
+    private static ChallengeDeadline deadline(String name, LocalDateTime duration) {
+        return new ChallengeDeadline(name, "Module1", duration);
+    }
+
+    @Test
+    @DisplayName("Should close at startup the challenges that expired while the application was down")
+    void warmUp_shouldCloseAlreadyExpiredChallenges() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        when(challengeRepository.findOpenDeadlines()).thenReturn(List.of(
+                deadline("Old", LocalDateTime.now().minusDays(1)), deadline("Next", tomorrow)));
+        when(challengeRepository.closeExpired(any(LocalDateTime.class))).thenReturn(1);
+
+        scheduler.warmUp();
+
+        verify(challengeRepository).closeExpired(any(LocalDateTime.class));
+        assertThat(scheduler.nextDeadline()).contains(tomorrow);
+    }
+
+    @Test
+    @DisplayName("Should not touch the database while no deadline has passed")
+    void closeExpired_whenNothingExpired_shouldNotQuery() {
+        when(challengeRepository.findOpenDeadlines())
+                .thenReturn(List.of(deadline("Next", LocalDateTime.now().plusDays(1))));
+        scheduler.warmUp();
+
+        assertThat(scheduler.closeExpired()).isZero();
+
+        verify(challengeRepository, never()).closeExpired(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should track created challenges and close them once their deadline passes")
+    void scheduled_shouldBeClosedWhenExpired() {
+        Challenge challenge = Challenge.builder()
+                .name("Challenge1")
+                .duration(LocalDateTime.now().minusSeconds(1))
+                .module(new Module("Module1"))
+                .build();
+        when(challengeRepository.closeExpired(any(LocalDateTime.class))).thenReturn(1);
+
+        scheduler.scheduled(challenge);
+
+        assertThat(scheduler.closeExpired()).isEqualTo(1);
+        assertThat(scheduler.nextDeadline()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep expired deadlines queued when closing fails")
+    void closeExpired_whenUpdateFails_shouldRetryLater() {
+        scheduler.scheduled(Challenge.builder().name("Challenge1").duration(LocalDateTime.now().minusSeconds(1))
+                .build());
+        when(challengeRepository.closeExpired(any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+
+        assertThat(scheduler.closeExpired()).isZero();
+        assertThat(scheduler.nextDeadline()).isPresent();
+
+        assertThat(scheduler.closeExpired()).isEqualTo(1);
+        assertThat(scheduler.nextDeadline()).isEmpty();
+    }
+}
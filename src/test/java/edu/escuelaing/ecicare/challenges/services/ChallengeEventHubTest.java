@@ -0,0 +1,125 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeEventHubTest {
+
+    private ChallengeEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new ChallengeEventHub(2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        hub.shutdown();
+    }
+
+    private static ChallengeEvent verified(String email, int count) {
+        return new ChallengeEvent(ChallengeEvent.Type.VERIFIED, "Challenge1", email, count, 1, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should push events only to the subscribers of the challenge, after the commit")
+    void publish_shouldReachSubscribersAfterCommit() throws InterruptedException {
+        RecordingEmitter watcher = new RecordingEmitter(null);
+        RecordingEmitter other = new RecordingEmitter(null);
+        hub.subscribe("Challenge1", watcher);
+        hub.subscribe("Challenge2", other);
+
+        TransactionSynchronizationManager.initSynchronization();
+        hub.publish("Challenge1", List.of(verified("a@eci.edu.co", 1)));
+        assertThat(watcher.sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(watcher.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(other.sent).isEmpty();
+        assertThat(hub.isWatched("Challenge1")).isTrue();
+        assertThat(hub.isWatched("Challenge3")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should disconnect a subscriber whose buffer fills up without blocking the publisher")
+    void publish_whenSubscriberIsSlow_shouldDisconnectIt() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        hub.subscribe("Challenge1", slow);
+
+        hub.publish("Challenge1", List.of(verified("a@eci.edu.co", 1)));
+        // El primer envío queda bloqueado; los siguientes llenan el buffer de 2
+        assertThat(slow.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        hub.publish("Challenge1", List.of(verified("b@eci.edu.co", 1), verified("c@eci.edu.co", 1),
+                verified("d@eci.edu.co", 1)));
+
+        assertThat(hub.subscriberCount("Challenge1")).isZero();
+        assertThat(hub.isWatched("Challenge1")).isFalse();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should drop subscribers whose connection fails")
+    void publish_whenSendFails_shouldRemoveSubscriber() throws InterruptedException {
+        RecordingEmitter broken = new RecordingEmitter(null);
+        broken.failing = true;
+        hub.subscribe("Challenge1", broken);
+
+        hub.publish("Challenge1", List.of(verified("a@eci.edu.co", 1)));
+
+        assertThat(broken.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        for (int i = 0; i < 50 && hub.subscriberCount("Challenge1") > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(hub.subscriberCount("Challenge1")).isZero();
+    }
+
+    /**
+     * Emitter that records the events instead of writing them to a response,
+     * optionally blocking every send until released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private volatile boolean failing;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sent.add(builder);
+            if (failing) {
+                throw new IOException("connection reset");
+            }
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
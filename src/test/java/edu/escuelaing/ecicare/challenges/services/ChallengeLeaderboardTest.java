@@ -0,0 +1,170 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardCompletion;
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardEntry;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
+import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeLeaderboardTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private UserEcicareRepository userEcicareRepository;
+
+    private ChallengeLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new ChallengeLeaderboard(challengeRepository, userEcicareRepository);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static LeaderboardCompletion completion(long userId, String challenge, String module) {
+        return new LeaderboardCompletion(userId, "user" + userId + "@eci.edu.co", "User " + userId, challenge,
+                module);
+    }
+
+    private void rebuild(List<LeaderboardCompletion> completions) {
+        when(challengeRepository.findAllCompletions()).thenReturn(completions);
+        leaderboard.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should rank users overall and per module")
+    void rebuild_shouldRankOverallAndPerModule() {
+        rebuild(List.of(completion(1, "Frutas", "Nutrición"), completion(1, "Agua", "Nutrición"),
+                completion(2, "Frutas", "Nutrición"), completion(2, "Correr", "Ejercicio"),
+                completion(2, "Nadar", "Ejercicio"), completion(2, "Saltar", "Ejercicio"),
+                completion(3, "Correr", "Ejercicio"), completion(3, "Nadar", "Ejercicio")));
+
+        assertThat(leaderboard.top(null, 10)).containsExactly(
+                new LeaderboardEntry(1, "user2@eci.edu.co", "User 2", 4),
+                new LeaderboardEntry(2, "user1@eci.edu.co", "User 1", 2),
+                new LeaderboardEntry(2, "user3@eci.edu.co", "User 3", 2));
+        assertThat(leaderboard.top("Ejercicio", 1)).extracting(LeaderboardEntry::email)
+                .containsExactly("user2@eci.edu.co");
+        assertThat(leaderboard.rankOf("Nutrición", "USER2@eci.edu.co ").rank()).isEqualTo(2);
+        assertThat(leaderboard.top("Desconocido", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank users without completions after the last ranked user")
+    void rankOf_withoutCompletions_shouldShareLastRank() {
+        rebuild(List.of(completion(1, "Frutas", "Nutrición"), completion(1, "Agua", "Nutrición"),
+                completion(2, "Correr", "Ejercicio")));
+
+        assertThat(leaderboard.rankOf(null, "nobody@eci.edu.co"))
+                .isEqualTo(new LeaderboardEntry(3, "nobody@eci.edu.co", null, 0));
+        assertThat(leaderboard.rankOf("Ejercicio", "user1@eci.edu.co"))
+                .isEqualTo(new LeaderboardEntry(2, "user1@eci.edu.co", "User 1", 0));
+    }
+
+    @Test
+    @DisplayName("Should count promotions only after the transaction commits")
+    void completed_shouldApplyAfterCommit() {
+        rebuild(List.of(completion(1, "Agua", "Nutrición")));
+        when(challengeRepository.findModuleNameByChallengeName("Comer frutas")).thenReturn("Nutrición");
+        when(userEcicareRepository.findAllById(List.of(2L))).thenReturn(List.of(
+                UserEcicare.builder().idEci(2L).email("user2@eci.edu.co").name("User 2").build()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        leaderboard.completed("Comer frutas", List.of(1L, 2L));
+        assertThat(leaderboard.top(null, 10)).hasSize(1);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(leaderboard.top("Nutrición", 10)).containsExactly(
+                new LeaderboardEntry(1, "user1@eci.edu.co", "User 1", 2),
+                new LeaderboardEntry(2, "user2@eci.edu.co", "User 2", 1));
+        assertThat(leaderboard.rankOf(null, "user2@eci.edu.co").rank()).isEqualTo(2);
+
+        leaderboard.completed("Comer frutas", List.of(2L));
+        leaderboard.completed("Comer frutas", List.of(1L));
+
+        verify(challengeRepository, times(1)).findModuleNameByChallengeName("Comer frutas");
+        verify(userEcicareRepository, times(1)).findAllById(any());
+        assertThat(leaderboard.rankOf(null, "user2@eci.edu.co").rank()).isEqualTo(2);
+        assertThat(leaderboard.top(null, 1)).extracting(LeaderboardEntry::completed).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Should keep ranks right when counts grow past the initial capacity")
+    void completed_withManyCompletions_shouldGrowTree() {
+        List<LeaderboardCompletion> completions = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            for (int challenge = 1; challenge <= id; challenge++) {
+                completions.add(completion(id, "Reto " + challenge, "Nutrición"));
+            }
+        }
+        rebuild(completions);
+
+        assertThat(leaderboard.rankOf(null, "user40@eci.edu.co").rank()).isEqualTo(1);
+        assertThat(leaderboard.rankOf(null, "user1@eci.edu.co").rank()).isEqualTo(40);
+        assertThat(leaderboard.rankOf(null, "user25@eci.edu.co").rank()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("Should discount deleted challenges and move completions between modules")
+    void deletedAndMoved_shouldAdjustBoardsInPlace() {
+        rebuild(List.of(completion(1, "Frutas", "Nutrición"), completion(1, "Agua", "Nutrición"),
+                completion(2, "Frutas", "Nutrición"), completion(2, "Correr", "Ejercicio")));
+
+        leaderboard.deleted(List.of("Frutas"));
+        leaderboard.deleted(List.of("Frutas"));
+        leaderboard.moved("Correr", "Nutrición");
+        leaderboard.moved("Correr", "Nutrición");
+
+        assertThat(leaderboard.top(null, 10)).containsExactly(
+                new LeaderboardEntry(1, "user1@eci.edu.co", "User 1", 1),
+                new LeaderboardEntry(1, "user2@eci.edu.co", "User 2", 1));
+        assertThat(leaderboard.top("Nutrición", 10)).extracting(LeaderboardEntry::completed).containsExactly(1, 1);
+        assertThat(leaderboard.top("Ejercicio", 10)).isEmpty();
+        verify(challengeRepository, times(1)).findAllCompletions();
+    }
+
+    @Test
+    @DisplayName("Should apply changes committed during a rebuild once, whether or not the read saw them")
+    void rebuild_shouldReplayChangesIdempotently() {
+        when(challengeRepository.findModuleNameByChallengeName(anyString())).thenReturn("Nutrición");
+        when(userEcicareRepository.findAllById(any())).thenReturn(List.of(
+                UserEcicare.builder().idEci(1L).email("user1@eci.edu.co").name("User 1").build()));
+        when(challengeRepository.findAllCompletions()).thenAnswer(invocation -> {
+            // Una promoción que la lectura ya ve, otra que no, y un borrado que ya ve
+            leaderboard.completed("Frutas", List.of(1L));
+            leaderboard.completed("Agua", List.of(1L));
+            leaderboard.deleted(List.of("Correr"));
+            return List.of(completion(1, "Frutas", "Nutrición"), completion(1, "Leer", "Nutrición"));
+        });
+
+        leaderboard.rebuild();
+
+        assertThat(leaderboard.top(null, 10)).containsExactly(
+                new LeaderboardEntry(1, "user1@eci.edu.co", "User 1", 3));
+        assertThat(leaderboard.rankOf("Nutrición", "user1@eci.edu.co").completed()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,116 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeMembershipIndexTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    private ChallengeMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ChallengeMembershipIndex(challengeRepository, 300);
+    }
+
+    @Test
+    @DisplayName("Should read a challenge again from the database once its entry expires")
+    void isRegistered_whenEntryExpired_shouldReload() {
+        index = new ChallengeMembershipIndex(challengeRepository, 0);
+        when(challengeRepository.existsById("Challenge1")).thenReturn(true);
+        when(challengeRepository.findRegisteredUserIdsByChallenge("Challenge1"))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of(1L, 2L));
+        when(challengeRepository.findConfirmedUserIdsByChallenge("Challenge1")).thenReturn(List.of());
+
+        assertFalse(index.isRegistered("Challenge1", 2L));
+        assertTrue(index.isRegistered("Challenge1", 2L));
+
+        verify(challengeRepository, times(2)).findRegisteredUserIdsByChallenge("Challenge1");
+    }
+
+    @Test
+    @DisplayName("Should load a challenge from the database once on a cache miss")
+    void isRegistered_whenMissing_shouldLoadOnce() {
+        when(challengeRepository.existsById("Challenge1")).thenReturn(true);
+        when(challengeRepository.findRegisteredUserIdsByChallenge("Challenge1")).thenReturn(List.of(5L));
+        when(challengeRepository.findConfirmedUserIdsByChallenge("Challenge1")).thenReturn(List.of());
+
+        assertTrue(index.isRegistered("Challenge1", 5L));
+        assertFalse(index.isConfirmed("Challenge1", 5L));
+        assertFalse(index.isRegistered("Challenge1", 6L));
+
+        verify(challengeRepository, times(1)).findRegisteredUserIdsByChallenge("Challenge1");
+    }
+
+    @Test
+    @DisplayName("Should not cache challenges that do not exist")
+    void isRegistered_whenChallengeDoesNotExist_shouldReturnFalse() {
+        when(challengeRepository.existsById("Missing")).thenReturn(false);
+
+        assertFalse(index.isRegistered("Missing", 1L));
+        assertFalse(index.isRegistered("Missing", 1L));
+
+        verify(challengeRepository, times(2)).existsById("Missing");
+        verify(challengeRepository, never()).findRegisteredUserIdsByChallenge(anyString());
+    }
+
+    @Test
+    @DisplayName("Should apply enrollments, promotions and evictions to loaded challenges")
+    void updates_shouldKeepIndexCurrent() {
+        when(challengeRepository.existsById("Challenge1")).thenReturn(true);
+        when(challengeRepository.findRegisteredUserIdsByChallenge("Challenge1")).thenReturn(List.of(1L));
+        when(challengeRepository.findConfirmedUserIdsByChallenge("Challenge1")).thenReturn(List.of());
+        assertTrue(index.isRegistered("Challenge1", 1L));
+
+        index.registered("Challenge1", List.of(2L));
+        index.promoted("Challenge1", List.of(1L));
+
+        assertTrue(index.isRegistered("Challenge1", 2L));
+        assertFalse(index.isRegistered("Challenge1", 1L));
+        assertTrue(index.isConfirmed("Challenge1", 1L));
+
+        verify(challengeRepository, times(1)).findRegisteredUserIdsByChallenge("Challenge1");
+
+        index.evict("Challenge1");
+        when(challengeRepository.existsById("Challenge1")).thenReturn(false);
+        assertFalse(index.isRegistered("Challenge1", 2L));
+    }
+
+    @Test
+    @DisplayName("Should not register again a user who already completed the challenge")
+    void registered_whenUserConfirmed_shouldStayConfirmedOnly() {
+        when(challengeRepository.existsById("Challenge1")).thenReturn(true);
+        when(challengeRepository.findRegisteredUserIdsByChallenge("Challenge1")).thenReturn(List.of());
+        when(challengeRepository.findConfirmedUserIdsByChallenge("Challenge1")).thenReturn(List.of(1L));
+        assertTrue(index.isConfirmed("Challenge1", 1L));
+
+        index.registered("Challenge1", List.of(1L, 2L));
+
+        assertFalse(index.isRegistered("Challenge1", 1L));
+        assertTrue(index.isRegistered("Challenge1", 2L));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database for ids outside the bitmap range")
+    void isRegistered_whenIdDoesNotFitInBitmap_shouldQueryDatabase() {
+        long bigId = Integer.MAX_VALUE + 1L;
+        when(challengeRepository.isUserRegisteredInChallenge("Challenge1", bigId)).thenReturn(true);
+
+        assertTrue(index.isRegistered("Challenge1", bigId));
+    }
+}
@@ -0,0 +1,102 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.awards.repositories.RedeemableRepository;
+import edu.escuelaing.ecicare.challenges.models.dto.PurgeStatus;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ParticipationArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengePurgerTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Mock
+    private ParticipationArchiveRepository archiveRepository;
+
+    @Mock
+    private RedeemableRepository redeemableRepository;
+
+    @Mock
+    private ChallengeLeaderboard leaderboard;
+
+    private ChallengePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        purger = new ChallengePurger(challengeRepository, moduleRepository, archiveRepository, redeemableRepository,
+                leaderboard, 2, 0);
+    }
+
+    @Test
+    @DisplayName("Should delete the rows of a deleted challenge in chunks and the challenge last")
+    void purgeDeleted_shouldDrainChunksThenDeleteChallenge() {
+        when(challengeRepository.findDeletedNames(anyInt())).thenReturn(List.of("Challenge1"));
+        when(archiveRepository.findRegisteredUserIds("Challenge1", 2)).thenReturn(List.of(1L, 2L), List.of(3L),
+                List.of());
+        when(challengeRepository.unregisterUsersFromChallenge("Challenge1", List.of(1L, 2L))).thenReturn(2);
+        when(challengeRepository.unregisterUsersFromChallenge("Challenge1", List.of(3L))).thenReturn(1);
+        when(archiveRepository.deleteParticipationChunk("Challenge1", 2)).thenReturn(2, 0);
+        when(moduleRepository.findPurgeableNames()).thenReturn(List.of("Module1"));
+
+        assertThat(purger.purgeDeleted()).isEqualTo(1);
+
+        InOrder order = inOrder(challengeRepository, archiveRepository, leaderboard, moduleRepository);
+        order.verify(challengeRepository, times(2)).unregisterUsersFromChallenge(eq("Challenge1"), anyList());
+        order.verify(archiveRepository, times(2)).deleteParticipationChunk("Challenge1", 2);
+        order.verify(challengeRepository).deleteChallengesByNameIn(List.of("Challenge1"));
+        order.verify(leaderboard).deleted(List.of("Challenge1"));
+        order.verify(moduleRepository).deleteModuleByName("Module1");
+        PurgeStatus status = purger.status();
+        assertThat(status.purgedChallenges()).isEqualTo(1);
+        assertThat(status.purgedModules()).isEqualTo(1);
+        assertThat(status.purgedRows()).isEqualTo(5);
+        assertThat(status.currentChallenge()).isNull();
+        assertThat(status.lastRunAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep a challenge marked and go on with the next one when its purge fails")
+    void purgeDeleted_whenChunkFails_shouldContinue() {
+        when(challengeRepository.findDeletedNames(anyInt())).thenReturn(List.of("Challenge1", "Challenge2"));
+        when(archiveRepository.findRegisteredUserIds(anyString(), eq(2))).thenReturn(List.of());
+        when(archiveRepository.findConfirmedUserIds("Challenge1", 2)).thenThrow(new RuntimeException("lock timeout"));
+        when(archiveRepository.findConfirmedUserIds("Challenge2", 2)).thenReturn(List.of());
+
+        assertThat(purger.purgeDeleted()).isEqualTo(1);
+
+        verify(challengeRepository, never()).deleteChallengesByNameIn(List.of("Challenge1"));
+        verify(challengeRepository).deleteChallengesByNameIn(List.of("Challenge2"));
+        verify(leaderboard, never()).deleted(List.of("Challenge1"));
+        verify(leaderboard).deleted(List.of("Challenge2"));
+    }
+
+    @Test
+    @DisplayName("Should go on with the next module when deleting one fails")
+    void purgeDeleted_whenModuleDeleteFails_shouldContinue() {
+        when(moduleRepository.findPurgeableNames()).thenReturn(List.of("Module1", "Module2"));
+        when(moduleRepository.deleteModuleByName("Module1")).thenThrow(new RuntimeException("lock timeout"));
+
+        assertThat(purger.purgeDeleted()).isZero();
+
+        verify(moduleRepository).deleteModuleByName("Module2");
+    }
+}
@@ -0,0 +1,121 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.models.entity.Module;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeResponseAssemblerTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @InjectMocks
+    private ChallengeResponseAssembler assembler;
+
+    private static List<Challenge> challenges(int count, Module module) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Challenge.builder()
+                        .name("Challenge" + i)
+                        .description("Description")
+                        .duration(LocalDateTime.now())
+                        .tips(List.of("tip"))
+                        .goals(List.of("goal"))
+                        .module(module)
+                        .build())
+                .toList();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 50 })
+    @DisplayName("Should load the relations of any page size with the same three queries")
+    void toResponses_shouldIssueConstantNumberOfQueries(int pageSize) {
+        List<Challenge> page = challenges(pageSize, new Module("Nutrition"));
+
+        List<ChallengeResponse> responses = assembler.toResponses(page);
+
+        assertThat(responses).hasSize(pageSize);
+        verify(challengeRepository, times(1)).fetchTipsByNameIn(anyCollection());
+        verify(challengeRepository, times(1)).fetchGoalsByNameIn(anyCollection());
+        verify(challengeRepository, times(1)).fetchRedeemablesByNameIn(anyCollection());
+        verifyNoMoreInteractions(challengeRepository);
+    }
+
+    @Test
+    @DisplayName("Should keep the order of the page when mapping")
+    void toResponses_shouldKeepPageOrder() {
+        Page<Challenge> page = new PageImpl<>(challenges(3, new Module("Nutrition")));
+
+        Page<ChallengeResponse> responses = assembler.toResponses(page);
+
+        assertThat(responses.getContent()).extracting(ChallengeResponse::name)
+                .containsExactly("Challenge0", "Challenge1", "Challenge2");
+        assertThat(responses.getContent().get(0).moduleName()).isEqualTo("Nutrition");
+    }
+
+    @Test
+    @DisplayName("Should not query anything for an empty page")
+    void toResponses_whenEmpty_shouldNotQuery() {
+        assertThat(assembler.toResponses(List.of())).isEmpty();
+
+        verifyNoInteractions(challengeRepository);
+    }
+
+    @Test
+    @DisplayName("Should load the challenges of all modules with one query plus the challenge relations")
+    void toResponsesByModule_shouldIssueConstantNumberOfQueries() {
+        List<String> names = new ArrayList<>();
+        List<Challenge> all = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Module module = new Module("Module" + i);
+            names.add(module.getName());
+            all.addAll(challenges(5, module));
+        }
+        when(challengeRepository.findByModule_NameInOrderByNameAsc(names)).thenReturn(all);
+
+        Map<String, List<ChallengeResponse>> byModule = assembler.toResponsesByModule(names);
+
+        assertThat(byModule).hasSize(10);
+        assertThat(byModule.get("Module3")).hasSize(5);
+        verify(challengeRepository, times(1)).findByModule_NameInOrderByNameAsc(anyCollection());
+        verify(challengeRepository, times(1)).fetchTipsByNameIn(anyCollection());
+        verify(challengeRepository, times(1)).fetchGoalsByNameIn(anyCollection());
+        verify(challengeRepository, times(1)).fetchRedeemablesByNameIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should load only the first challenges of each module, keeping their order")
+    void toResponsesByModule_withLimit_shouldKeepDatabaseOrder() {
+        Module module = new Module("Module1");
+        List<Challenge> loaded = challenges(3, module);
+        when(challengeRepository.findTopNamesPerModule("", List.of("Module1"), 2))
+                .thenReturn(List.of("Challenge1", "Challenge0"));
+        when(challengeRepository.findAllById(List.of("Challenge1", "Challenge0")))
+                .thenReturn(List.of(loaded.get(0), loaded.get(1)));
+
+        Map<String, List<ChallengeResponse>> byModule = assembler.toResponsesByModule(List.of("Module1"), 2);
+
+        assertThat(byModule.get("Module1")).extracting(ChallengeResponse::name)
+                .containsExactly("Challenge1", "Challenge0");
+    }
+}
@@ -0,0 +1,174 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSearchDocument;
+import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
+import edu.escuelaing.ecicare.challenges.models.entity.Module;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeSearchIndexTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    private ChallengeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ChallengeSearchIndex(challengeRepository);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void warmUp(ChallengeSearchDocument... documents) {
+        when(challengeRepository.findAllSearchDocuments()).thenReturn(List.of(documents));
+        index.warmUp();
+    }
+
+    private static Challenge challenge(String name, String description, String module) {
+        return Challenge.builder().name(name).description(description).module(new Module(module)).build();
+    }
+
+    @Test
+    @DisplayName("Should not be ready before the initial build")
+    void isReady_beforeWarmUp_shouldBeFalse() {
+        assertThat(index.isReady()).isFalse();
+
+        warmUp();
+
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should match ignoring accents and case in any field")
+    void search_shouldIgnoreAccentsAndCase() {
+        warmUp(new ChallengeSearchDocument("Comer frutas", "Mejora tu nutrición diaria", "Alimentación"),
+                new ChallengeSearchDocument("Caminar", "Da 10000 pasos", "Ejercicio"));
+
+        assertThat(index.search("NUTRICION", null)).containsExactly("Comer frutas");
+        assertThat(index.search("alimentacion", null)).containsExactly("Comer frutas");
+        assertThat(index.search("Cañón", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above module and description matches")
+    void search_shouldRankByField() {
+        warmUp(new ChallengeSearchDocument("Dormir bien", "Evita el agua antes de dormir", "Descanso"),
+                new ChallengeSearchDocument("Tomar agua", "Dos litros", "Hidratación"),
+                new ChallengeSearchDocument("Pausas activas", "Estira", "Agua y salud"));
+
+        assertThat(index.search("agua", null)).containsExactly("Tomar agua", "Pausas activas", "Dormir bien");
+    }
+
+    @Test
+    @DisplayName("Should match short words only at the start of a word")
+    void search_withShortWord_shouldMatchPrefix() {
+        warmUp(new ChallengeSearchDocument("Yoga", null, "Ejercicio"),
+                new ChallengeSearchDocument("Hoy no", null, "Ejercicio"));
+
+        assertThat(index.search("yo", null)).containsExactly("Yoga");
+    }
+
+    @Test
+    @DisplayName("Should require every word and drop trigram false positives")
+    void search_shouldRequireAllWords() {
+        warmUp(new ChallengeSearchDocument("Correr cinco kilometros", null, "Ejercicio"),
+                new ChallengeSearchDocument("Correr", "Cinco minutos", "Ejercicio"),
+                new ChallengeSearchDocument("Nadar", null, "Ejercicio"));
+
+        assertThat(index.search("correr cinco", null))
+                .containsExactly("Correr cinco kilometros", "Correr");
+        // Contiene los trigramas "abc" y "bca" pero no la palabra "abca"
+        warmUp(new ChallengeSearchDocument("abc bca", null, "M"));
+        assertThat(index.search("abca", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should restrict results to the given module and page them")
+    void search_withModuleAndPage_shouldFilterAndPage() {
+        List<ChallengeSearchDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            documents.add(new ChallengeSearchDocument("Reto " + i, null, i % 2 == 0 ? "Par" : "Impar"));
+        }
+        warmUp(documents.toArray(ChallengeSearchDocument[]::new));
+
+        Page<String> page = index.search("reto", "Par", PageRequest.of(1, 2));
+
+        assertThat(page.getContent()).containsExactly("Reto 4");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should apply updates and deletions after commit")
+    void indexedAndRemoved_shouldApplyAfterCommit() {
+        warmUp(new ChallengeSearchDocument("Meditar", "Cinco minutos", "Descanso"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.indexed(challenge("Meditar", "Respira profundo", "Descanso"));
+        index.indexed(challenge("Leer", "Diez páginas", "Descanso"));
+        assertThat(index.search("respira", null)).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(index.search("respira", null)).containsExactly("Meditar");
+        assertThat(index.search("minutos", null)).isEmpty();
+        assertThat(index.search("paginas", null)).containsExactly("Leer");
+
+        index.removed("Meditar");
+
+        assertThat(index.search("descanso", null)).containsExactly("Leer");
+    }
+
+    @Test
+    @DisplayName("Should keep changes made before the initial build finished")
+    void warmUp_shouldNotOverwriteEarlierChanges() {
+        index.indexed(challenge("Meditar", "Respira profundo", "Descanso"));
+
+        warmUp(new ChallengeSearchDocument("Meditar", "Cinco minutos", "Descanso"));
+
+        assertThat(index.search("respira", null)).containsExactly("Meditar");
+    }
+
+    @Test
+    @DisplayName("Should page modules by name with their match counts and best challenges")
+    void searchByModule_shouldRankWithinEachModule() {
+        warmUp(new ChallengeSearchDocument("Beber agua", "Dos litros", "Hidratación"),
+                new ChallengeSearchDocument("Jugos", "Con agua de coco", "Hidratación"),
+                new ChallengeSearchDocument("Agua antes de correr", "Calentar", "Ejercicio"),
+                new ChallengeSearchDocument("Nadar", "En el agua", "ejercicio en piscina"),
+                new ChallengeSearchDocument("Dormir", "Ocho horas", "Descanso"));
+
+        Page<ChallengeSearchIndex.ModuleMatches> first = index.searchByModule("agua", 1, PageRequest.of(0, 2));
+        Page<ChallengeSearchIndex.ModuleMatches> second = index.searchByModule("agua", 1, PageRequest.of(1, 2));
+
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getContent()).containsExactly(
+                new ChallengeSearchIndex.ModuleMatches("Ejercicio", 1, List.of("Agua antes de correr")),
+                new ChallengeSearchIndex.ModuleMatches("ejercicio en piscina", 1, List.of("Nadar")));
+        assertThat(second.getContent()).containsExactly(
+                new ChallengeSearchIndex.ModuleMatches("Hidratación", 2, List.of("Beber agua")));
+        assertThat(index.searchByModule("zzz", 1, PageRequest.of(0, 2))).isEmpty();
+    }
+}
@@ -5,24 +5,47 @@ import edu.escuelaing.ecicare.awards.models.entity.Redeemable;
 import edu.escuelaing.ecicare.awards.models.entity.RedeemableId;
 import edu.escuelaing.ecicare.awards.repositories.RedeemableRepository;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeEvent;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleStats;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeUserStatus;
+import edu.escuelaing.ecicare.challenges.models.dto.EnrollmentReport;
+import edu.escuelaing.ecicare.challenges.models.dto.LeaderboardEntry;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleMatchCount;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleWithChallengesDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.UserEmailNameDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.UserVerificationResult;
+import edu.escuelaing.ecicare.challenges.models.dto.UserVerificationStatus;
+import edu.escuelaing.ecicare.challenges.models.dto.VerificationCountDTO;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
 import edu.escuelaing.ecicare.challenges.models.entity.Module;
 import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
 import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import edu.escuelaing.ecicare.users.models.dto.UserEmailIdDTO;
 import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
+import edu.escuelaing.ecicare.utils.models.dto.CacheMetrics;
 import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import edu.escuelaing.ecicare.utils.exceptions.ChallengeClosedException;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -44,9 +67,36 @@ class ChallengeServiceTest {
         @Mock
         private UserEcicareRepository userEcicareRepository;
 
-        @InjectMocks
+        @Mock
+        private ChallengeMembershipIndex membershipIndex;
+
+        @Mock
+        private ChallengeSearchIndex searchIndex;
+
+        @Mock
+        private ChallengeDeadlineScheduler deadlineScheduler;
+
+        @Mock
+        private ChallengeLeaderboard leaderboard;
+
+        @Mock
+        private ChallengeEventHub eventHub;
+
         private ChallengeService challengeService;
 
+        private ModuleStatsCache moduleStatsCache;
+
+        @BeforeEach
+        void setUp() {
+                moduleStatsCache = new ModuleStatsCache(30);
+                // Real assembler over the mocked repositories, so responses are still mapped
+                challengeService = new ChallengeService(challengeRepository, userEcicareRepository, moduleRepository,
+                                redeemableRepository, membershipIndex,
+                                new ChallengeResponseAssembler(challengeRepository),
+                                new ChallengeCache(100, 600), searchIndex, deadlineScheduler, leaderboard,
+                                eventHub, moduleStatsCache);
+        }
+
         private ChallengeDTO createTestChallengeDto(String name, String module) {
                 return ChallengeDTO.builder()
                                 .name(name)
@@ -174,13 +224,36 @@ class ChallengeServiceTest {
                 assertThat(result).isNull();
         }
 
+        @Test
+        @DisplayName("Should serve repeated reads from the cache until the challenge is updated")
+        void getChallengeByName_shouldBeCachedUntilUpdate() {
+                Module module = new Module("Module1");
+                Challenge challenge = createTestChallenge("Challenge1", module);
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(challengeRepository.save(any(Challenge.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                challengeService.getChallengeByName("Challenge1");
+                challengeService.getChallengeByName("Challenge1");
+                verify(challengeRepository, times(1)).findByName("Challenge1");
+
+                ChallengeDTO dto = new ChallengeDTO();
+                dto.setName("Challenge1");
+                dto.setDescription("New description");
+                challengeService.updateChallenge(dto);
+
+                // updateChallenge lee el reto una vez y la siguiente consulta vuelve a la base de datos
+                ChallengeResponse result = challengeService.getChallengeByName("Challenge1");
+                assertEquals("New description", result.description());
+                verify(challengeRepository, times(3)).findByName("Challenge1");
+        }
+
         @Test
         @DisplayName("Should update challenge fields when challenge exists")
         void updateChallenge_whenChallengeExists_shouldUpdateAndSaveChanges() {
                 // Arrange
-                Module module = new Module("Module1", "Desc", null, null, null);
+                Module module = new Module("Module1", "Desc", null, null, null, 0, 0, 0, null);
                 Challenge existingChallenge = new Challenge("Challenge1", "Old description", null, null, null, null,
-                                null, null, null, null, module, null, null, 0);
+                                null, null, null, null, module, null, null, 0, false, 0, 0, 0, null);
 
                 ChallengeDTO dto = new ChallengeDTO();
                 dto.setName("Challenge1");
@@ -258,23 +331,94 @@ class ChallengeServiceTest {
         }
 
         @Test
-        @DisplayName("Should call delete when deleting a challenge")
-        void deleteChallenge_whenCalledWithName_shouldCallRepositoryDelete() {
+        @DisplayName("Should delete a challenge and its dependent rows with set-based statements")
+        void deleteChallenge_whenCalledWithName_shouldDeleteRowsInBulk() {
                 // Arrange
                 String challengeName = "Challenge To Delete";
                 Challenge challenge = new Challenge();
                 challenge.setName(challengeName);
+                List<String> names = List.of(challengeName);
 
                 when(challengeRepository.findById(challengeName)).thenReturn(Optional.of(challenge));
-                doNothing().when(redeemableRepository).deleteAllByChallenge(challenge);
-                doNothing().when(challengeRepository).delete(challenge);
 
                 // Act
                 challengeService.deleteChallenge(challengeName);
 
                 // Assert
-                verify(redeemableRepository, times(1)).deleteAllByChallenge(challenge);
-                verify(challengeRepository, times(1)).delete(challenge);
+                InOrder order = inOrder(redeemableRepository, challengeRepository);
+                order.verify(redeemableRepository).deleteByChallengeNames(names);
+                order.verify(challengeRepository).deleteRegisteredOfChallenges(names);
+                order.verify(challengeRepository).deleteConfirmedOfChallenges(names);
+                order.verify(challengeRepository).deleteVerificationsOfChallenges(names);
+                order.verify(challengeRepository).deleteTipsOfChallenges(names);
+                order.verify(challengeRepository).deleteGoalsOfChallenges(names);
+                order.verify(challengeRepository).deleteRatingsOfChallenges(names);
+                order.verify(challengeRepository).deleteChallengesByNameIn(names);
+                verify(challengeRepository, never()).delete(any(Challenge.class));
+                verify(membershipIndex).evict(challengeName);
+        }
+
+        @Test
+        @DisplayName("Should only mark a challenge on a soft delete and hide it from the in-memory views")
+        void deleteChallenge_whenSoft_shouldMarkWithoutDeletingRows() {
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                challenge.setRegisteredCount(4);
+                when(challengeRepository.findById("Challenge1")).thenReturn(Optional.of(challenge));
+
+                challengeService.deleteChallenge("Challenge1", true);
+
+                verify(challengeRepository).markDeleted(eq("Challenge1"), any(LocalDateTime.class));
+                verify(moduleRepository).addParticipationCounts("Nutrition", -4, 0, 0);
+                verify(challengeRepository, never()).deleteRegisteredOfChallenges(anyCollection());
+                verify(challengeRepository, never()).deleteChallengesByNameIn(anyCollection());
+                verify(membershipIndex).evict("Challenge1");
+                verify(searchIndex).removed("Challenge1");
+                // Las completadas las descuenta el purgador
+                verifyNoInteractions(leaderboard);
+        }
+
+        @Test
+        @DisplayName("Should not reuse the name of a challenge waiting to be purged")
+        void createChallenge_whenNameIsBeingPurged_shouldThrow() {
+                when(moduleRepository.findById("Nutrition")).thenReturn(Optional.of(new Module("Nutrition")));
+                when(challengeRepository.countDeletedByName("Challenge1")).thenReturn(1L);
+
+                assertThrows(RuntimeException.class,
+                                () -> challengeService.createChallenge(createTestChallengeDto("Challenge1", "Nutrition")));
+
+                verify(challengeRepository, never()).save(any(Challenge.class));
+        }
+
+        @Test
+        @DisplayName("Should delete every challenge of a module with one statement per table")
+        void deleteChallengesOfModule_shouldDeleteAllChallengesTogether() {
+                List<String> names = List.of("Challenge1", "Challenge2", "Challenge3");
+                when(challengeRepository.findNamesByModuleName("Nutrition")).thenReturn(names);
+
+                int deleted = challengeService.deleteChallengesOfModule("Nutrition");
+
+                assertThat(deleted).isEqualTo(3);
+                verify(redeemableRepository).deleteByChallengeNames(names);
+                verify(challengeRepository).deleteRegisteredOfChallenges(names);
+                verify(challengeRepository).deleteChallengesByNameIn(names);
+                verify(challengeRepository, never()).findById(anyString());
+                verify(searchIndex).removed("Challenge2");
+                verify(leaderboard).deleted(names);
+        }
+
+        @Test
+        @DisplayName("Should subtract the participation counters of a deleted challenge from its module")
+        void deleteChallenge_shouldSubtractCountersFromModule() {
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                challenge.setRegisteredCount(5);
+                challenge.setConfirmedCount(3);
+                challenge.setInProgressCount(2);
+                when(challengeRepository.findById("Challenge1")).thenReturn(Optional.of(challenge));
+
+                challengeService.deleteChallenge("Challenge1");
+
+                verify(moduleRepository).addParticipationCounts("Nutrition", -5, -3, -2);
+                verify(challengeRepository).deleteChallengesByNameIn(List.of("Challenge1"));
         }
 
         @Test
@@ -284,11 +428,13 @@ class ChallengeServiceTest {
                 String challengeName = "Yoga Challenge";
                 UserEcicare user = new UserEcicare(); // Asumimos que UserEcicare existe
                 user.setEmail("test@user.com");
+                user.setIdEci(1L);
 
                 Challenge challenge = createTestChallenge(challengeName, new Module("Wellness"));
 
                 when(challengeRepository.findByName(challengeName)).thenReturn(challenge);
                 when(userEcicareRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+                when(challengeRepository.registerUserInChallenge(challengeName, 1L)).thenReturn(1);
 
                 // Act
                 ChallengeResponse result = challengeService.addUserByEmail(user.getEmail(), challengeName);
@@ -296,22 +442,76 @@ class ChallengeServiceTest {
                 // Assert
                 assertThat(result).isNotNull();
                 assertThat(result.name()).isEqualTo(challengeName);
-                verify(challengeRepository, times(1)).save(challenge);
+                verify(challengeRepository, times(1)).registerUserInChallenge(challengeName, user.getIdEci());
+                verify(membershipIndex, times(1)).registered(challengeName, List.of(1L));
+                verify(challengeRepository, never()).save(any(Challenge.class));
         }
 
         @Test
-        @DisplayName("Should not add user to challenge when user is already registered")
+        @DisplayName("Should reject enrollments and verifications once the deadline has passed")
+        void addUserAndConfirm_whenDeadlinePassed_shouldThrowChallengeClosed() {
+                Challenge challenge = Challenge.builder()
+                                .name("Expired")
+                                .duration(LocalDateTime.now().minusMinutes(1))
+                                .module(new Module("Wellness"))
+                                .build();
+                when(challengeRepository.findByName("Expired")).thenReturn(challenge);
+
+                assertThrows(ChallengeClosedException.class,
+                                () -> challengeService.addUserByEmail("test@user.com", "Expired"));
+                assertThrows(ChallengeClosedException.class,
+                                () -> challengeService.confirmUserByEmail("test@user.com", "Expired"));
+                assertThrows(ChallengeClosedException.class,
+                                () -> challengeService.enrollUsersByEmail("Expired", Stream.of("test@user.com")));
+                verifyNoInteractions(userEcicareRepository);
+                verify(challengeRepository, never()).registerUserInChallenge(anyString(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should treat challenges closed by the scheduler as closed regardless of the deadline")
+        void isClosed_shouldHonourClosedFlag() {
+                Challenge challenge = Challenge.builder()
+                                .name("Closed")
+                                .duration(LocalDateTime.now().plusDays(1))
+                                .closed(true)
+                                .build();
+
+                assertTrue(ChallengeService.isClosed(challenge, LocalDateTime.now()));
+                challenge.setClosed(false);
+                assertFalse(ChallengeService.isClosed(challenge, LocalDateTime.now()));
+        }
+
+        @Test
+        @DisplayName("Should query open challenges expiring within the requested window")
+        void getChallengesExpiringWithin_shouldQueryDeadlineRange() {
+                when(challengeRepository.findOpenSummariesByDeadlineBetween(any(LocalDateTime.class),
+                                any(LocalDateTime.class), eq(PageRequest.of(0, 5))))
+                                .thenReturn(new PageImpl<>(List.of()));
+
+                challengeService.getChallengesExpiringWithin(7, 0, 5);
+
+                verify(challengeRepository).findOpenSummariesByDeadlineBetween(
+                                argThat(from -> from.isAfter(LocalDateTime.now().minusMinutes(1))),
+                                argThat(to -> to.isAfter(LocalDateTime.now().plusDays(6))),
+                                eq(PageRequest.of(0, 5)));
+                assertThrows(IllegalArgumentException.class,
+                                () -> challengeService.getChallengesExpiringWithin(-1, 0, 5));
+        }
+
+        @Test
+        @DisplayName("Should leave the challenge unchanged when the user is already registered or confirmed")
         void addUserByEmail_whenUserAlreadyRegistered_shouldNotAddUserAndNotSave() {
                 // Arrange
                 String challengeName = "Yoga Challenge";
                 UserEcicare user = new UserEcicare();
                 user.setEmail("test@user.com");
+                user.setIdEci(1L);
 
                 Challenge challenge = createTestChallenge(challengeName, new Module("Wellness"));
-                challenge.getRegistered().add(user); // Pre-register the user
 
                 when(challengeRepository.findByName(challengeName)).thenReturn(challenge);
                 when(userEcicareRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+                when(challengeRepository.registerUserInChallenge(challengeName, 1L)).thenReturn(0);
 
                 // Act
                 ChallengeResponse result = challengeService.addUserByEmail(user.getEmail(), challengeName);
@@ -319,6 +519,8 @@ class ChallengeServiceTest {
                 // Assert
                 assertThat(result).isNotNull();
                 assertThat(result.name()).isEqualTo(challengeName);
+                verify(membershipIndex, never()).registered(anyString(), any());
+                verify(challengeRepository, never()).addParticipationCounts(anyString(), anyInt(), anyInt(), anyInt());
                 verify(challengeRepository, never()).save(challenge);
         }
 
@@ -362,15 +564,37 @@ class ChallengeServiceTest {
                                 .module(new Module("Nutrition"))
                                 .build();
 
+                user.setIdEci(7L);
                 when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
                 when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-                when(challengeRepository.save(any(Challenge.class))).thenReturn(challenge);
+                when(challengeRepository.registerUserInChallenge("Challenge1", 7L)).thenReturn(1);
 
                 ChallengeResponse result = challengeService.addUserByEmail("test@example.com", "Challenge1");
 
                 assertThat(result).isNotNull();
                 assertThat(result.name()).isEqualTo("Challenge1");
-                verify(challengeRepository).save(challenge);
+                verify(challengeRepository).registerUserInChallenge("Challenge1", 7L);
+                verify(challengeRepository).addParticipationCounts("Challenge1", 1, 0, 0);
+                verify(moduleRepository).addParticipationCountsOfChallenge("Challenge1", 1, 0, 0);
+                assertThat(challenge.getRegistered()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should drop the cached module statistics when an enrollment changes the counters")
+        void addUserByEmail_shouldInvalidateModuleStats() {
+                UserEcicare user = UserEcicare.builder().idEci(7L).email("test@example.com").build();
+                Challenge challenge = Challenge.builder().name("Challenge1").module(new Module("Nutrition")).build();
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                when(challengeRepository.registerUserInChallenge("Challenge1", 7L)).thenReturn(1);
+                moduleStatsCache.stats(() -> List.of(new ModuleStats("Nutrition", 1, 0, 0, 0)));
+
+                challengeService.addUserByEmail("test@example.com", "Challenge1");
+
+                assertThat(moduleStatsCache.stats(() -> List.of(new ModuleStats("Nutrition", 1, 1, 0, 0))))
+                                .extracting(ModuleStats::registered).containsExactly(1);
+                assertThat(challengeService.getCacheStats()).extracting(CacheMetrics::cache)
+                                .contains("module-stats");
         }
 
         @Test
@@ -386,15 +610,557 @@ class ChallengeServiceTest {
                                 .confirmed(new ArrayList<>())
                                 .build();
 
+                user.setIdEci(7L);
                 when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
                 when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-                when(challengeRepository.save(any(Challenge.class))).thenReturn(challenge);
+                when(challengeRepository.incrementVerification("Challenge1", 7L, "test@example.com")).thenReturn(1);
+                when(challengeRepository.findVerificationCount("Challenge1", "test@example.com")).thenReturn(1);
+                when(challengeRepository.unregisterUserFromChallenge("Challenge1", 7L)).thenReturn(1);
+                when(challengeRepository.confirmUserInChallenge("Challenge1", 7L)).thenReturn(1);
 
                 ChallengeResponse result = challengeService.confirmUserByEmail("test@example.com", "Challenge1");
 
                 assertThat(result).isNotNull();
                 assertThat(result.name()).isEqualTo("Challenge1");
-                verify(challengeRepository).save(challenge);
+                verify(challengeRepository).confirmUserInChallenge("Challenge1", 7L);
+                verify(challengeRepository).deleteVerification("Challenge1", "test@example.com");
+                verify(leaderboard).completed("Challenge1", List.of(7L));
+                verify(challengeRepository, never()).save(any(Challenge.class));
+        }
+
+        @Test
+        @DisplayName("A scan should key the verification by the stored email and not count a user confirmed twice")
+        void confirmUserByEmail_whenAlreadyConfirmed_shouldUseStoredEmailAndNotCountAgain() {
+                UserEcicare user = UserEcicare.builder().idEci(7L).email("test@example.com").build();
+                Challenge challenge = Challenge.builder().name("Challenge1").module(new Module("Nutrition")).build();
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findByEmail("TEST@example.com")).thenReturn(Optional.of(user));
+                when(challengeRepository.incrementVerification("Challenge1", 7L, "test@example.com")).thenReturn(1);
+                when(challengeRepository.findVerificationCount("Challenge1", "test@example.com")).thenReturn(1);
+                when(challengeRepository.unregisterUserFromChallenge("Challenge1", 7L)).thenReturn(1);
+                when(challengeRepository.confirmUserInChallenge("Challenge1", 7L)).thenReturn(0);
+                when(challengeRepository.deleteVerification("Challenge1", "test@example.com")).thenReturn(1);
+
+                challengeService.confirmUserByEmail("TEST@example.com", "Challenge1");
+
+                verify(challengeRepository).addParticipationCounts("Challenge1", -1, 0, 0);
+                verify(leaderboard, never()).completed(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should serve the leaderboard from memory with a clamped limit")
+        void getLeaderboard_shouldClampLimit() {
+                List<LeaderboardEntry> top = List.of(new LeaderboardEntry(1, "a@eci.edu.co", "Ana", 3));
+                when(leaderboard.top("Nutrition", CursorPage.MAX_LIMIT)).thenReturn(top);
+
+                assertThat(challengeService.getLeaderboard("Nutrition", 1000)).isEqualTo(top);
+                verifyNoInteractions(challengeRepository, userEcicareRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject verification when user is not registered in the challenge")
+        void confirmUserByEmail_whenUserNotRegistered_shouldThrowException() {
+                UserEcicare user = new UserEcicare();
+                user.setIdEci(7L);
+                user.setEmail("test@example.com");
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                when(challengeRepository.incrementVerification("Challenge1", 7L, "test@example.com")).thenReturn(0);
+
+                RuntimeException ex = assertThrows(RuntimeException.class,
+                                () -> challengeService.confirmUserByEmail("test@example.com", "Challenge1"));
+
+                assertThat(ex.getMessage()).isEqualTo("User is not registered in the challenge");
+                verify(challengeRepository, never()).confirmUserInChallenge(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should not promote user until required verifications are reached")
+        void confirmUserByEmail_whenBelowRequiredVerifications_shouldOnlyIncrement() {
+                UserEcicare user = new UserEcicare();
+                user.setIdEci(7L);
+                user.setEmail("test@example.com");
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                challenge.setRequiredVerifications(3);
+
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                when(challengeRepository.incrementVerification("Challenge1", 7L, "test@example.com")).thenReturn(1);
+                when(challengeRepository.findVerificationCount("Challenge1", "test@example.com")).thenReturn(2);
+
+                challengeService.confirmUserByEmail("test@example.com", "Challenge1");
+
+                verify(challengeRepository, never()).unregisterUserFromChallenge(anyString(), any());
+                verify(challengeRepository, never()).deleteVerification(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Every scan should issue exactly one increment and only the last one a promotion")
+        void confirmUserByEmail_whenScannedRepeatedly_shouldIncrementOncePerScan() {
+                int scans = 64;
+                UserEcicare user = new UserEcicare();
+                user.setIdEci(7L);
+                user.setEmail("test@example.com");
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                challenge.setRequiredVerifications(scans);
+
+                Integer[] counts = new Integer[scans - 1];
+                for (int i = 0; i < counts.length; i++) {
+                        counts[i] = i + 2;
+                }
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                when(challengeRepository.incrementVerification("Challenge1", 7L, "test@example.com")).thenReturn(1);
+                when(challengeRepository.findVerificationCount("Challenge1", "test@example.com"))
+                                .thenReturn(1, counts);
+                when(challengeRepository.unregisterUserFromChallenge("Challenge1", 7L)).thenReturn(1);
+
+                for (int i = 0; i < scans; i++) {
+                        challengeService.confirmUserByEmail("test@example.com", "Challenge1");
+                }
+
+                verify(challengeRepository, times(scans)).incrementVerification("Challenge1", 7L, "test@example.com");
+                verify(challengeRepository, times(1)).confirmUserInChallenge("Challenge1", 7L);
+                verify(challengeRepository, never()).save(any(Challenge.class));
+        }
+
+        @Test
+        @DisplayName("Parallel scans should produce exactly one increment each and a single promotion")
+        void confirmUserByEmail_whenScannedConcurrently_shouldNotLoseIncrements() throws Exception {
+                int scans = 64;
+                UserEcicare user = new UserEcicare();
+                user.setIdEci(7L);
+                user.setEmail("test@example.com");
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                challenge.setRequiredVerifications(scans);
+
+                // Simula la fila del contador: el incremento la bloquea hasta el fin de la
+                // transacción, y la lectura posterior ve el valor escrito por esa misma transacción
+                ReentrantLock rowLock = new ReentrantLock();
+                int[] row = {0};
+                ThreadLocal<Integer> written = new ThreadLocal<>();
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                when(challengeRepository.incrementVerification("Challenge1", 7L, "test@example.com"))
+                                .thenAnswer(invocation -> {
+                                        rowLock.lock();
+                                        written.set(++row[0]);
+                                        return 1;
+                                });
+                when(challengeRepository.findVerificationCount("Challenge1", "test@example.com"))
+                                .thenAnswer(invocation -> {
+                                        try {
+                                                return written.get();
+                                        } finally {
+                                                rowLock.unlock();
+                                        }
+                                });
+                when(challengeRepository.unregisterUserFromChallenge("Challenge1", 7L)).thenReturn(1);
+
+                ExecutorService executor = Executors.newFixedThreadPool(16);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < scans; i++) {
+                        results.add(executor.submit(() -> {
+                                start.await();
+                                return challengeService.confirmUserByEmail("test@example.com", "Challenge1");
+                        }));
+                }
+                start.countDown();
+                for (Future<?> result : results) {
+                        result.get(10, TimeUnit.SECONDS);
+                }
+                executor.shutdown();
+
+                assertThat(row[0]).isEqualTo(scans);
+                verify(challengeRepository, times(scans)).incrementVerification("Challenge1", 7L, "test@example.com");
+                verify(challengeRepository, times(1)).confirmUserInChallenge("Challenge1", 7L);
+                verify(challengeRepository, never()).save(any(Challenge.class));
+        }
+
+        @Test
+        @DisplayName("A scan should issue the same statements regardless of the number of registered users")
+        void confirmUserByEmail_whenChallengeIsLarge_shouldNotTouchParticipantCollections() {
+                UserEcicare user = new UserEcicare();
+                user.setIdEci(7L);
+                user.setEmail("test@example.com");
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                challenge.setRequiredVerifications(2);
+                for (long i = 0; i < 10_000; i++) {
+                        UserEcicare registered = new UserEcicare();
+                        registered.setIdEci(i + 100);
+                        challenge.getRegistered().add(registered);
+                }
+
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                when(challengeRepository.incrementVerification("Challenge1", 7L, "test@example.com")).thenReturn(1);
+                when(challengeRepository.findVerificationCount("Challenge1", "test@example.com")).thenReturn(1);
+
+                challengeService.confirmUserByEmail("test@example.com", "Challenge1");
+
+                verify(challengeRepository).findByName("Challenge1");
+                verify(challengeRepository).incrementVerification("Challenge1", 7L, "test@example.com");
+                verify(challengeRepository).findVerificationCount("Challenge1", "test@example.com");
+                // El primer escaneo deja al usuario en progreso
+                verify(challengeRepository).addParticipationCounts("Challenge1", 0, 0, 1);
+                verifyNoMoreInteractions(challengeRepository);
+                assertThat(challenge.getRegistered()).hasSize(10_000);
+        }
+
+        @Test
+        @DisplayName("Should verify and promote many users with set-based statements")
+        void confirmUsersByEmail_shouldReportPerEmailResults() {
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                challenge.setRequiredVerifications(2);
+                List<String> emails = List.of("a@eci.edu.co", "B@eci.edu.co", "c@eci.edu.co", "ghost@eci.edu.co",
+                                "a@eci.edu.co");
+
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findEmailIdsByEmailIn(anyCollection())).thenReturn(List.of(
+                                new UserEmailIdDTO("a@eci.edu.co", 1L),
+                                new UserEmailIdDTO("b@eci.edu.co", 2L),
+                                new UserEmailIdDTO("c@eci.edu.co", 3L)));
+                when(challengeRepository.findRegisteredUserIds(eq("Challenge1"), anyCollection()))
+                                .thenReturn(List.of(1L, 2L));
+                when(challengeRepository.findVerificationCounts(eq("Challenge1"), anyCollection())).thenReturn(List.of(
+                                new VerificationCountDTO("a@eci.edu.co", 2),
+                                new VerificationCountDTO("b@eci.edu.co", 1)));
+
+                List<UserVerificationResult> results = challengeService.confirmUsersByEmail("Challenge1", emails);
+
+                assertThat(results).extracting(UserVerificationResult::status).containsExactly(
+                                UserVerificationResult.Status.CONFIRMED,
+                                UserVerificationResult.Status.VERIFIED,
+                                UserVerificationResult.Status.NOT_REGISTERED,
+                                UserVerificationResult.Status.USER_NOT_FOUND,
+                                UserVerificationResult.Status.DUPLICATE);
+                assertThat(results.get(1).currentVerifications()).isEqualTo(1);
+                verify(userEcicareRepository, times(1)).findEmailIdsByEmailIn(anyCollection());
+                verify(challengeRepository, times(1)).incrementVerifications("Challenge1", List.of(1L, 2L));
+                verify(challengeRepository, times(1)).unregisterUsersFromChallenge("Challenge1", List.of(1L));
+                verify(challengeRepository, times(1)).confirmUsersInChallenge("Challenge1", List.of(1L));
+                verify(challengeRepository, times(1)).deleteVerifications("Challenge1", List.of("a@eci.edu.co"));
+                verify(challengeRepository, never()).save(any(Challenge.class));
+        }
+
+        @Test
+        @DisplayName("Should throw when confirming users of an unknown challenge")
+        void confirmUsersByEmail_whenChallengeNotFound_shouldThrowException() {
+                when(challengeRepository.findByName("Missing")).thenReturn(null);
+
+                assertThrows(RuntimeException.class,
+                                () -> challengeService.confirmUsersByEmail("Missing", List.of("a@eci.edu.co")));
+                verify(userEcicareRepository, never()).findEmailIdsByEmailIn(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should enroll a large list in bounded chunks and report duplicates and unknown emails")
+        void enrollUsersByEmail_shouldChunkAndReport() {
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                List<String> emails = new ArrayList<>();
+                for (int i = 0; i < 1200; i++) {
+                        emails.add("user" + i + "@eci.edu.co");
+                }
+                // Repetido en el mismo bloque y en uno posterior
+                emails.add(1, "USER0@eci.edu.co");
+                emails.add("USER0@eci.edu.co");
+                for (int i = 0; i < 150; i++) {
+                        emails.add("ghost" + i + "@eci.edu.co");
+                }
+
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findEmailIdsByEmailIn(anyCollection())).thenAnswer(invocation -> {
+                        Collection<String> chunk = invocation.getArgument(0);
+                        assertThat(chunk.size()).isLessThanOrEqualTo(500);
+                        return chunk.stream()
+                                        .filter(email -> email.startsWith("user"))
+                                        .map(email -> new UserEmailIdDTO(email,
+                                                        Long.parseLong(email.substring(4, email.indexOf('@')))))
+                                        .toList();
+                });
+                // Los primeros 10 ya estaban inscritos
+                when(challengeRepository.registerUsersInChallenge(eq("Challenge1"), anyCollection()))
+                                .thenAnswer(invocation -> {
+                                        Collection<Long> ids = invocation.getArgument(1);
+                                        return (int) ids.stream().filter(id -> id >= 10).count();
+                                });
+
+                EnrollmentReport report = challengeService.enrollUsersByEmail("Challenge1", emails.stream());
+
+                assertThat(report.enrolled()).isEqualTo(1190);
+                assertThat(report.alreadyRegistered()).isEqualTo(11);
+                assertThat(report.duplicateCount()).isEqualTo(1);
+                assertThat(report.duplicates()).containsExactly("USER0@eci.edu.co");
+                assertThat(report.unknownCount()).isEqualTo(150);
+                assertThat(report.unknownEmails()).hasSize(100).startsWith("ghost0@eci.edu.co");
+                verify(userEcicareRepository, times(3)).findEmailIdsByEmailIn(anyCollection());
+                verify(challengeRepository, times(3)).registerUsersInChallenge(eq("Challenge1"), anyCollection());
+                verify(challengeRepository, never()).save(any(Challenge.class));
+        }
+
+        @Test
+        @DisplayName("Should apply buffered verifications grouped by delta and promote completed users")
+        void applyVerifications_shouldGroupByDeltaAndPromote() {
+                UserEmailIdDTO a = new UserEmailIdDTO("a@eci.edu.co", 1L);
+                UserEmailIdDTO b = new UserEmailIdDTO("b@eci.edu.co", 2L);
+                UserEmailIdDTO c = new UserEmailIdDTO("c@eci.edu.co", 3L);
+                when(challengeRepository.findRequiredVerifications("Challenge1")).thenReturn(3);
+                when(challengeRepository.findVerificationCounts(eq("Challenge1"), anyCollection())).thenReturn(List.of(
+                                new VerificationCountDTO("a@eci.edu.co", 3),
+                                new VerificationCountDTO("b@eci.edu.co", 1),
+                                new VerificationCountDTO("c@eci.edu.co", 2)));
+                when(challengeRepository.unregisterUsersFromChallenge("Challenge1", List.of(1L))).thenReturn(1);
+                when(challengeRepository.confirmUsersInChallenge("Challenge1", List.of(1L))).thenReturn(1);
+                when(challengeRepository.deleteVerifications("Challenge1", List.of("a@eci.edu.co"))).thenReturn(1);
+
+                challengeService.applyVerifications("Challenge1", Map.of(a, 3, b, 1, c, 1));
+
+                verify(challengeRepository).addVerifications("Challenge1", List.of(1L), 3);
+                verify(challengeRepository).addVerifications(eq("Challenge1"),
+                                argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L))), eq(1));
+                verify(challengeRepository).unregisterUsersFromChallenge("Challenge1", List.of(1L));
+                verify(challengeRepository).confirmUsersInChallenge("Challenge1", List.of(1L));
+                verify(challengeRepository).deleteVerifications("Challenge1", List.of("a@eci.edu.co"));
+                // a y b empiezan a verificar, pero a se confirma en el mismo lote
+                verify(challengeRepository).addParticipationCounts("Challenge1", -1, 1, 1);
+        }
+
+        @Test
+        @DisplayName("Should publish one event per verified user when the challenge is watched")
+        void applyVerifications_whenWatched_shouldPublishEvents() {
+                UserEmailIdDTO a = new UserEmailIdDTO("a@eci.edu.co", 1L);
+                UserEmailIdDTO b = new UserEmailIdDTO("b@eci.edu.co", 2L);
+                when(challengeRepository.findRequiredVerifications("Challenge1")).thenReturn(2);
+                when(challengeRepository.findVerificationCounts(eq("Challenge1"), anyCollection())).thenReturn(List.of(
+                                new VerificationCountDTO("a@eci.edu.co", 2),
+                                new VerificationCountDTO("b@eci.edu.co", 1)));
+                when(eventHub.isWatched("Challenge1")).thenReturn(true);
+
+                challengeService.applyVerifications("Challenge1", Map.of(a, 2, b, 1));
+
+                verify(eventHub).publish(eq("Challenge1"), argThat(events -> events.size() == 2 && events.stream()
+                                .anyMatch(event -> event.type() == ChallengeEvent.Type.CONFIRMED
+                                                && event.userEmail().equals("a@eci.edu.co"))
+                                && events.stream().anyMatch(event -> event.type() == ChallengeEvent.Type.VERIFIED
+                                                && event.currentVerifications() == 1)));
+        }
+
+        @Test
+        @DisplayName("Should not build events nobody watches")
+        void enrollUsersByEmail_whenNotWatched_shouldNotPublish() {
+                Challenge challenge = createTestChallenge("Challenge1", new Module("Nutrition"));
+                when(challengeRepository.findByName("Challenge1")).thenReturn(challenge);
+                when(userEcicareRepository.findEmailIdsByEmailIn(anyCollection()))
+                                .thenReturn(List.of(new UserEmailIdDTO("a@eci.edu.co", 1L)));
+                when(challengeRepository.registerUsersInChallenge(eq("Challenge1"), anyCollection())).thenReturn(1);
+
+                challengeService.enrollUsersByEmail("Challenge1", Stream.of("a@eci.edu.co"));
+
+                verify(eventHub).isWatched("Challenge1");
+                verify(eventHub, never()).publish(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("Should reject streams of unknown challenges")
+        void subscribeToEvents_whenChallengeNotFound_shouldThrowException() {
+                when(challengeRepository.existsById("Missing")).thenReturn(false);
+
+                assertThrows(RuntimeException.class, () -> challengeService.subscribeToEvents("Missing"));
+                verify(eventHub, never()).subscribe(anyString());
+        }
+
+        @Test
+        @DisplayName("Should drop buffered verifications of a deleted challenge")
+        void applyVerifications_whenChallengeDeleted_shouldDoNothing() {
+                when(challengeRepository.findRequiredVerifications("Missing")).thenReturn(null);
+
+                challengeService.applyVerifications("Missing", Map.of(new UserEmailIdDTO("a@eci.edu.co", 1L), 1));
+
+                verify(challengeRepository, never()).addVerifications(anyString(), anyCollection(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should answer the user challenge status from the membership index")
+        void getUserChallengeStatus_shouldUseMembershipIndex() {
+                UserEcicare user = UserEcicare.builder().idEci(7L).email("a@eci.edu.co").build();
+                when(userEcicareRepository.findByEmail("a@eci.edu.co")).thenReturn(Optional.of(user));
+                when(membershipIndex.isRegistered("Challenge1", 7L)).thenReturn(false);
+                when(membershipIndex.isConfirmed("Challenge1", 7L)).thenReturn(true);
+
+                ChallengeUserStatus status = challengeService.getUserChallengeStatus("a@eci.edu.co", "Challenge1");
+
+                assertTrue(status.isCompleted());
+                assertFalse(status.isRegistered());
+                verify(challengeRepository, never()).isUserRegisteredInChallenge(anyString(), anyLong());
+                verify(challengeRepository, never()).isUserConfirmedInChallenge(anyString(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should read the verification status with a single projection query")
+        void getUserVerificationStatus_shouldUseSingleProjection() {
+                UserVerificationStatus expected = new UserVerificationStatus(2, 3, true, false);
+                when(challengeRepository.findUserVerificationStatus("Challenge1", "a@eci.edu.co")).thenReturn(expected);
+
+                UserVerificationStatus status = challengeService.getUserVerificationStatus("a@eci.edu.co", "Challenge1");
+
+                assertEquals(expected, status);
+                verify(challengeRepository, never()).findByName(anyString());
+                verifyNoInteractions(userEcicareRepository, membershipIndex);
+        }
+
+        @Test
+        @DisplayName("Should tell a missing challenge from a missing user in the verification status")
+        void getUserVerificationStatus_whenNotFound_shouldThrowSpecificError() {
+                when(challengeRepository.findUserVerificationStatus(anyString(), anyString())).thenReturn(null);
+                when(challengeRepository.existsById("Missing")).thenReturn(false);
+                when(challengeRepository.existsById("Challenge1")).thenReturn(true);
+
+                RuntimeException challengeError = assertThrows(RuntimeException.class,
+                                () -> challengeService.getUserVerificationStatus("a@eci.edu.co", "Missing"));
+                RuntimeException userError = assertThrows(RuntimeException.class,
+                                () -> challengeService.getUserVerificationStatus("ghost@eci.edu.co", "Challenge1"));
+
+                assertThat(challengeError.getMessage()).startsWith("Challenge not found");
+                assertThat(userError.getMessage()).startsWith("User not found");
+        }
+
+        @Test
+        @DisplayName("Should page registered challenges in the database sorted by name")
+        void getChallengesByUserEmailPaged_shouldDelegatePagingToRepository() {
+                UserEcicare user = UserEcicare.builder().idEci(7L).email("a@eci.edu.co").build();
+                Challenge challenge = createTestChallenge("Challenge3", new Module("Nutrition"));
+                Pageable expected = PageRequest.of(1, 2, Sort.by("name"));
+                when(userEcicareRepository.findByEmail("a@eci.edu.co")).thenReturn(Optional.of(user));
+                when(challengeRepository.findRegisteredChallengesByUserId(7L, expected))
+                                .thenReturn(new PageImpl<>(List.of(challenge), expected, 5));
+
+                Page<ChallengeResponse> page = challengeService.getChallengesByUserEmailPaged("a@eci.edu.co", 1, 2);
+
+                assertThat(page.getContent()).extracting(ChallengeResponse::name).containsExactly("Challenge3");
+                assertThat(page.getTotalElements()).isEqualTo(5);
+                verify(challengeRepository, never()).findByRegistered(any());
+        }
+
+        @Test
+        @DisplayName("Should page completed challenges in the database with safe defaults")
+        void getChallengesCompletedByUserEmailPaged_shouldUseSafePageRequest() {
+                UserEcicare user = UserEcicare.builder().idEci(7L).email("a@eci.edu.co").build();
+                Pageable expected = PageRequest.of(0, 10, Sort.by("name"));
+                when(userEcicareRepository.findByEmail("a@eci.edu.co")).thenReturn(Optional.of(user));
+                when(challengeRepository.findConfirmedChallengesByUserId(7L, expected))
+                                .thenReturn(new PageImpl<>(List.of(), expected, 0));
+
+                Page<ChallengeResponse> page = challengeService.getChallengesCompletedByUserEmailPaged("a@eci.edu.co",
+                                -1, 0);
+
+                assertThat(page.getContent()).isEmpty();
+                verify(challengeRepository).findConfirmedChallengesByUserId(7L, expected);
+        }
+
+        @Test
+        @DisplayName("Should include archived completed challenges only when history is requested")
+        void getChallengesCompletedByUserEmail_withHistory_shouldAddArchived() {
+                Challenge live = Challenge.builder().name("Live").module(new Module("Module1")).build();
+                Challenge archived = Challenge.builder().name("Archived").module(new Module("Module1")).build();
+                UserEcicare user = UserEcicare.builder().idEci(7L).email("a@eci.edu.co")
+                                .challengesConfirmed(List.of(live)).build();
+                when(userEcicareRepository.findByEmail("a@eci.edu.co")).thenReturn(Optional.of(user));
+                when(challengeRepository.findArchivedConfirmedChallengesByUserId(7L)).thenReturn(List.of(archived));
+
+                assertThat(challengeService.getChallengesCompletedByUserEmail("a@eci.edu.co"))
+                                .extracting(ChallengeResponse::name).containsExactly("Live");
+                assertThat(challengeService.getChallengesCompletedByUserEmail("a@eci.edu.co", true))
+                                .extracting(ChallengeResponse::name).containsExactly("Live", "Archived");
+                verify(challengeRepository, times(1)).findArchivedConfirmedChallengesByUserId(7L);
+        }
+
+        @Test
+        @DisplayName("Should page completed challenges together with the archive when history is requested")
+        void getChallengesCompletedByUserEmailPaged_withHistory_shouldUseArchiveQuery() {
+                UserEcicare user = UserEcicare.builder().idEci(7L).email("a@eci.edu.co").build();
+                Pageable expected = PageRequest.of(0, 10, Sort.by("name"));
+                when(userEcicareRepository.findByEmail("a@eci.edu.co")).thenReturn(Optional.of(user));
+                when(challengeRepository.findConfirmedChallengesWithHistoryByUserId(7L, expected))
+                                .thenReturn(new PageImpl<>(List.of(), expected, 0));
+
+                challengeService.getChallengesCompletedByUserEmailPaged("a@eci.edu.co", 0, 10, true);
+
+                verify(challengeRepository, never()).findConfirmedChallengesByUserId(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should page registered users with their verification counts through the shared query")
+        void getRegisteredUsersByChallenge_paged_shouldUseSharedQuery() {
+                Pageable expected = PageRequest.of(0, 2, Sort.by("email"));
+                Page<UserEmailNameDTO> page = new PageImpl<>(
+                                List.of(new UserEmailNameDTO("a@eci.edu.co", "Ana", 1, 2)), expected, 1);
+                when(challengeRepository.existsById("Challenge1")).thenReturn(true);
+                when(challengeRepository.searchRegisteredUsers("Challenge1", "", expected)).thenReturn(page);
+
+                Page<UserEmailNameDTO> result = challengeService.getRegisteredUsersByChallenge("Challenge1", 0, 2);
+
+                assertThat(result.getContent().get(0).getCurrentVerifications()).isEqualTo(1);
+                verify(challengeRepository, never()).findByName(anyString());
+        }
+
+        @Test
+        @DisplayName("Should throw when paging registered users of an unknown challenge")
+        void getRegisteredUsersByChallenge_paged_whenChallengeNotFound_shouldThrow() {
+                when(challengeRepository.existsById("Missing")).thenReturn(false);
+
+                assertThrows(RuntimeException.class,
+                                () -> challengeService.getRegisteredUsersByChallenge("Missing", 0, 2));
+                verify(challengeRepository, never()).searchRegisteredUsers(anyString(), anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should search challenge summaries treating a blank module as no filter")
+        void searchChallengeSummaries_whenModuleBlank_shouldSearchAllModules() {
+                Pageable pageable = PageRequest.of(0, 5);
+                Page<ChallengeSummary> summaries = new PageImpl<>(List.of(ChallengeSummary.builder().name("Yoga").build()));
+                when(challengeRepository.findSummaries("yo", null, pageable)).thenReturn(summaries);
+
+                Page<ChallengeSummary> result = challengeService.searchChallengeSummaries(" yo ", " ", pageable);
+
+                assertThat(result.getContent()).extracting(ChallengeSummary::getName).containsExactly("Yoga");
+                verify(challengeRepository, never()).findByNameContainingIgnoreCase(anyString(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should resolve summary searches through the index once built, keeping its ranking")
+        void searchChallengeSummaries_whenIndexReady_shouldProjectIndexPage() {
+                Pageable pageable = PageRequest.of(1, 2);
+                when(searchIndex.isReady()).thenReturn(true);
+                when(searchIndex.search("yoga", "Wellness", pageable))
+                                .thenReturn(new PageImpl<>(List.of("Yoga nidra", "Yoga"), pageable, 7));
+                when(challengeRepository.findSummariesByNameIn(List.of("Yoga nidra", "Yoga"))).thenReturn(List.of(
+                                ChallengeSummary.builder().name("Yoga").build(),
+                                ChallengeSummary.builder().name("Yoga nidra").build()));
+
+                Page<ChallengeSummary> result = challengeService.searchChallengeSummaries(" yoga ", "Wellness",
+                                pageable);
+
+                assertThat(result.getContent()).extracting(ChallengeSummary::getName)
+                                .containsExactly("Yoga nidra", "Yoga");
+                assertEquals(7, result.getTotalElements());
+                verify(challengeRepository, never()).findSummaries(anyString(), any(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should return a keyset page of challenges after the cursor")
+        void getChallengesAfter_shouldFetchOneExtraRowForTheNextCursor() {
+                Module module = new Module("Nutrition");
+                List<Challenge> rows = List.of(createTestChallenge("B", module), createTestChallenge("C", module));
+                when(challengeRepository.findByNameGreaterThanOrderByNameAsc("A", Limit.of(2))).thenReturn(rows);
+
+                CursorPage<ChallengeResponse> page = challengeService.getChallengesAfter(CursorPage.encode("A"), 1);
+
+                assertThat(page.items()).extracting(ChallengeResponse::name).containsExactly("B");
+                assertThat(CursorPage.decode(page.nextCursor())).isEqualTo("B");
+                verify(challengeRepository, never()).findAll(any(Pageable.class));
         }
 
         @Test
@@ -507,6 +1273,120 @@ class ChallengeServiceTest {
                 assertEquals("Beta", result.get(1).getModuleName());
         }
 
+        @Test
+        @DisplayName("Should page modules with database counts and load only the top challenges of each")
+        void searchChallengesGroupedByModule_bounded_shouldLoadOnlyTopChallenges() {
+                Pageable pageable = PageRequest.of(0, 2);
+                Module water = Module.builder().name("Agua").build();
+                Module sport = Module.builder().name("Deporte").build();
+                Challenge drink = Challenge.builder().name("Beber").module(water).build();
+                Challenge swim = Challenge.builder().name("Nadar").module(sport).build();
+                when(challengeRepository.countMatchesByModule("a", pageable)).thenReturn(new PageImpl<>(
+                                List.of(new ModuleMatchCount("Agua", "desc", null, 120),
+                                                new ModuleMatchCount("Deporte", "desc", null, 80)),
+                                pageable, 7));
+                when(challengeRepository.findTopNamesPerModule("a", List.of("Agua", "Deporte"), 1))
+                                .thenReturn(List.of("Beber", "Nadar"));
+                when(challengeRepository.findAllById(List.of("Beber", "Nadar"))).thenReturn(List.of(swim, drink));
+
+                Page<ModuleWithChallengesDTO> result = challengeService.searchChallengesGroupedByModule(" a ", 1,
+                                pageable);
+
+                assertEquals(7, result.getTotalElements());
+                assertThat(result.getContent()).extracting(ModuleWithChallengesDTO::getModuleName)
+                                .containsExactly("Agua", "Deporte");
+                assertEquals(120, result.getContent().get(0).getTotalChallenges());
+                assertThat(result.getContent().get(0).getChallenges()).extracting(ChallengeResponse::name)
+                                .containsExactly("Beber");
+                verify(challengeRepository, never()).findByNameContainingIgnoreCaseOrderByNameAsc(anyString());
+        }
+
+        @Test
+        @DisplayName("Should page modules from the index once built, with its counts and ranking")
+        void searchChallengesGroupedByModule_bounded_whenIndexReady_shouldUseIndex() {
+                Pageable pageable = PageRequest.of(0, 2);
+                Module water = Module.builder().name("Agua").description("desc").build();
+                Challenge drink = Challenge.builder().name("Beber").module(water).build();
+                Challenge juice = Challenge.builder().name("Jugos").module(water).build();
+                when(searchIndex.isReady()).thenReturn(true);
+                when(searchIndex.searchByModule("agua", 2, pageable)).thenReturn(new PageImpl<>(
+                                List.of(new ChallengeSearchIndex.ModuleMatches("Agua", 9, List.of("Jugos", "Beber"))),
+                                pageable, 1));
+                when(challengeRepository.findAllById(List.of("Jugos", "Beber"))).thenReturn(List.of(drink, juice));
+
+                Page<ModuleWithChallengesDTO> result = challengeService.searchChallengesGroupedByModule("agua", 2,
+                                pageable);
+
+                assertThat(result.getContent()).hasSize(1);
+                assertEquals(9, result.getContent().get(0).getTotalChallenges());
+                assertEquals("desc", result.getContent().get(0).getModuleDescription());
+                assertThat(result.getContent().get(0).getChallenges()).extracting(ChallengeResponse::name)
+                                .containsExactly("Jugos", "Beber");
+                verify(challengeRepository, never()).countMatchesByModule(anyString(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should clamp the number of challenges per module and skip loading on empty pages")
+        void searchChallengesGroupedByModule_bounded_whenNoModules_shouldNotLoadChallenges() {
+                Pageable pageable = PageRequest.of(3, 10);
+                when(challengeRepository.countMatchesByModule("zz", pageable))
+                                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+                Page<ModuleWithChallengesDTO> result = challengeService.searchChallengesGroupedByModule("zz", 1000,
+                                pageable);
+
+                assertTrue(result.isEmpty());
+                verify(challengeRepository, never()).findTopNamesPerModule(anyString(), anyCollection(), anyInt());
+                assertThrows(IllegalArgumentException.class,
+                                () -> challengeService.searchChallengesGroupedByModule(" ", 5, pageable));
+        }
+
+        @Test
+        @DisplayName("Should search the index once built and keep its ranking within each module")
+        void searchChallengesGroupedByModule_whenIndexReady_shouldUseIndexRanking() {
+                Module module = Module.builder().name("Nutrition").build();
+                Challenge fruit = Challenge.builder().name("Fruit").module(module).build();
+                Challenge water = Challenge.builder().name("Water").module(module).build();
+                when(searchIndex.isReady()).thenReturn(true);
+                when(searchIndex.search("nutricion", null)).thenReturn(List.of("Water", "Fruit"));
+                when(challengeRepository.findAllById(List.of("Water", "Fruit"))).thenReturn(List.of(fruit, water));
+
+                List<ModuleWithChallengesDTO> result = challengeService.searchChallengesGroupedByModule("nutricion");
+
+                assertThat(result.get(0).getChallenges()).extracting(ChallengeResponse::name)
+                                .containsExactly("Water", "Fruit");
+                verify(challengeRepository, never()).findByNameContainingIgnoreCaseOrderByNameAsc(anyString());
+        }
+
+        @Test
+        @DisplayName("Should page index results with the total number of matches")
+        void searchChallengesByName_whenIndexReady_shouldReturnIndexPage() {
+                Pageable pageable = PageRequest.of(1, 1);
+                Challenge water = Challenge.builder().name("Water").module(new Module("Nutrition")).build();
+                when(searchIndex.isReady()).thenReturn(true);
+                when(searchIndex.search("agua", "Nutrition", pageable))
+                                .thenReturn(new PageImpl<>(List.of("Water"), pageable, 3));
+                when(challengeRepository.findAllById(List.of("Water"))).thenReturn(List.of(water));
+
+                Page<ChallengeResponse> result = challengeService.searchChallengesByName("agua", "Nutrition", pageable);
+
+                assertThat(result.getContent()).extracting(ChallengeResponse::name).containsExactly("Water");
+                assertEquals(3, result.getTotalElements());
+                verify(challengeRepository, never()).findByNameContainingIgnoreCaseAndModule_Name(anyString(),
+                                anyString(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should update the search index when a challenge is deleted")
+        void deleteChallenge_shouldRemoveFromSearchIndex() {
+                Challenge challenge = Challenge.builder().name("Challenge1").build();
+                when(challengeRepository.findById("Challenge1")).thenReturn(Optional.of(challenge));
+
+                challengeService.deleteChallenge("Challenge1");
+
+                verify(searchIndex).removed("Challenge1");
+        }
+
         @Test
         void getAllChallengesPaginated_shouldReturnPageOfChallenges() {
                 // Arrange
@@ -1,27 +1,42 @@
 package edu.escuelaing.ecicare.challenges.services;
 
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeParticipantDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ChallengeResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ChallengeSummary;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleChallengeDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleChallengesUsersDTO;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleDTO;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleMatchCount;
 import edu.escuelaing.ecicare.challenges.models.dto.ModuleResponse;
+import edu.escuelaing.ecicare.challenges.models.dto.ModuleStats;
 import edu.escuelaing.ecicare.challenges.models.entity.Challenge;
 import edu.escuelaing.ecicare.challenges.models.entity.Module;
 import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
 import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import edu.escuelaing.ecicare.users.models.dto.UserEcicareDto;
+import edu.escuelaing.ecicare.users.models.entity.UserEcicare;
+import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import edu.escuelaing.ecicare.utils.models.dto.CursorPage;
+import edu.escuelaing.ecicare.utils.models.entity.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.InOrder;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,9 +48,28 @@ public class ModuleServiceTest {
     @Mock
     private ChallengeRepository challengeRepository;
 
-    @InjectMocks
+    @Mock
+    private ChallengeService challengeService;
+
+    @Mock
+    private UserEcicareRepository userEcicareRepository;
+
+    @Mock
+    private ChallengeCache challengeCache;
+
     private ModuleService moduleService;
 
+    private ModuleStatsCache moduleStatsCache;
+
+    @BeforeEach
+    void setUp() {
+        moduleStatsCache = new ModuleStatsCache(30);
+        // Real assembler over the mocked repositories, so responses are still mapped
+        moduleService = new ModuleService(moduleRepository, challengeService, userEcicareRepository,
+                challengeRepository, new ChallengeResponseAssembler(challengeRepository),
+                challengeCache, moduleStatsCache);
+    }
+
     private Module createTestModule(String name, String description, List<Challenge> challenges, String imageUrl) {
         return Module.builder()
                 .name(name)
@@ -62,6 +96,23 @@ public class ModuleServiceTest {
         verify(moduleRepository, times(1)).save(module);
     }
 
+    @Test
+    @DisplayName("Should reuse the module statistics until a module is created")
+    void getModuleStats_shouldCacheUntilModuleCreated() {
+        when(moduleRepository.findModuleStats()).thenReturn(List.of(new ModuleStats("Module1", 2, 3, 1, 1)));
+
+        List<ModuleStats> stats = moduleService.getModuleStats();
+        moduleService.getModuleStats();
+        moduleService.createModule(createTestModuleDto("Module2", "Description2", "imageUrl"));
+        moduleService.getModuleStats();
+
+        assertThat(stats).singleElement().satisfies(module -> {
+            assertThat(module.challenges()).isEqualTo(2);
+            assertThat(module.completionRate()).isEqualTo(0.25);
+        });
+        verify(moduleRepository, times(2)).findModuleStats();
+    }
+
     @Test
     @DisplayName("Should return all modules when they exist")
     void getAllModules_whenModulesExist_shouldReturnModuleList() {
@@ -79,6 +130,29 @@ public class ModuleServiceTest {
         verify(moduleRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Should list only the first challenges of each module with the module totals")
+    void getAllModulesPaginated_withChallengeCap_shouldReportTotals() {
+        Module module1 = createTestModule("Module1", "Description1", null, "imageUrl");
+        Module module2 = createTestModule("Module2", "Description2", null, "imageUrl");
+        Challenge challenge = Challenge.builder().name("Challenge1").module(module1).build();
+        when(moduleRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(module1, module2)));
+        when(challengeRepository.findTopNamesPerModule("", List.of("Module1", "Module2"), 1))
+                .thenReturn(List.of("Challenge1"));
+        when(challengeRepository.findAllById(List.of("Challenge1"))).thenReturn(List.of(challenge));
+        when(challengeRepository.countChallengesByModuleNameIn(List.of("Module1", "Module2")))
+                .thenReturn(List.of(new ModuleMatchCount("Module1", "Description1", "imageUrl", 7)));
+
+        Page<ModuleResponse> result = moduleService.getAllModulesPaginated(0, 2, 1);
+
+        assertThat(result.getContent().get(0).challenges()).extracting(ChallengeResponse::name)
+                .containsExactly("Challenge1");
+        assertThat(result.getContent().get(0).totalChallenges()).isEqualTo(7);
+        assertThat(result.getContent().get(1).challenges()).isEmpty();
+        assertThat(result.getContent().get(1).totalChallenges()).isZero();
+        verify(challengeRepository, never()).findByModule_NameInOrderByNameAsc(anyCollection());
+    }
+
     @Test
     @DisplayName("Should return empty list when no modules exist")
     void getAllModules_whenNoModulesExist_shouldReturnEmptyList() {
@@ -121,15 +195,39 @@ public class ModuleServiceTest {
     }
 
     @Test
-    @DisplayName("Should delete module when it has no challenges")
-    void deleteModule_whenNoChallenges_shouldDeleteAndReturnTrue() {
-        Module module = createTestModule("Module1", "Description1", Collections.emptyList(), "imageUrl");
-        when(moduleRepository.findById("Module1")).thenReturn(Optional.of(module));
+    @DisplayName("Should delete the challenges of a module in bulk and then the module")
+    void deleteModule_shouldDeleteChallengesInBulkThenModule() {
+        when(moduleRepository.existsById("Module1")).thenReturn(true);
 
         moduleService.deleteModule("Module1");
 
-        verify(moduleRepository, times(1)).delete(module);
-        verify(challengeRepository, never()).delete(any());
+        InOrder order = inOrder(challengeService, moduleRepository);
+        order.verify(challengeService).deleteChallengesOfModule("Module1", false);
+        order.verify(moduleRepository).deleteModuleByName("Module1");
+        verify(challengeService, never()).deleteChallenge(anyString());
+        verify(moduleRepository, never()).delete(any(Module.class));
+    }
+
+    @Test
+    @DisplayName("Should only mark a module and its challenges on a soft delete")
+    void deleteModule_whenSoft_shouldMarkModuleAndChallenges() {
+        when(moduleRepository.existsById("Module1")).thenReturn(true);
+
+        moduleService.deleteModule("Module1", true);
+
+        verify(challengeService).deleteChallengesOfModule("Module1", true);
+        verify(moduleRepository).markDeleted(eq("Module1"), any(LocalDateTime.class));
+        verify(moduleRepository, never()).deleteModuleByName(anyString());
+    }
+
+    @Test
+    @DisplayName("Should fail to delete an unknown module")
+    void deleteModule_whenModuleDoesNotExist_shouldThrow() {
+        when(moduleRepository.existsById("Unknown")).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> moduleService.deleteModule("Unknown"));
+
+        verifyNoInteractions(challengeService);
     }
 
     @Test
@@ -185,4 +283,104 @@ public class ModuleServiceTest {
         verify(moduleRepository, times(2)).findAll(any(Pageable.class));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should page challenge summaries of an existing module")
+    void getChallengeSummariesByModulePaged_whenModuleExists_shouldQueryProjection() {
+        Page<ChallengeSummary> summaries = new PageImpl<>(List.of(ChallengeSummary.builder().name("Challenge1").build()));
+        when(moduleRepository.existsById("Module1")).thenReturn(true);
+        when(challengeRepository.findSummaries(eq(""), eq("Module1"), any(Pageable.class))).thenReturn(summaries);
+
+        Page<ChallengeSummary> result = moduleService.getChallengeSummariesByModulePaged("Module1", -1, 0);
+
+        assertThat(result.getContent()).extracting(ChallengeSummary::getName).containsExactly("Challenge1");
+        verify(challengeRepository).findSummaries(eq(""), eq("Module1"),
+                argThat(p -> p.getPageNumber() == 0 && p.getPageSize() == 10));
+        verify(challengeRepository, never()).findByModule_Name(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject summaries of a module that does not exist")
+    void getChallengeSummariesByModulePaged_whenModuleMissing_shouldThrow() {
+        when(moduleRepository.existsById("Missing")).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> moduleService.getChallengeSummariesByModulePaged("Missing", 0, 10));
+        verify(challengeRepository, never()).findSummaries(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return a keyset page of modules with a cursor to the next one")
+    void getModulesAfter_whenMoreRowsThanLimit_shouldReturnNextCursor() {
+        List<Module> rows = List.of(
+                createTestModule("Module1", "Description1", Collections.emptyList(), "imageUrl"),
+                createTestModule("Module2", "Description2", Collections.emptyList(), "imageUrl"),
+                createTestModule("Module3", "Description3", Collections.emptyList(), "imageUrl"));
+        when(moduleRepository.findByNameGreaterThanOrderByNameAsc("", Limit.of(3))).thenReturn(rows);
+
+        CursorPage<ModuleResponse> page = moduleService.getModulesAfter(null, 2);
+
+        assertThat(page.items()).extracting(ModuleResponse::name).containsExactly("Module1", "Module2");
+        assertThat(page.hasNext()).isTrue();
+        assertThat(CursorPage.decode(page.nextCursor())).isEqualTo("Module2");
+        verify(moduleRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor and close the listing on the last page")
+    void getModulesAfter_whenLastPage_shouldNotReturnCursor() {
+        List<Module> rows = List.of(createTestModule("Module3", "Description3", Collections.emptyList(), "imageUrl"));
+        when(moduleRepository.findByNameGreaterThanOrderByNameAsc("Module2", Limit.of(3))).thenReturn(rows);
+
+        CursorPage<ModuleResponse> page = moduleService.getModulesAfter(CursorPage.encode("Module2"), 2);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void getModulesAfter_whenCursorIsMalformed_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> moduleService.getModulesAfter("%%%", 2));
+    }
+
+    @Test
+    @DisplayName("Should build the administrator view with one query per level and a page of users per challenge")
+    void getAllModulesWithChallengesAndUsers_shouldQueryByAdministrator() {
+        UserEcicare admin = UserEcicare.builder().idEci(9L).email("admin@eci.edu.co").build();
+        Module module1 = createTestModule("Module1", "Description1", null, "imageUrl");
+        Module module2 = createTestModule("Module2", "Description2", null, "imageUrl");
+        when(userEcicareRepository.findByEmail("admin@eci.edu.co")).thenReturn(Optional.of(admin));
+        when(moduleRepository.findByAdministrator_IdEciOrderByNameAsc(9L)).thenReturn(List.of(module1, module2));
+        when(challengeRepository.findModuleChallenges(List.of("Module1", "Module2"))).thenReturn(List.of(
+                new ModuleChallengeDTO("Module1", "Challenge1", "d", null, 25),
+                new ModuleChallengeDTO("Module1", "Challenge2", "d", null, 0)));
+        when(challengeRepository.findFirstRegisteredPerChallenge(List.of("Challenge1", "Challenge2"), 2))
+                .thenReturn(List.of(
+                        new ChallengeParticipantDTO("Challenge1", 1L, "Ana", "a@eci.edu.co", Role.STUDENT, null, true),
+                        new ChallengeParticipantDTO("Challenge1", 2L, "Beto", "b@eci.edu.co", Role.STUDENT, null,
+                                false)));
+
+        List<ModuleChallengesUsersDTO> view = moduleService.getAllModulesWithChallengesAndUsers("admin@eci.edu.co", 2);
+
+        assertThat(view).extracting(ModuleChallengesUsersDTO::getName).containsExactly("Module1", "Module2");
+        ModuleChallengesUsersDTO.ChallengeUsersDTO first = view.get(0).getChallenges().get(0);
+        assertThat(first.getRegisteredUsers()).extracting(UserEcicareDto::getEmail)
+                .containsExactly("a@eci.edu.co", "b@eci.edu.co");
+        assertThat(first.getRegisteredCount()).isEqualTo(25);
+        assertThat(view.get(0).getChallenges().get(1).getRegisteredUsers()).isEmpty();
+        assertThat(view.get(1).getChallenges()).isEmpty();
+        verify(moduleRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should not read challenges for users that administer no module")
+    void getAllModulesWithChallengesAndUsers_whenNoModules_shouldReturnEmpty() {
+        UserEcicare user = UserEcicare.builder().idEci(9L).email("user@eci.edu.co").build();
+        when(userEcicareRepository.findByEmail("user@eci.edu.co")).thenReturn(Optional.of(user));
+        when(moduleRepository.findByAdministrator_IdEciOrderByNameAsc(9L)).thenReturn(List.of());
+
+        assertThat(moduleService.getAllModulesWithChallengesAndUsers("user@eci.edu.co")).isEmpty();
+        verifyNoInteractions(challengeRepository);
+    }
+
+}
@@ -0,0 +1,85 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ParticipationArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipationArchiveServiceTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Mock
+    private ParticipationArchiveRepository archiveRepository;
+
+    private ParticipationArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new ParticipationArchiveService(challengeRepository, moduleRepository, archiveRepository);
+    }
+
+    @Test
+    @DisplayName("Should copy and then delete a chunk of registrations before anything else")
+    void archiveChunk_shouldMoveRegistrationsFirst() {
+        when(archiveRepository.findRegisteredUserIds("Challenge1", 2)).thenReturn(List.of(1L, 2L));
+        when(challengeRepository.unregisterUsersFromChallenge("Challenge1", List.of(1L, 2L))).thenReturn(2);
+
+        assertThat(archiveService.archiveChunk("Challenge1", 2)).isEqualTo(2);
+
+        var order = inOrder(archiveRepository, challengeRepository);
+        order.verify(archiveRepository).archiveRegistered(eq("Challenge1"), eq(List.of(1L, 2L)),
+                any(LocalDateTime.class));
+        order.verify(challengeRepository).unregisterUsersFromChallenge("Challenge1", List.of(1L, 2L));
+        verify(archiveRepository, never()).findConfirmedUserIds(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should move confirmations and then verification counters once registrations are gone")
+    void archiveChunk_shouldMoveConfirmationsThenVerifications() {
+        when(archiveRepository.findRegisteredUserIds("Challenge1", 10)).thenReturn(List.of());
+        when(archiveRepository.findConfirmedUserIds("Challenge1", 10)).thenReturn(List.of(3L), List.of());
+        when(challengeRepository.unconfirmUsersFromChallenge("Challenge1", List.of(3L))).thenReturn(1);
+        when(archiveRepository.findVerificationEmails("Challenge1", 10)).thenReturn(List.of("a@eci.edu.co"));
+        when(challengeRepository.deleteVerifications("Challenge1", List.of("a@eci.edu.co"))).thenReturn(1);
+
+        assertThat(archiveService.archiveChunk("Challenge1", 10)).isEqualTo(1);
+        assertThat(archiveService.archiveChunk("Challenge1", 10)).isEqualTo(1);
+
+        verify(archiveRepository).archiveConfirmed(eq("Challenge1"), eq(List.of(3L)), any(LocalDateTime.class));
+        verify(archiveRepository).archiveVerifications(eq("Challenge1"), eq(List.of("a@eci.edu.co")),
+                any(LocalDateTime.class));
+        verify(challengeRepository).addParticipationCounts("Challenge1", 0, 0, -1);
+        verify(moduleRepository).addParticipationCountsOfChallenge("Challenge1", 0, 0, -1);
+    }
+
+    @Test
+    @DisplayName("Should report nothing left when the hot tables are empty")
+    void archiveChunk_whenNothingLeft_shouldReturnZero() {
+        when(archiveRepository.findRegisteredUserIds("Challenge1", 10)).thenReturn(List.of());
+        when(archiveRepository.findConfirmedUserIds("Challenge1", 10)).thenReturn(List.of());
+        when(archiveRepository.findVerificationEmails("Challenge1", 10)).thenReturn(List.of());
+
+        assertThat(archiveService.archiveChunk("Challenge1", 10)).isZero();
+
+        verify(challengeRepository, never()).unregisterUsersFromChallenge(any(), anyCollection());
+    }
+}
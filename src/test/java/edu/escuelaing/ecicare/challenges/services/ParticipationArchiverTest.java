@@ -0,0 +1,69 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipationArchiverTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private ParticipationArchiveService archiveService;
+
+    @Mock
+    private ChallengeMembershipIndex membershipIndex;
+
+    private ParticipationArchiver archiver(boolean enabled) {
+        return new ParticipationArchiver(challengeRepository, archiveService, membershipIndex, enabled, 30, 500);
+    }
+
+    @Test
+    @DisplayName("Should archive every chunk of each finished challenge and evict it from the index")
+    void archiveFinished_shouldDrainEachChallenge() {
+        when(challengeRepository.findArchivableChallengeNames(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of("Challenge1", "Challenge2"));
+        when(archiveService.archiveChunk("Challenge1", 500)).thenReturn(500, 20, 0);
+        when(archiveService.archiveChunk("Challenge2", 500)).thenReturn(0);
+
+        assertThat(archiver(true).archiveFinished()).isEqualTo(520);
+
+        verify(archiveService, times(3)).archiveChunk("Challenge1", 500);
+        verify(membershipIndex).evict("Challenge1");
+        verify(membershipIndex).evict("Challenge2");
+    }
+
+    @Test
+    @DisplayName("Should go on with the next challenge when one fails")
+    void archiveFinished_whenChunkFails_shouldContinue() {
+        when(challengeRepository.findArchivableChallengeNames(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of("Challenge1", "Challenge2"));
+        when(archiveService.archiveChunk("Challenge1", 500)).thenThrow(new RuntimeException("lock timeout"));
+        when(archiveService.archiveChunk("Challenge2", 500)).thenReturn(3, 0);
+
+        assertThat(archiver(true).archiveFinished()).isEqualTo(3);
+
+        verify(membershipIndex).evict("Challenge1");
+    }
+
+    @Test
+    @DisplayName("Should do nothing when archiving is disabled")
+    void archiveFinished_whenDisabled_shouldNotQuery() {
+        assertThat(archiver(false).archiveFinished()).isZero();
+
+        verifyNoInteractions(challengeRepository, archiveService);
+    }
+}
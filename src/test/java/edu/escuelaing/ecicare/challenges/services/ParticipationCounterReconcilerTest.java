@@ -0,0 +1,64 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.challenges.repositories.ModuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipationCounterReconcilerTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    private ParticipationCounterReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new ParticipationCounterReconciler(challengeRepository, moduleRepository,
+                new ChallengeCache(100, 600), new ModuleStatsCache(30));
+    }
+
+    @Test
+    @DisplayName("Should recompute challenges in keyset chunks and then roll up the modules")
+    void reconcile_shouldWalkChallengesInChunks() {
+        List<String> first = IntStream.range(0, 500).mapToObj(i -> String.format("Challenge%03d", i)).toList();
+        List<String> second = List.of("Challenge500");
+        when(challengeRepository.findNamesAfter("", Limit.of(500))).thenReturn(first);
+        when(challengeRepository.findNamesAfter("Challenge499", Limit.of(500))).thenReturn(second);
+        when(challengeRepository.reconcileParticipationCounts(first)).thenReturn(500);
+        when(challengeRepository.reconcileParticipationCounts(second)).thenReturn(1);
+
+        assertThat(reconciler.reconcile()).isEqualTo(501);
+
+        var order = inOrder(challengeRepository, moduleRepository);
+        order.verify(challengeRepository).reconcileParticipationCounts(first);
+        order.verify(challengeRepository).reconcileParticipationCounts(second);
+        order.verify(moduleRepository).reconcileParticipationCounts();
+    }
+
+    @Test
+    @DisplayName("Should still roll up the modules when there are no challenges")
+    void reconcile_withoutChallenges_shouldOnlyRollUpModules() {
+        when(challengeRepository.findNamesAfter("", Limit.of(500))).thenReturn(List.of());
+
+        assertThat(reconciler.reconcile()).isZero();
+
+        verify(challengeRepository, never()).reconcileParticipationCounts(any());
+        verify(moduleRepository).reconcileParticipationCounts();
+    }
+}
@@ -0,0 +1,192 @@
+package edu.escuelaing.ecicare.challenges.services;
+
+import edu.escuelaing.ecicare.challenges.models.dto.VerificationAck;
+import edu.escuelaing.ecicare.challenges.repositories.ChallengeRepository;
+import edu.escuelaing.ecicare.users.models.dto.UserEmailIdDTO;
+import edu.escuelaing.ecicare.users.repositories.UserEcicareRepository;
+import edu.escuelaing.ecicare.utils.exceptions.ChallengeClosedException;
+import edu.escuelaing.ecicare.utils.exceptions.notfound.ChallengeNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationBufferTest {
+
+    @Mock
+    private ChallengeService challengeService;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private UserEcicareRepository userEcicareRepository;
+
+    @Mock
+    private ChallengeMembershipIndex membershipIndex;
+
+    private VerificationBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new VerificationBuffer(challengeService, challengeRepository, userEcicareRepository,
+                membershipIndex, true, 100);
+    }
+
+    private void stubRegisteredUser(String email, long id, Integer persistedCount) {
+        when(challengeRepository.findRequiredVerifications("Challenge1")).thenReturn(3);
+        when(userEcicareRepository.findEmailIdsByEmailIn(List.of(email)))
+                .thenReturn(List.of(new UserEmailIdDTO(email, id)));
+        when(membershipIndex.isRegistered("Challenge1", id)).thenReturn(true);
+        when(challengeRepository.findVerificationCount("Challenge1", email)).thenReturn(persistedCount);
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated scans and flush them as a single delta")
+    void verify_shouldCoalesceScansUntilFlush() {
+        stubRegisteredUser("a@eci.edu.co", 1L, 1);
+
+        VerificationAck first = buffer.verify("a@eci.edu.co", "Challenge1");
+        VerificationAck second = buffer.verify("A@eci.edu.co", "Challenge1");
+
+        assertThat(first.projectedVerifications()).isEqualTo(2);
+        assertThat(first.buffered()).isTrue();
+        assertThat(second.projectedVerifications()).isEqualTo(3);
+        assertThat(second.confirmed()).isTrue();
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+        // Solo el primer escaneo consulta la base de datos
+        verify(challengeRepository, times(1)).findVerificationCount("Challenge1", "a@eci.edu.co");
+        verifyNoInteractions(challengeService);
+
+        buffer.flush();
+
+        verify(challengeService).applyVerifications("Challenge1",
+                Map.of(new UserEmailIdDTO("a@eci.edu.co", 1L), 2));
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep pending increments when a flush fails and drain them on shutdown")
+    void flush_whenApplyFails_shouldRetryOnDrain() {
+        stubRegisteredUser("a@eci.edu.co", 1L, null);
+        buffer.verify("a@eci.edu.co", "Challenge1");
+        doThrow(new RuntimeException("db down")).doNothing()
+                .when(challengeService).applyVerifications(eq("Challenge1"), anyMap());
+
+        buffer.flush();
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+
+        buffer.drain();
+
+        verify(challengeService, times(2)).applyVerifications("Challenge1",
+                Map.of(new UserEmailIdDTO("a@eci.edu.co", 1L), 1));
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject scans of users not registered in the challenge")
+    void verify_whenNotRegistered_shouldThrow() {
+        when(challengeRepository.findRequiredVerifications("Challenge1")).thenReturn(3);
+        when(userEcicareRepository.findEmailIdsByEmailIn(List.of("a@eci.edu.co")))
+                .thenReturn(List.of(new UserEmailIdDTO("a@eci.edu.co", 1L)));
+        when(membershipIndex.isRegistered("Challenge1", 1L)).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> buffer.verify("a@eci.edu.co", "Challenge1"));
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject scans once the deadline of the challenge has passed")
+    void verify_whenDeadlinePassed_shouldThrowChallengeClosed() {
+        when(challengeRepository.findRequiredVerifications("Challenge1")).thenReturn(3);
+        when(challengeRepository.findDeadline("Challenge1")).thenReturn(LocalDateTime.now().minusMinutes(1));
+
+        assertThrows(ChallengeClosedException.class, () -> buffer.verify("a@eci.edu.co", "Challenge1"));
+        assertThat(buffer.pendingCount()).isZero();
+        verifyNoInteractions(userEcicareRepository);
+    }
+
+    @Test
+    @DisplayName("Should write synchronously when write-behind is disabled")
+    void verify_whenDisabled_shouldConfirmSynchronously() {
+        buffer = new VerificationBuffer(challengeService, challengeRepository, userEcicareRepository,
+                membershipIndex, false, 100);
+        when(challengeRepository.findRequiredVerifications("Challenge1")).thenReturn(1);
+        when(userEcicareRepository.findEmailIdsByEmailIn(List.of("a@eci.edu.co")))
+                .thenReturn(List.of(new UserEmailIdDTO("a@eci.edu.co", 1L)));
+        when(challengeRepository.findVerificationCount("Challenge1", "a@eci.edu.co")).thenReturn(null);
+        when(membershipIndex.isConfirmed("Challenge1", 1L)).thenReturn(true);
+
+        VerificationAck ack = buffer.verify("a@eci.edu.co", "Challenge1");
+
+        verify(challengeService).confirmUserByEmail("a@eci.edu.co", "Challenge1");
+        assertThat(ack.buffered()).isFalse();
+        assertThat(ack.confirmed()).isTrue();
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should read the synchronous count with the stored email and not assume a promotion")
+    void verify_whenDisabled_shouldUseStoredEmail() {
+        buffer = new VerificationBuffer(challengeService, challengeRepository, userEcicareRepository,
+                membershipIndex, false, 100);
+        when(challengeRepository.findRequiredVerifications("Challenge1")).thenReturn(3);
+        when(userEcicareRepository.findEmailIdsByEmailIn(List.of("a@eci.edu.co")))
+                .thenReturn(List.of(new UserEmailIdDTO("A@eci.edu.co", 1L)));
+        when(challengeRepository.findVerificationCount("Challenge1", "A@eci.edu.co")).thenReturn(2, (Integer) null);
+        when(membershipIndex.isConfirmed("Challenge1", 1L)).thenReturn(false);
+
+        VerificationAck counted = buffer.verify(" a@ECI.edu.co", "Challenge1");
+        VerificationAck missing = buffer.verify(" a@ECI.edu.co", "Challenge1");
+
+        assertThat(counted.projectedVerifications()).isEqualTo(2);
+        assertThat(counted.userEmail()).isEqualTo("A@eci.edu.co");
+        assertThat(missing.projectedVerifications()).isZero();
+        assertThat(missing.confirmed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep failed entries within the capacity and write new pairs synchronously")
+    void verify_whenFailedFlushFillsCapacity_shouldFallBackToSynchronous() {
+        buffer = new VerificationBuffer(challengeService, challengeRepository, userEcicareRepository,
+                membershipIndex, true, 1);
+        stubRegisteredUser("a@eci.edu.co", 1L, 0);
+        when(userEcicareRepository.findEmailIdsByEmailIn(List.of("b@eci.edu.co")))
+                .thenReturn(List.of(new UserEmailIdDTO("b@eci.edu.co", 2L)));
+        when(membershipIndex.isRegistered("Challenge1", 2L)).thenReturn(true);
+        when(challengeRepository.findVerificationCount("Challenge1", "b@eci.edu.co")).thenReturn(0, 1);
+        doThrow(new RuntimeException("db down")).when(challengeService).applyVerifications(eq("Challenge1"), anyMap());
+
+        buffer.verify("a@eci.edu.co", "Challenge1");
+        buffer.flush();
+        // El par vuelve a entrar mientras su escritura está pendiente y no ocupa otro permiso
+        buffer.verify("a@eci.edu.co", "Challenge1");
+        VerificationAck other = buffer.verify("b@eci.edu.co", "Challenge1");
+
+        assertThat(other.buffered()).isFalse();
+        assertThat(other.projectedVerifications()).isEqualTo(1);
+        verify(challengeService).confirmUserByEmail("b@eci.edu.co", "Challenge1");
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report a missing challenge when writing synchronously")
+    void verify_whenDisabledAndChallengeMissing_shouldThrowNotFound() {
+        buffer = new VerificationBuffer(challengeService, challengeRepository, userEcicareRepository,
+                membershipIndex, false, 100);
+        when(challengeRepository.findRequiredVerifications("Missing")).thenReturn(null);
+
+        assertThrows(ChallengeNotFoundException.class, () -> buffer.verify("a@eci.edu.co", "Missing"));
+    }
+}